@@ -0,0 +1,62 @@
+package org.delcom.app.configs;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt dengan cost yang dikalibrasi saat startup supaya satu hash ~app.password-hash.target-ms di mesin ini.
+ * Cost tercatat di setiap hash ($2a$NN$...). upgradeEncoding true kalau cost hash tersimpan beda dengan cost
+ * sekarang (naik maupun turun), lalu hash di-rehash saat login sukses (AuthService).
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}$");
+
+    // Cost yang diukur waktunya saat kalibrasi (cukup cepat, tapi jauh di atas noise timer)
+    static final int PROBE_COST = 8;
+    private static final int PROBE_ROUNDS = 5;
+
+    private final int strength;
+
+    public AdaptiveBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    // Cost dari hash tersimpan, -1 kalau bukan hash BCrypt
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null) return -1;
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = costOf(encodedPassword);
+        return cost != -1 && cost != strength;
+    }
+
+    // Cost terbesar yang waktunya tidak melebihi target (setiap +1 cost = 2x lebih lama), dibatasi [minCost, maxCost]
+    public static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_COST);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < PROBE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return costFor(best, targetMillis, minCost, maxCost);
+    }
+
+    static int costFor(long probeNanos, long targetMillis, int minCost, int maxCost) {
+        double ratio = targetMillis * 1_000_000.0 / Math.max(1, probeNanos);
+        int cost = PROBE_COST + (int) Math.floor(Math.log(ratio) / Math.log(2));
+        return Math.max(minCost, Math.min(maxCost, cost));
+    }
+}
@@ -0,0 +1,168 @@
+package org.delcom.app.configs;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Ring buffer log request (multi-producer, satu consumer) dipakai RequestLoggingFilter.
+ * Slot dialokasikan sekali di awal; thread request cukup klaim nomor urut (CAS), isi field slot, lalu publish.
+ * Thread "request-log" mengambil slot yang sudah dipublish per batch, memformatnya ke satu StringBuilder
+ * yang dipakai ulang, dan menulisnya sekaligus ke output.
+ */
+public class AsyncRequestLogger implements AutoCloseable {
+
+    // Sikap kalau buffer penuh: DROP = log dibuang (dihitung di getDropped), BLOCK = request menunggu slot kosong
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final String RESET = "\u001B[0m";
+    private static final String GREEN = "\u001B[32m";
+    private static final String YELLOW = "\u001B[33m";
+    private static final String RED = "\u001B[31m";
+    private static final String CYAN = "\u001B[36m";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private static final class Slot {
+        private volatile long published = -1;
+        private String method;
+        private String uri;
+        private String remoteAddr;
+        private int status;
+        private long durationMs;
+        private int queries;
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int batchSize;
+    private final OverflowPolicy policy;
+    private final Supplier<PrintStream> out;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private final StringBuilder line = new StringBuilder(4096);
+    private final Thread drainer;
+
+    // capacity dibulatkan ke pangkat dua; out dibaca ulang tiap batch (System.out bisa diganti)
+    public AsyncRequestLogger(int capacity, int batchSize, OverflowPolicy policy, Supplier<PrintStream> out) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) slots[i] = new Slot();
+        this.mask = size - 1;
+        this.batchSize = Math.max(1, batchSize);
+        this.policy = policy;
+        this.out = out;
+
+        this.drainer = new Thread(this::drainLoop, "request-log");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    // false kalau buffer penuh dan policy DROP
+    public boolean log(String method, String uri, int status, long durationMs, int queries, String remoteAddr) {
+        long seq;
+        while (true) {
+            seq = claimed.get();
+            if (seq - consumed >= slots.length) {
+                if (policy == OverflowPolicy.DROP || !running) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                LockSupport.unpark(drainer);
+                Thread.onSpinWait();
+                continue;
+            }
+            if (claimed.compareAndSet(seq, seq + 1)) break;
+        }
+
+        Slot slot = slots[(int) (seq & mask)];
+        slot.method = method;
+        slot.uri = uri;
+        slot.remoteAddr = remoteAddr;
+        slot.status = status;
+        slot.durationMs = durationMs;
+        slot.queries = queries;
+        slot.published = seq;
+        return true;
+    }
+
+    // Tunggu sampai semua log yang sudah masuk tertulis (dipakai saat shutdown & di test)
+    public void flush(long timeoutMs) {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (consumed < target && System.nanoTime() < deadline && drainer.isAlive()) {
+            LockSupport.unpark(drainer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush(1000);
+        running = false;
+        LockSupport.unpark(drainer);
+    }
+
+    // --- COUNTER ---
+    public long getWritten() { return written.get(); }
+    public long getDropped() { return dropped.get(); }
+    public long getBatches() { return batches.get(); }
+    public long getPending() { return claimed.get() - consumed; }
+    public int getCapacity() { return slots.length; }
+
+    private void drainLoop() {
+        while (running || consumed < claimed.get()) {
+            if (drainBatch() == 0) {
+                if (!running) return;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int drainBatch() {
+        long next = consumed;
+        int count = 0;
+        line.setLength(0);
+        while (count < batchSize) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.published != next) break;
+            append(slot);
+            slot.method = slot.uri = slot.remoteAddr = null;
+            next++;
+            count++;
+        }
+        if (count == 0) return 0;
+
+        PrintStream stream = out.get();
+        stream.print(line);
+        stream.flush();
+        consumed = next;
+        written.addAndGet(count);
+        batches.incrementAndGet();
+        return count;
+    }
+
+    // Format: "<warna>GET    /uri 200 12ms 3q<reset> from 127.0.0.1" (jumlah query hanya kalau ada)
+    private void append(Slot slot) {
+        int status = slot.status;
+        line.append(status >= 500 ? RED : status >= 400 ? YELLOW : status >= 200 ? GREEN : CYAN);
+        line.append(slot.method);
+        for (int i = slot.method == null ? 4 : slot.method.length(); i < 6; i++) line.append(' ');
+        line.append(' ').append(slot.uri)
+            .append(' ').append(status)
+            .append(' ').append(slot.durationMs).append("ms");
+        if (slot.queries > 0) line.append(' ').append(slot.queries).append('q');
+        line.append(RESET)
+            .append(" from ").append(slot.remoteAddr)
+            .append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,41 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.RevokedTokenFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Setiap login menambah satu baris auth_tokens, job ini membersihkan baris yang sudah lewat expires_at
+ * supaya tabel (dan index token) tidak tumbuh terus. Sekalian membuang revoked_tokens yang JWT-nya sudah
+ * kedaluwarsa. Matikan dengan app.token-purge.enabled=false.
+ */
+@Component
+@ConditionalOnProperty(name = "app.token-purge.enabled", havingValue = "true", matchIfMissing = true)
+public class AuthTokenPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenPurgeJob.class);
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @Scheduled(initialDelayString = "${app.token-purge.initial-delay-ms:60000}",
+               fixedDelayString = "${app.token-purge.interval-ms:600000}")
+    public void purge() {
+        int purged = authTokenService.purgeExpired();
+        log.info("auth_tokens purge: {} rows purged ({} total), {} rows remaining",
+                purged, authTokenService.getPurgedTotal(), authTokenService.getTokenCount());
+
+        int revokedPurged = revokedTokenFilter.purgeExpired();
+        log.info("revoked_tokens purge: {} rows purged, filter holds {} tokens in {} bytes (fpp {} measured, {} expected)",
+                revokedPurged, revokedTokenFilter.size(), revokedTokenFilter.getMemoryBytes(),
+                revokedTokenFilter.getFalsePositiveRate(), revokedTokenFilter.getExpectedFalsePositiveRate());
+    }
+}
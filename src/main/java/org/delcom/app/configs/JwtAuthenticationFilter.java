@@ -0,0 +1,55 @@
+package org.delcom.app.configs;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.services.VerifiedTokenCache;
+import org.delcom.app.utils.CookieUtil;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Mode stateless (app.auth.stateless=true): autentikasi dari cookie JWT "token" di setiap request.
+ * Principal dibangun dari claim token saja (tanpa query database, tanpa HttpSession),
+ * jadi beberapa node aplikasi bisa jalan di belakang load balancer tanpa sticky session.
+ * Verifikasi lewat VerifiedTokenCache: cookie yang sama tidak di-verify ulang sampai token kedaluwarsa / logout.
+ * Token rusak / kedaluwarsa / sudah logout diabaikan, request lanjut sebagai anonymous.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache) {
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = CookieUtil.readAuthToken(request);
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String email = verifiedTokenCache.verify(token).map(Claims::getSubject).orElse(null);
+            if (email != null) {
+                UserDetails principal = new User(email, "", List.of());
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,46 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.services.LoginRateLimiter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Membatasi POST login (form login Spring /auth/login/post dan AuthController /auth/login) per IP dan per email.
+ * Percobaan yang melewati batas langsung 429 + Retry-After, sebelum findByEmail maupun BCrypt dijalankan.
+ * IP klien dari getRemoteAddr(): di belakang reverse proxy sudah diganti RemoteIpValve (server.forward-headers-strategy=native)
+ * dengan IP dari X-Forwarded-For, jadi tiap klien punya bucket sendiri, bukan berbagi bucket IP proxy.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+    static final Set<String> LOGIN_PATHS = Set.of("/auth/login", "/auth/login/post");
+
+    private final LoginRateLimiter limiter;
+
+    public LoginRateLimitFilter(LoginRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod()) || !LOGIN_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LoginRateLimiter.Decision decision = limiter.tryAcquire(request.getRemoteAddr(), request.getParameter("email"));
+        if (!decision.isAllowed()) {
+            response.setHeader("Retry-After", String.valueOf(decision.getRetryAfterSeconds()));
+            response.sendError(429, "Terlalu banyak percobaan login, coba lagi nanti.");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
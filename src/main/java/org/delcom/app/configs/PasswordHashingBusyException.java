@@ -0,0 +1,13 @@
+package org.delcom.app.configs;
+
+// Pool hashing password penuh / terlalu lama antre, diterjemahkan jadi 503 oleh PasswordHashingBusyFilter
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
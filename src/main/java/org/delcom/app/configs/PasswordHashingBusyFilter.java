@@ -0,0 +1,38 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Menerjemahkan PasswordHashingBusyException jadi 503 + Retry-After, baik dari form login Spring Security
+ * (/auth/login/post) maupun dari controller (login, register, update profil). Dipasang di SecurityConfig.
+ */
+public class PasswordHashingBusyFilter extends OncePerRequestFilter {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            if (!isBusy(e) || response.isCommitted()) throw e;
+            response.resetBuffer();
+            response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server sedang sibuk, coba lagi sebentar.");
+        }
+    }
+
+    private static boolean isBusy(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof PasswordHashingBusyException) return true;
+        }
+        return false;
+    }
+}
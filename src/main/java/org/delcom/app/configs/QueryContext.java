@@ -0,0 +1,77 @@
+package org.delcom.app.configs;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Penghitung statement SQL per thread, diisi QueryCountingInspector & QueryTimingListener (lihat QueryMonitoringConfig).
+ * RequestLoggingFilter membuka satu context per request; context bisa bersarang (mis. QueryBudget di test
+ * membungkus request MockMvc), statement dihitung ke semua context yang sedang terbuka.
+ * Di luar context (job terjadwal, startup) statement tidak dihitung.
+ */
+public final class QueryContext implements AutoCloseable {
+
+    private static final ThreadLocal<QueryContext> CURRENT = new ThreadLocal<>();
+
+    private final QueryContext parent;
+    private int count;
+    private long nanos;
+    private boolean closed;
+    // SQL (dengan placeholder ?) -> berapa kali dijalankan, urut sesuai pertama kali muncul
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+
+    private QueryContext(QueryContext parent) {
+        this.parent = parent;
+    }
+
+    public static QueryContext begin() {
+        QueryContext context = new QueryContext(CURRENT.get());
+        CURRENT.set(context);
+        return context;
+    }
+
+    // null kalau tidak ada context terbuka di thread ini
+    public static QueryContext current() {
+        return CURRENT.get();
+    }
+
+    static void recordStatement(String sql) {
+        for (QueryContext c = CURRENT.get(); c != null; c = c.parent) {
+            c.count++;
+            c.statements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void recordTime(long nanos) {
+        for (QueryContext c = CURRENT.get(); c != null; c = c.parent) {
+            c.nanos += nanos;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (CURRENT.get() == this) {
+            if (parent == null) CURRENT.remove();
+            else CURRENT.set(parent);
+        }
+    }
+
+    public int getCount() { return count; }
+    public long getNanos() { return nanos; }
+
+    public Map<String, Integer> getStatements() {
+        return Collections.unmodifiableMap(statements);
+    }
+
+    // Statement identik yang dijalankan minimal threshold kali (tanda N+1)
+    public Map<String, Integer> getRepeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.forEach((sql, n) -> {
+            if (n >= threshold) repeated.put(sql, n);
+        });
+        return repeated;
+    }
+}
@@ -0,0 +1,13 @@
+package org.delcom.app.configs;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Dipanggil Hibernate setiap kali menyiapkan statement SQL; SQL tidak diubah, hanya dihitung
+public class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryContext.recordStatement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,19 @@
+package org.delcom.app.configs;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Pasang penghitung & pengukur waktu statement SQL ke Hibernate (dibaca lewat QueryContext)
+@Configuration
+public class QueryMonitoringConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryMonitoringCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingInspector());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package org.delcom.app.configs;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Dibuat Hibernate per session (hibernate.session.events.auto): mengukur waktu eksekusi JDBC
+public class QueryTimingListener extends BaseSessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryContext.recordTime(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryContext.recordTime(System.nanoTime() - batchStart);
+    }
+}
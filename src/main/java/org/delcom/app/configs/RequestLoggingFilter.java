@@ -4,21 +4,33 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.services.QueryMonitor;
+import org.delcom.app.services.RouteLatencyMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+// Log satu baris per request. Thread request hanya mengisi slot di AsyncRequestLogger,
+// format & tulis ke System.out dikerjakan thread "request-log" per batch.
+// Latensi (nanodetik) juga dicatat ke histogram per route (RouteLatencyMetrics, dibaca di /metrics),
+// dan jumlah query SQL per request dihitung lewat QueryContext lalu dievaluasi QueryMonitor.
+// Dipasang paling depan (sebelum Spring Security, order -100) supaya request yang dijawab di dalam
+// security juga tercatat: POST login form, 429 LoginRateLimitFilter, 503 PasswordHashingBusyFilter, redirect ke login.
 @Component
-public class RequestLoggingFilter extends OncePerRequestFilter {
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter implements DisposableBean {
 
-    private static final String RESET = "\u001B[0m";
-    private static final String GREEN = "\u001B[32m";
-    private static final String YELLOW = "\u001B[33m";
-    private static final String RED = "\u001B[31m";
-    private static final String CYAN = "\u001B[36m";
+    // Endpoint yang dijawab filter Spring Security (tanpa handler MVC), dicatat dengan path-nya sendiri
+    static final Set<String> SECURITY_ROUTES = Set.of("/auth/login/post", "/logout");
 
     @Value("${server.port:8080}")
     private int port;
@@ -26,51 +38,79 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     @Value("${spring.devtools.livereload.enabled:false}")
     private boolean livereload;
 
+    @Value("${app.request-log.buffer-size:8192}")
+    private int bufferSize = 8192;
+
+    @Value("${app.request-log.batch-size:256}")
+    private int batchSize = 256;
+
+    @Value("${app.request-log.on-full:DROP}")
+    private AsyncRequestLogger.OverflowPolicy onFull = AsyncRequestLogger.OverflowPolicy.DROP;
+
+    @Autowired(required = false)
+    private RouteLatencyMetrics latencyMetrics;
+
+    @Autowired(required = false)
+    private QueryMonitor queryMonitor;
+
+    // Dibuat saat request pertama supaya nilai @Value sudah terisi
+    private volatile AsyncRequestLogger logger;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain)
             throws ServletException, IOException {
 
-        long start = System.currentTimeMillis();
-        filterChain.doFilter(request, response);
-        long duration = System.currentTimeMillis() - start;
+        long start = System.nanoTime();
+        QueryContext queries = QueryContext.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            queries.close();
+        }
+        long nanos = System.nanoTime() - start;
 
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        String remoteAddr = request.getRemoteAddr();
         int status = response.getStatus();
-        String color;
-        if (status >= 500) {
-            color = RED;
-        } else if (status >= 400) {
-            color = YELLOW;
-        } else if (status >= 200) {
-            color = GREEN;
-        } else {
-            color = CYAN;
+        if (latencyMetrics != null) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern instanceof String matched ? matched : SECURITY_ROUTES.contains(uri) ? uri : null;
+            latencyMetrics.record(route, method, status, nanos);
+        }
+        if (queryMonitor != null) {
+            queryMonitor.report(method, uri, queries);
         }
+        if (!uri.startsWith("/.well-known")) {
+            logger().log(method, uri, status, TimeUnit.NANOSECONDS.toMillis(nanos), queries.getCount(), remoteAddr);
+        }
+    }
 
-        // Ambil asal kode dari stacktrace
-        StackTraceElement[] stack = Thread.currentThread().getStackTrace();
-        StackTraceElement origin = Arrays.stream(stack)
-                .filter(s -> s.getClassName().startsWith("org.delcom"))
-                .findFirst()
-                .orElse(stack[stack.length - 1]);
-        String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
+    public AsyncRequestLogger logger() {
+        AsyncRequestLogger current = logger;
+        if (current == null) {
+            synchronized (this) {
+                current = logger;
+                if (current == null) {
+                    current = new AsyncRequestLogger(bufferSize, batchSize, onFull, () -> System.out);
+                    logger = current;
+                }
+            }
+        }
+        return current;
+    }
 
-        String remoteAddr = request.getRemoteAddr();
+    // Tunggu log yang masih di buffer tertulis
+    public void flush() {
+        AsyncRequestLogger current = logger;
+        if (current != null) current.flush(1000);
+    }
 
-        String log = String.format(
-                "%s%-6s %s %d %dms%s [%s] from %s",
-                color,
-                request.getMethod(),
-                request.getRequestURI(),
-                status,
-                duration,
-                RESET,
-                originInfo,
-                remoteAddr);
-
-        if (!request.getRequestURI().startsWith("/.well-known")) {
-            System.out.println(log);
-        }
+    @Override
+    public void destroy() {
+        AsyncRequestLogger current = logger;
+        if (current != null) current.close();
     }
 }
@@ -0,0 +1,30 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.RevokedTokenFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mengisi RevokedTokenFilter dari tabel revoked_tokens saat aplikasi siap, lalu berkala
+ * (app.revoked-filter.refresh-ms) supaya logout yang terjadi di node lain ikut masuk filter.
+ */
+@Component
+public class RevokedTokenRefreshJob {
+
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        revokedTokenFilter.rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.revoked-filter.refresh-ms:60000}",
+               fixedDelayString = "${app.revoked-filter.refresh-ms:60000}")
+    public void refresh() {
+        revokedTokenFilter.rebuild();
+    }
+}
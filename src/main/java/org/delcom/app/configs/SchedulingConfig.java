@@ -0,0 +1,10 @@
+package org.delcom.app.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Mengaktifkan job terjadwal (@Scheduled), mis. AuthTokenPurgeJob
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,29 @@
+package org.delcom.app.configs;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Migrasi schema jalan duluan, Hibernate cukup memvalidasi (spring.jpa.hibernate.ddl-auto=validate)
+@Configuration
+@ConditionalOnProperty(name = "app.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class SchemaMigrationConfig {
+
+    public static final String MIGRATOR_BEAN = "schemaMigrator";
+
+    @Bean(name = MIGRATOR_BEAN, initMethod = "migrate")
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+                                         @Value("${app.migration.location:classpath:db/migration}") String location) {
+        return new SchemaMigrator(dataSource, location);
+    }
+
+    // EntityManagerFactory baru dibuat setelah migrasi selesai
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrator() {
+        return new EntityManagerFactoryDependsOnPostProcessor(MIGRATOR_BEAN);
+    }
+}
@@ -0,0 +1,175 @@
+package org.delcom.app.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Menjalankan script migrasi berversi (db/migration/V{versi}__{deskripsi}.sql) sebelum Hibernate start.
+ * Versi yang sudah dijalankan dicatat di tabel schema_version beserta checksum-nya;
+ * script lama yang diubah setelah dijalankan dianggap error, bikin versi baru saja.
+ */
+public class SchemaMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    public static final String VERSION_TABLE = "schema_version";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String location;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    // --- SATU SCRIPT MIGRASI ---
+    public static final class Migration {
+        private final int version;
+        private final String description;
+        private final Resource resource;
+        private final String checksum;
+
+        Migration(int version, String description, Resource resource, String checksum) {
+            this.version = version;
+            this.description = description;
+            this.resource = resource;
+            this.checksum = checksum;
+        }
+
+        public int getVersion() { return version; }
+        public String getDescription() { return description; }
+        public Resource getResource() { return resource; }
+        public String getChecksum() { return checksum; }
+    }
+
+    // Jalankan semua migrasi yang belum tercatat, hasilnya jumlah script yang baru dijalankan
+    public int migrate() {
+        List<Migration> migrations = findMigrations();
+        try (Connection conn = dataSource.getConnection()) {
+            ensureVersionTable(conn);
+            Map<Integer, String> applied = appliedChecksums(conn);
+
+            int count = 0;
+            for (Migration migration : migrations) {
+                String existing = applied.get(migration.getVersion());
+                if (existing != null) {
+                    if (!existing.equals(migration.getChecksum())) {
+                        throw new IllegalStateException("Checksum migrasi V" + migration.getVersion()
+                                + " tidak cocok, script yang sudah dijalankan tidak boleh diubah");
+                    }
+                    continue;
+                }
+                apply(conn, migration);
+                count++;
+            }
+            log.info("Schema migration selesai: {} script baru, {} total", count, migrations.size());
+            return count;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Gagal menjalankan migrasi schema", e);
+        }
+    }
+
+    public List<Migration> findMigrations() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver()
+                    .getResources(location + "/V*__*.sql");
+            List<Migration> migrations = new ArrayList<>();
+            Map<Integer, String> seen = new HashMap<>();
+            for (Resource resource : resources) {
+                Matcher m = FILE_NAME.matcher(resource.getFilename() == null ? "" : resource.getFilename());
+                if (!m.matches()) continue;
+                int version = Integer.parseInt(m.group(1));
+                if (seen.put(version, resource.getFilename()) != null) {
+                    throw new IllegalStateException("Versi migrasi V" + version + " dipakai lebih dari satu script");
+                }
+                String content = resource.getContentAsString(StandardCharsets.UTF_8);
+                migrations.add(new Migration(version, m.group(2).replace('_', ' '), resource, checksum(content)));
+            }
+            migrations.sort(Comparator.comparingInt(Migration::getVersion));
+            return migrations;
+        } catch (IOException e) {
+            throw new IllegalStateException("Gagal membaca script migrasi di " + location, e);
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(conn, new EncodedResource(migration.getResource(), StandardCharsets.UTF_8));
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO " + VERSION_TABLE
+                    + " (version, description, checksum, installed_at) VALUES (?, ?, ?, ?)")) {
+                ps.setInt(1, migration.getVersion());
+                ps.setString(2, migration.getDescription());
+                ps.setString(3, migration.getChecksum());
+                ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                ps.executeUpdate();
+            }
+            conn.commit();
+            log.info("Migrasi V{} ({}) dijalankan", migration.getVersion(), migration.getDescription());
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw new IllegalStateException("Migrasi V" + migration.getVersion() + " gagal", e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " ("
+                    + "version INTEGER NOT NULL PRIMARY KEY, "
+                    + "description VARCHAR(255) NOT NULL, "
+                    + "checksum VARCHAR(64) NOT NULL, "
+                    + "installed_at TIMESTAMP NOT NULL)");
+        }
+    }
+
+    private Map<Integer, String> appliedChecksums(Connection conn) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version, checksum FROM " + VERSION_TABLE)) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return applied;
+    }
+
+    // Checksum tidak terpengaruh beda line ending (CRLF dari Windows vs LF)
+    static String checksum(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(content.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
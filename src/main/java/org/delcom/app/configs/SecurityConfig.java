@@ -1,55 +1,118 @@
 package org.delcom.app.configs;
 
+import org.delcom.app.services.AuthService;
+import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.LoginRateLimiter;
+import org.delcom.app.services.VerifiedTokenCache;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CookieUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    // false = form login + HttpSession (default), true = cookie JWT tanpa session (lihat JwtAuthenticationFilter)
+    @Value("${app.auth.stateless:false}")
+    private boolean stateless;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthService authService,
+                                                   AuthTokenService authTokenService,
+                                                   VerifiedTokenCache verifiedTokenCache,
+                                                   LoginRateLimiter loginRateLimiter) throws Exception {
         http
-            .csrf(csrf -> csrf.disable()) 
+            .csrf(csrf -> csrf.disable())
 
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(
-                    "/", "/auth/**", "/css/**", "/js/**", "/images/**", "/assets/**", "/uploads/**", "/favicon.ico", "/error"
+                    "/", "/auth/**", "/css/**", "/js/**", "/images/**", "/assets/**", "/uploads/**", "/favicon.ico", "/error", "/metrics"
                 ).permitAll()
                 .anyRequest().authenticated()
             )
 
             // --- KONFIGURASI LOGIN ---
-            .formLogin(login -> login
-                .loginPage("/auth/login")           
-                .loginProcessingUrl("/auth/login/post")  
-                
-                // [PENTING!] Memberitahu Spring bahwa kita login pakai 'email', bukan 'username'
-                .usernameParameter("email") 
-                // -----------------------------------------------------------------------------
-
-                .defaultSuccessUrl("/wishlist", true)    
-                .failureUrl("/auth/login?error")    
-                .permitAll()
-            )
+            .formLogin(login -> {
+                login
+                    .loginPage("/auth/login")
+                    .loginProcessingUrl("/auth/login/post")
+
+                    // [PENTING!] Memberitahu Spring bahwa kita login pakai 'email', bukan 'username'
+                    .usernameParameter("email")
+                    // -----------------------------------------------------------------------------
+
+                    .defaultSuccessUrl("/wishlist", true)
+                    .failureUrl("/auth/login?error")
+                    .permitAll();
+                if (stateless) {
+                    login.successHandler(tokenCookieSuccessHandler(authService));
+                }
+            })
 
             .logout(logout -> logout
                 .logoutUrl("/logout")
-                .logoutSuccessUrl("/auth/login?logout") 
-                .deleteCookies("JSESSIONID")            
+                .logoutSuccessUrl("/auth/login?logout")
+                // Token di cookie dicabut (hapus dari auth_tokens + cache), bukan cuma cookie-nya
+                .addLogoutHandler((request, response, authentication) -> {
+                    String token = CookieUtil.readAuthToken(request);
+                    if (token != null) authTokenService.removeTokenByToken(token);
+                })
+                .deleteCookies("JSESSIONID", ConstUtil.AUTH_COOKIE_NAME)
                 .permitAll()
             );
 
+        // Pool hashing password penuh -> 503 (termasuk dari form login)
+        http.addFilterBefore(new PasswordHashingBusyFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Batas percobaan login per IP & email, dicek sebelum query user & BCrypt
+        http.addFilterBefore(new LoginRateLimitFilter(loginRateLimiter), UsernamePasswordAuthenticationFilter.class);
+
+        if (stateless) {
+            // Tidak ada HttpSession sama sekali: identitas hanya dari cookie JWT
+            http
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                .addFilterBefore(new JwtAuthenticationFilter(verifiedTokenCache), UsernamePasswordAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 
+    // Login sukses (mode stateless): terbitkan JWT ke cookie, bukan simpan ke session
+    private AuthenticationSuccessHandler tokenCookieSuccessHandler(AuthService authService) {
+        return (request, response, authentication) -> {
+            String token = authService.issueToken(authentication.getName());
+            response.addCookie(CookieUtil.authCookie(token));
+            response.sendRedirect(request.getContextPath() + "/wishlist");
+        };
+    }
+
+    // BCrypt dengan cost hasil kalibrasi, dijalankan di pool terbatas (lihat BoundedPasswordEncoder)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            @Value("${app.password-hash.threads:0}") int threads,
+            @Value("${app.password-hash.queue-capacity:64}") int queueCapacity,
+            @Value("${app.password-hash.timeout-ms:5000}") long timeoutMs,
+            @Value("${app.password-hash.cost:0}") int fixedCost,
+            @Value("${app.password-hash.target-ms:100}") long targetMs,
+            @Value("${app.password-hash.min-cost:10}") int minCost,
+            @Value("${app.password-hash.max-cost:14}") int maxCost) {
+        int cost = fixedCost > 0 ? fixedCost : AdaptiveBCryptPasswordEncoder.calibrate(targetMs, minCost, maxCost);
+        log.info("BCrypt cost {} ({})", cost, fixedCost > 0 ? "app.password-hash.cost" : "calibrated to ~" + targetMs + " ms");
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new AdaptiveBCryptPasswordEncoder(cost), poolSize, queueCapacity, timeoutMs);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.dto.StatsDriftReport;
+import org.delcom.app.services.WishlistStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Perintah perawatan tabel statistik wishlist, dijalankan lewat argumen aplikasi:
+ *   java -jar app.jar --stats-verify  -> cek drift saja
+ *   java -jar app.jar --stats-rebuild -> cek drift lalu hitung ulang user yang drift
+ * Tambahkan --spring.main.web-application-type=none supaya proses langsung selesai.
+ */
+@Component
+public class StatsMaintenanceRunner implements ApplicationRunner {
+
+    public static final String OPTION_VERIFY = "stats-verify";
+    public static final String OPTION_REBUILD = "stats-rebuild";
+
+    @Autowired
+    private WishlistStatsService statsService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean rebuild = args.containsOption(OPTION_REBUILD);
+        if (!rebuild && !args.containsOption(OPTION_VERIFY)) return;
+
+        StatsDriftReport report = statsService.verifyAll(rebuild);
+        System.out.println(format(report));
+    }
+
+    public String format(StatsDriftReport report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[stats] users checked: ").append(report.getUsersChecked())
+          .append(", with drift: ").append(report.getUsersWithDrift());
+        if (report.hasDrift()) {
+            sb.append(report.isRepaired() ? " (rebuilt)" : " (run with --" + OPTION_REBUILD + " to repair)");
+            for (var userId : report.getDriftedUserIds()) {
+                sb.append(System.lineSeparator()).append("[stats]   drift: user ").append(userId);
+            }
+            if (report.getUsersWithDrift() > report.getDriftedUserIds().size()) {
+                sb.append(System.lineSeparator()).append("[stats]   ... and ")
+                  .append(report.getUsersWithDrift() - report.getDriftedUserIds().size()).append(" more");
+            }
+        }
+        return sb.toString();
+    }
+}
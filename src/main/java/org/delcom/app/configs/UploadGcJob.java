@@ -0,0 +1,42 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.dto.UploadGcReport;
+import org.delcom.app.services.OrphanUploadCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menjalankan OrphanUploadCollector secara berkala: tiap jalan memeriksa potongan berikutnya dari folder upload
+ * dan spool, jadi folder besar selesai dalam beberapa jalan tanpa lonjakan I/O. app.upload-gc.dry-run=true hanya
+ * mencatat file yatim ke log. Matikan dengan app.upload-gc.enabled=false.
+ */
+@Component
+@ConditionalOnProperty(name = "app.upload-gc.enabled", havingValue = "true", matchIfMissing = true)
+public class UploadGcJob {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadGcJob.class);
+
+    @Autowired
+    private OrphanUploadCollector collector;
+
+    @Value("${app.upload-gc.dry-run:false}")
+    private boolean dryRun;
+
+    @Scheduled(initialDelayString = "${app.upload-gc.initial-delay-ms:600000}",
+               fixedDelayString = "${app.upload-gc.interval-ms:3600000}")
+    public void collect() {
+        UploadGcReport report = collector.collect(dryRun, false);
+        log.info("uploads gc{}: {} files scanned, {} within grace, {} referenced, {} orphaned ({} bytes), {} removed{}",
+                report.isDryRun() ? " (dry run)" : "", report.getScanned(), report.getTooNew(), report.getReferenced(),
+                report.getOrphans(), report.getOrphanBytes(), report.getRemoved(),
+                report.isComplete() ? ", pass complete" : "");
+        if (report.isDryRun() && !report.getOrphanFiles().isEmpty()) {
+            log.info("uploads gc (dry run) orphans: {}", report.getOrphanFiles());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.dto.UploadGcReport;
+import org.delcom.app.services.OrphanUploadCollector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pembersihan file upload yatim sekali jalan untuk seluruh folder upload + spool:
+ *   java -jar app.jar --uploads-gc-dry-run -> laporan saja, tidak ada file yang disentuh
+ *   java -jar app.jar --uploads-gc         -> karantina / hapus file yatim (lihat app.upload-gc.*)
+ * Tambahkan --spring.main.web-application-type=none supaya proses langsung selesai.
+ */
+@Component
+public class UploadGcRunner implements ApplicationRunner {
+
+    public static final String OPTION_DRY_RUN = "uploads-gc-dry-run";
+    public static final String OPTION_COLLECT = "uploads-gc";
+
+    @Autowired
+    private OrphanUploadCollector collector;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean collect = args.containsOption(OPTION_COLLECT);
+        if (!collect && !args.containsOption(OPTION_DRY_RUN)) return;
+
+        UploadGcReport report = collector.collect(!collect, true);
+        System.out.println(format(report));
+    }
+
+    public String format(UploadGcReport report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[uploads-gc] files scanned: ").append(report.getScanned())
+          .append(", within grace: ").append(report.getTooNew())
+          .append(", referenced: ").append(report.getReferenced())
+          .append(", orphaned: ").append(report.getOrphans())
+          .append(" (").append(report.getOrphanBytes()).append(" bytes)");
+        if (report.isDryRun()) {
+            if (report.getOrphans() > 0) sb.append(" (run with --" + OPTION_COLLECT + " to collect)");
+        } else {
+            sb.append(", removed: ").append(report.getRemoved());
+        }
+        for (String file : report.getOrphanFiles()) {
+            sb.append(System.lineSeparator()).append("[uploads-gc]   orphan: ").append(file);
+        }
+        if (report.getOrphans() > report.getOrphanFiles().size()) {
+            sb.append(System.lineSeparator()).append("[uploads-gc]   ... and ")
+              .append(report.getOrphans() - report.getOrphanFiles().size()).append(" more");
+        }
+        return sb.toString();
+    }
+}
@@ -1,22 +1,10 @@
 package org.delcom.app.configs;
 
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
+// URL /uploads/** tidak lagi dipetakan ke folder statis di sini:
+// disajikan UploadController dari app.upload.dir (ETag, cache immutable, Range, sendfile)
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Mengarahkan URL /uploads/** ke folder fisik di komputer
-        Path uploadDir = Paths.get("src/main/resources/static/uploads");
-        String uploadPath = uploadDir.toFile().getAbsolutePath();
-
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:///" + uploadPath + "/");
-    }
-}
\ No newline at end of file
+}
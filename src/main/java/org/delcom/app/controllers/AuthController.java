@@ -1,12 +1,15 @@
 package org.delcom.app.controllers;
 
-import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.configs.PasswordHashingBusyException;
 import org.delcom.app.dto.LoginForm;
 import org.delcom.app.dto.RegisterForm;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
+import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.services.UserService;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CookieUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,6 +26,9 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AuthTokenService authTokenService;
+
     // --- HALAMAN LOGIN (GET) ---
     @GetMapping("/login")
     public String showLoginForm(Model model) {
@@ -40,13 +46,11 @@ public class AuthController {
             String token = authService.authenticateUser(loginForm.getEmail(), loginForm.getPassword());
             
             // 2. Simpan Token di Cookie agar browser ingat
-            Cookie cookie = new Cookie("token", token);
-            cookie.setHttpOnly(true);
-            cookie.setPath("/");
-            cookie.setMaxAge(3600); // 1 Jam
-            response.addCookie(cookie);
+            response.addCookie(CookieUtil.authCookie(token));
 
             return "redirect:/wishlist";
+        } catch (PasswordHashingBusyException e) {
+            throw e; // 503, bukan "password salah"
         } catch (Exception e) {
             // Jika gagal
             redirectAttributes.addFlashAttribute("error", "Email atau Password salah!");
@@ -79,12 +83,12 @@ public class AuthController {
     
     // --- LOGOUT ---
     @PostMapping("/logout")
-    public String logout(HttpServletResponse response) {
-        Cookie cookie = new Cookie("token", null);
-        cookie.setPath("/");
-        cookie.setHttpOnly(true);
-        cookie.setMaxAge(0); // Hapus cookie
-        response.addCookie(cookie);
+    public String logout(@CookieValue(name = ConstUtil.AUTH_COOKIE_NAME, required = false) String token,
+                         HttpServletResponse response) {
+        if (token != null && !token.isBlank()) {
+            authTokenService.removeTokenByToken(token); // Token dicabut, bukan cuma cookie-nya
+        }
+        response.addCookie(CookieUtil.clearAuthCookie()); // Hapus cookie
         return "redirect:/auth/login";
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.services.MetricsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+@Controller
+public class MetricsController {
+
+    static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    @Autowired
+    private MetricsService metricsService;
+
+    // Opt-in: isi metrics (daftar route, traffic & error per route, counter limiter login) tidak untuk publik
+    @Value("${app.metrics.enabled:false}")
+    private boolean enabled = false;
+
+    // Kalau diisi, scrape wajib kirim "Authorization: Bearer <token>" (bearer_token di config Prometheus)
+    @Value("${app.metrics.token:}")
+    private String token = "";
+
+    // Endpoint scrape Prometheus (tanpa login session, lihat SecurityConfig; dijaga token di atas)
+    @GetMapping(value = "/metrics", produces = PROMETHEUS_CONTENT_TYPE)
+    @ResponseBody
+    public ResponseEntity<String> metrics(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!enabled) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!authorized(authorization)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).header(HttpHeaders.WWW_AUTHENTICATE, "Bearer").build();
+        }
+        return ResponseEntity.ok(metricsService.scrape());
+    }
+
+    // Perbandingan waktu-konstan supaya token tidak bisa ditebak per karakter
+    private boolean authorized(String authorization) {
+        if (token == null || token.isBlank()) return true;
+        if (authorization == null || !authorization.startsWith("Bearer ")) return false;
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                authorization.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8));
+    }
+}
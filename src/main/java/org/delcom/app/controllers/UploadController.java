@@ -0,0 +1,177 @@
+package org.delcom.app.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Menyajikan file di folder upload (GET/HEAD /uploads/<nama>), menggantikan resource handler statis.
+// - Nama content-addressed (<sha256>[-<lebar>w].<ext>) tidak pernah berubah isi: ETag = hash di nama,
+//   Cache-Control immutable 1 tahun. Nama lama item_<uuid> bisa ditimpa: ETag lemah dari ukuran+mtime, no-cache.
+// - If-None-Match / If-Modified-Since dijawab 304 hanya dari nama + atribut file (isi tidak dibaca).
+// - Range satu rentang dijawab 206; lebih dari satu rentang dikirim utuh (200).
+// - Isi dikirim lewat sendfile Tomcat (kernel -> socket tanpa lewat heap) kalau connector mendukung,
+//   selain itu FileChannel.transferTo ke stream response.
+@Controller
+public class UploadController {
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    static final String REVALIDATE = "public, no-cache";
+
+    // Atribut request yang dibaca connector Tomcat (sama seperti DefaultServlet)
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64}(?:-[0-9]+w)?)(?:\\.[a-z0-9]{1,10})?");
+
+    @Value("${app.upload.dir:src/main/resources/static/uploads/}")
+    private String uploadDir;
+
+    // File lebih kecil dari ini ditulis biasa: untuk file kecil, serah-terima ke poller sendfile lebih mahal
+    @Value("${app.upload.serve.sendfile-threshold:49152}")
+    private long sendfileThreshold = 49152;
+
+    private final AtomicLong served = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong partial = new AtomicLong();
+    private final AtomicLong sendfileBytes = new AtomicLong();
+    private final AtomicLong copiedBytes = new AtomicLong();
+
+    @GetMapping("/uploads/{filename:.+}")
+    public void serve(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(filename);
+        BasicFileAttributes attributes;
+        try {
+            attributes = file == null ? null : Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            attributes = null;
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Matcher contentAddressed = CONTENT_ADDRESSED.matcher(filename);
+        boolean immutable = contentAddressed.matches();
+        String etag = immutable ? "\"" + contentAddressed.group(1) + "\"" : "W/\"" + length + "-" + lastModified + "\"";
+
+        // Cache-Control di-set sebelum cek 304 supaya ikut di response 304 (dan tidak ditimpa Spring Security)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? IMMUTABLE : REVALIDATE);
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            if (response.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) notModified.incrementAndGet();
+            return; // 304 / 412, header ETag & Last-Modified sudah diisi
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length; // eksklusif
+        HttpRange range = singleRange(request, etag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length) + 1;
+                if (start >= length) throw new IllegalArgumentException("Range start beyond length");
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            partial.incrementAndGet();
+        }
+        response.setContentLengthLong(end - start);
+        served.incrementAndGet();
+        if ("HEAD".equals(request.getMethod()) || end == start) return;
+
+        if (end - start >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Body dikirim connector setelah request selesai; jangan sentuh output stream
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            sendfileBytes.addAndGet(end - start);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            for (long position = start; position < end; ) {
+                long n = channel.transferTo(position, end - position, target);
+                if (n <= 0) break; // file terpotong selama dikirim
+                position += n;
+            }
+            copiedBytes.addAndGet(end - start);
+        }
+    }
+
+    // Hanya nama file langsung di folder upload; file sementara (.upload-*.tmp, .variant-*.tmp) tidak disajikan
+    Path resolve(String filename) {
+        if (filename.startsWith(".") || filename.indexOf('/') >= 0 || filename.indexOf('\\') >= 0) return null;
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path file = uploadPath.resolve(filename).normalize();
+        return file.getParent() != null && file.getParent().equals(uploadPath) ? file : null;
+    }
+
+    // Range dipakai hanya kalau satu rentang dan If-Range (kalau ada) masih cocok; selain itu kirim utuh
+    private static HttpRange singleRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) return null;
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                // If-Range butuh perbandingan kuat: ETag lemah tidak pernah cocok
+                if (etag.startsWith("W/") || !ifRange.equals(etag)) return null;
+            } else {
+                long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+                if (date == -1 || lastModified / 1000 != date / 1000) return null;
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null; // Range tidak valid diabaikan (RFC 9110)
+        }
+    }
+
+    // --- COUNTER ---
+    public long getServed() { return served.get(); }
+    public long getNotModified() { return notModified.get(); }
+    public long getPartial() { return partial.get(); }
+    public long getSendfileBytes() { return sendfileBytes.get(); }
+    public long getCopiedBytes() { return copiedBytes.get(); }
+
+    // --- UNTUK TEST ---
+    void setUploadDir(String uploadDir) { this.uploadDir = uploadDir; }
+    void setSendfileThreshold(long sendfileThreshold) { this.sendfileThreshold = sendfileThreshold; }
+}
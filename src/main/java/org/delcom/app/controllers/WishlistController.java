@@ -1,17 +1,21 @@
 package org.delcom.app.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.dto.WishlistPage;
 import org.delcom.app.dto.WishlistStats; // Import DTO baru
 import org.delcom.app.entities.User;
 import org.delcom.app.entities.WishlistItem;
 import org.delcom.app.services.AuthService;
 import org.delcom.app.services.WishlistService;
+import org.delcom.app.utils.ConstUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 @Controller
@@ -21,17 +25,45 @@ public class WishlistController {
     @Autowired private WishlistService wishlistService;
     @Autowired private AuthService authService; 
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @GetMapping
     public String dashboard(Model model) {
         User user = authService.getCurrentUser();
         if (user == null) return "redirect:/auth/login";
+        // Hanya halaman pertama, sisanya diambil lewat /wishlist/items saat scroll
+        WishlistPage page = wishlistService.getItemsPage(user, null, ConstUtil.WISHLIST_PAGE_SIZE);
         model.addAttribute("user", user);
-        model.addAttribute("items", wishlistService.getAllItems(user));
+        model.addAttribute("items", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
         model.addAttribute("totalPending", wishlistService.countPending(user));
         model.addAttribute("totalBought", wishlistService.countBought(user));
         return "wishlist/dashboard";
     }
 
+    // --- INFINITE SCROLL: HALAMAN BERIKUTNYA (FRAGMENT KARTU) ---
+    // Cursor halaman setelahnya dikirim lewat header X-Next-Cursor
+    @GetMapping("/items")
+    public String loadMoreItems(@RequestParam(required = false) String cursor,
+                                @RequestParam(defaultValue = "" + ConstUtil.WISHLIST_PAGE_SIZE) int size,
+                                Model model, HttpServletResponse response) {
+        User user = authService.getCurrentUser();
+        if (user == null) return "redirect:/auth/login";
+
+        WishlistPage page;
+        try {
+            page = wishlistService.getItemsPage(user, cursor, size);
+        } catch (IllegalArgumentException e) {
+            // Cursor rusak: kirim fragment kosong tanpa cursor lanjutan
+            page = new WishlistPage(List.of(), null);
+        }
+        if (page.getNextCursor() != null) {
+            response.setHeader(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        model.addAttribute("items", page.getItems());
+        return "wishlist/dashboard :: cards";
+    }
+
     // --- BAGIAN INI YANG MEMPERBAIKI CHART ---
     @GetMapping("/stats")
     public String statistics(Model model) {
@@ -67,7 +99,9 @@ public class WishlistController {
 
     @GetMapping("/edit/{id}")
     public String showEditForm(@PathVariable UUID id, Model model) {
-        WishlistItem item = wishlistService.findById(id);
+        User user = authService.getCurrentUser();
+        if (user == null) return "redirect:/auth/login";
+        WishlistItem item = wishlistService.findByIdForUser(id, user);
         if (item == null) return "redirect:/wishlist";
 
         WishlistForm form = new WishlistForm();
@@ -95,13 +129,17 @@ public class WishlistController {
 
     @GetMapping("/{id}/toggle")
     public String toggleStatus(@PathVariable UUID id) {
-        wishlistService.changeStatus(id);
+        User user = authService.getCurrentUser();
+        if (user == null) return "redirect:/auth/login";
+        wishlistService.changeStatus(user, id);
         return "redirect:/wishlist";
     }
 
     @GetMapping("/{id}/delete")
     public String deleteItem(@PathVariable UUID id) {
-        wishlistService.deleteItem(id);
+        User user = authService.getCurrentUser();
+        if (user == null) return "redirect:/auth/login";
+        wishlistService.deleteItem(user, id);
         return "redirect:/wishlist";
     }
 
@@ -109,8 +147,7 @@ public class WishlistController {
     public String viewDetail(@PathVariable UUID id, Model model) {
         User currentUser = authService.getCurrentUser();
         if (currentUser == null) return "redirect:/auth/login";
-        var item = wishlistService.getAllItems(currentUser)
-                .stream().filter(i -> i.getId().equals(id)).findFirst().orElse(null);
+        WishlistItem item = wishlistService.findByIdForUser(id, currentUser);
         if (item == null) return "redirect:/wishlist";
         model.addAttribute("item", item);
         return "wishlist/detail";
@@ -0,0 +1,34 @@
+package org.delcom.app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Hasil verifikasi tabel statistik terhadap data asli di wishlist_items
+public class StatsDriftReport {
+    // Batas jumlah ID yang dicatat supaya report tidak membengkak
+    public static final int MAX_LISTED_USERS = 100;
+
+    private long usersChecked;
+    private long usersWithDrift;
+    private boolean repaired;
+    private final List<UUID> driftedUserIds = new ArrayList<>();
+
+    public void recordChecked() { usersChecked++; }
+
+    public void recordDrift(UUID userId) {
+        usersWithDrift++;
+        if (driftedUserIds.size() < MAX_LISTED_USERS) {
+            driftedUserIds.add(userId);
+        }
+    }
+
+    public long getUsersChecked() { return usersChecked; }
+    public long getUsersWithDrift() { return usersWithDrift; }
+    public boolean hasDrift() { return usersWithDrift > 0; }
+
+    public boolean isRepaired() { return repaired; }
+    public void setRepaired(boolean repaired) { this.repaired = repaired; }
+
+    public List<UUID> getDriftedUserIds() { return driftedUserIds; }
+}
@@ -0,0 +1,50 @@
+package org.delcom.app.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hasil satu jalan OrphanUploadCollector (folder upload + folder spool)
+public class UploadGcReport {
+    // Batas jumlah nama file yang dicatat supaya report tidak membengkak
+    public static final int MAX_LISTED_FILES = 100;
+
+    private final boolean dryRun;
+    private long scanned;
+    private long tooNew;
+    private long referenced;
+    private long orphans;
+    private long orphanBytes;
+    private long removed;
+    private boolean complete;
+    private final List<String> orphanFiles = new ArrayList<>();
+
+    public UploadGcReport(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public void recordScanned() { scanned++; }
+    public void recordTooNew() { tooNew++; }
+    public void recordReferenced() { referenced++; }
+
+    public void recordOrphan(String file, long bytes, boolean removed) {
+        orphans++;
+        orphanBytes += bytes;
+        if (removed) this.removed++;
+        if (orphanFiles.size() < MAX_LISTED_FILES) {
+            orphanFiles.add(file);
+        }
+    }
+
+    public boolean isDryRun() { return dryRun; }
+    public long getScanned() { return scanned; }
+    public long getTooNew() { return tooNew; }
+    public long getReferenced() { return referenced; }
+    public long getOrphans() { return orphans; }
+    public long getOrphanBytes() { return orphanBytes; }
+    public long getRemoved() { return removed; }
+    public List<String> getOrphanFiles() { return orphanFiles; }
+
+    // true = seluruh isi folder sudah dicek (cursor kembali ke awal)
+    public boolean isComplete() { return complete; }
+    public void setComplete(boolean complete) { this.complete = complete; }
+}
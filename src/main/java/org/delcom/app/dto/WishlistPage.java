@@ -0,0 +1,20 @@
+package org.delcom.app.dto;
+
+import org.delcom.app.entities.WishlistItem;
+
+import java.util.List;
+
+// Satu halaman item wishlist + cursor untuk mengambil halaman berikutnya
+public class WishlistPage {
+    private final List<WishlistItem> items;
+    private final String nextCursor; // null kalau sudah halaman terakhir
+
+    public WishlistPage(List<WishlistItem> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<WishlistItem> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasMore() { return nextCursor != null; }
+}
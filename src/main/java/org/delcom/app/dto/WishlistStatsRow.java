@@ -0,0 +1,29 @@
+package org.delcom.app.dto;
+
+import org.delcom.app.entities.Status;
+
+import java.math.BigDecimal;
+
+// Satu baris hasil agregasi GROUP BY (status, category) dari WishlistItemRepository.
+// Dipakai WishlistService.getStats supaya tidak perlu load semua entity ke memory.
+public class WishlistStatsRow {
+    private final Status status;
+    private final String category;
+    private final long itemCount;
+    private final long pricedCount; // jumlah item yang price-nya tidak null
+    private final BigDecimal totalPrice; // null kalau semua price di grup ini null
+
+    public WishlistStatsRow(Status status, String category, Long itemCount, Long pricedCount, BigDecimal totalPrice) {
+        this.status = status;
+        this.category = category;
+        this.itemCount = itemCount == null ? 0 : itemCount;
+        this.pricedCount = pricedCount == null ? 0 : pricedCount;
+        this.totalPrice = totalPrice;
+    }
+
+    public Status getStatus() { return status; }
+    public String getCategory() { return category; }
+    public long getItemCount() { return itemCount; }
+    public long getPricedCount() { return pricedCount; }
+    public BigDecimal getTotalPrice() { return totalPrice; }
+}
@@ -5,11 +5,15 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "auth_tokens")
+@Table(name = "auth_tokens", indexes = {
+        @Index(name = "ux_auth_tokens_token", columnList = "token", unique = true),
+        @Index(name = "idx_auth_tokens_user", columnList = "user_id"),
+        @Index(name = "idx_auth_tokens_expires", columnList = "expires_at")
+})
 public class AuthToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     private UUID id;
 
     private String token;
@@ -20,6 +24,10 @@ public class AuthToken {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Sama dengan claim "exp" JWT-nya, baris yang lewat waktu ini dihapus oleh purge job
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     // --- MANUAL GETTER & SETTER ---
 
     public UUID getId() {
@@ -53,4 +61,12 @@ public class AuthToken {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
 }
\ No newline at end of file
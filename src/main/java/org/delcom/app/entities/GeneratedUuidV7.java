@@ -0,0 +1,18 @@
+package org.delcom.app.entities;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Id UUID berurutan waktu (v7), pengganti @GeneratedValue(strategy = GenerationType.AUTO).
+ * Kolom tetap bertipe UUID, jadi baris lama dengan UUID acak (v4) tetap bisa dibaca.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuidV7 {
+}
@@ -0,0 +1,46 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Satu file gambar di folder upload yang dipakai bersama oleh beberapa item (lihat FileStorageService)
+@Entity
+@Table(name = "image_blobs")
+public class ImageBlob {
+
+    // SHA-256 isi file (hex) + ekstensi, sama dengan WishlistItem.imageUrl
+    @Id
+    @Column(name = "filename", length = 80)
+    private String filename;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    // Jumlah item yang imageUrl-nya menunjuk ke file ini
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public ImageBlob() {}
+
+    public ImageBlob(String filename, long sizeBytes, int refCount, LocalDateTime createdAt) {
+        this.filename = filename;
+        this.sizeBytes = sizeBytes;
+        this.refCount = refCount;
+        this.createdAt = createdAt;
+    }
+
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
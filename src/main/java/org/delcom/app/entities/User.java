@@ -11,7 +11,7 @@ import java.util.UUID;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     private UUID id;
 
     @Column(nullable = false, unique = true)
@@ -0,0 +1,57 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+// Ringkasan per (user, kategori). Baris dihapus begitu item_count jadi 0.
+@Entity
+@Table(name = "wishlist_category_stats",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "category"}))
+public class WishlistCategoryStats {
+
+    @Id
+    @GeneratedUuidV7
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+
+    // Jumlah item yang punya harga, supaya kategori tanpa harga tidak muncul di priceByCategory
+    @Column(name = "priced_count", nullable = false)
+    private long pricedCount;
+
+    @Column(name = "total_price", nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalPrice = BigDecimal.ZERO;
+
+    public WishlistCategoryStats() {}
+
+    public WishlistCategoryStats(UUID userId, String category) {
+        this.userId = userId;
+        this.category = category;
+    }
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public long getItemCount() { return itemCount; }
+    public void setItemCount(long itemCount) { this.itemCount = itemCount; }
+
+    public long getPricedCount() { return pricedCount; }
+    public void setPricedCount(long pricedCount) { this.pricedCount = pricedCount; }
+
+    public BigDecimal getTotalPrice() { return totalPrice; }
+    public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
+}
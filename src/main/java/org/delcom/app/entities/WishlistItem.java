@@ -2,6 +2,7 @@ package org.delcom.app.entities;
 
 import jakarta.persistence.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -10,7 +11,17 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "wishlist_items")
+@Table(name = "wishlist_items", indexes = {
+        // Dibuat lewat db/migration/V2__query_indexes.sql, dicantumkan di sini sebagai dokumentasi
+        @Index(name = "idx_wishlist_items_user_created", columnList = "user_id, created_at DESC, id DESC"),
+        @Index(name = "idx_wishlist_items_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_wishlist_items_user_category", columnList = "user_id, category"),
+        // V7__image_url_index.sql
+        @Index(name = "idx_wishlist_items_image_url", columnList = "image_url")
+})
+// UPDATE hanya kolom yang berubah: edit/toggle tidak menimpa imageUrl & pendingImage
+// yang diisi ImageUploadProcessor di thread lain setelah entity ini di-load
+@DynamicUpdate
 public class WishlistItem {
 
     public UUID getId() {
@@ -93,6 +104,19 @@ public class WishlistItem {
         this.imageUrl = imageUrl;
     }
 
+    public String getPendingImage() {
+        return pendingImage;
+    }
+
+    public void setPendingImage(String pendingImage) {
+        this.pendingImage = pendingImage;
+    }
+
+    // Gambar baru sedang diproses di background (lihat ImageUploadProcessor)
+    public boolean isImageProcessing() {
+        return pendingImage != null;
+    }
+
     public Status getStatus() {
         return status;
     }
@@ -118,7 +142,7 @@ public class WishlistItem {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedUuidV7
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -149,6 +173,10 @@ public class WishlistItem {
     @Column(name = "image_url")
     private String imageUrl;
 
+    // Nama file di folder spool selama upload masih diproses, null = selesai
+    @Column(name = "pending_image", length = 80)
+    private String pendingImage;
+
     @Enumerated(EnumType.STRING)
     private Status status = Status.PENDING;
 
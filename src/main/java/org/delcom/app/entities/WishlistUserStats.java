@@ -0,0 +1,62 @@
+package org.delcom.app.entities;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Ringkasan statistik wishlist per user, di-update pakai delta setiap kali item berubah
+// supaya halaman stats & dashboard tidak perlu scan tabel wishlist_items.
+@Entity
+@Table(name = "wishlist_user_stats")
+public class WishlistUserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "bought_count", nullable = false)
+    private long boughtCount;
+
+    @Column(name = "pending_total", nullable = false, precision = 38, scale = 2)
+    private BigDecimal pendingTotal = BigDecimal.ZERO;
+
+    @Column(name = "bought_total", nullable = false, precision = 38, scale = 2)
+    private BigDecimal boughtTotal = BigDecimal.ZERO;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public WishlistUserStats() {}
+
+    public WishlistUserStats(UUID userId) {
+        this.userId = userId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public long getPendingCount() { return pendingCount; }
+    public void setPendingCount(long pendingCount) { this.pendingCount = pendingCount; }
+
+    public long getBoughtCount() { return boughtCount; }
+    public void setBoughtCount(long boughtCount) { this.boughtCount = boughtCount; }
+
+    public BigDecimal getPendingTotal() { return pendingTotal; }
+    public void setPendingTotal(BigDecimal pendingTotal) { this.pendingTotal = pendingTotal; }
+
+    public BigDecimal getBoughtTotal() { return boughtTotal; }
+    public void setBoughtTotal(BigDecimal boughtTotal) { this.boughtTotal = boughtTotal; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,9 +1,15 @@
 package org.delcom.app.repositories;
 
 import org.delcom.app.entities.AuthToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.transaction.Transactional; // Import penting
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +21,15 @@ public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
     // Method untuk menghapus token (Wajib ada @Transactional untuk delete)
     @Transactional
     void deleteByToken(String token);
+
+    // --- PURGE TOKEN KEDALUWARSA (per batch, lihat AuthTokenService.purgeExpired) ---
+    // Ambil id satu batch lewat idx_auth_tokens_expires
+    @Query("SELECT t.id FROM AuthToken t WHERE t.expiresAt < :now ORDER BY t.expiresAt")
+    List<UUID> findExpiredIds(@Param("now") LocalDateTime now, Pageable limit);
+
+    // Satu DELETE ... WHERE id IN (...) per batch, transaksi (dan lock) pendek
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuthToken t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<UUID> ids);
 }
\ No newline at end of file
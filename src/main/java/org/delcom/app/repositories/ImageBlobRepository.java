@@ -0,0 +1,45 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+
+// Semua perubahan ref_count langsung di-commit (REQUIRES_NEW) selagi FileStorageService memegang lock blob-nya,
+// jadi urutan tulis/hapus file di disk selalu sama dengan urutan perubahan di tabel
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    // 0 kalau blob belum tercatat
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE ImageBlob b SET b.refCount = b.refCount + 1 WHERE b.filename = :filename")
+    int incrementRefCount(@Param("filename") String filename);
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO image_blobs (filename, size_bytes, ref_count, created_at) VALUES (:filename, :size, 1, :now)",
+           nativeQuery = true)
+    int insertFirstReference(@Param("filename") String filename, @Param("size") long size, @Param("now") LocalDateTime now);
+
+    // 0 kalau blob tidak tercatat (file lama item_<uuid>)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE ImageBlob b SET b.refCount = b.refCount - 1 WHERE b.filename = :filename AND b.refCount > 0")
+    int decrementRefCount(@Param("filename") String filename);
+
+    // 1 kalau referensi terakhir sudah hilang dan file-nya boleh dihapus
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM ImageBlob b WHERE b.filename = :filename AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("filename") String filename);
+
+    // Baris yang ref_count-nya bocor (transaksi item rollback setelah increment); dipakai OrphanUploadCollector
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM ImageBlob b WHERE b.filename = :filename")
+    int forget(@Param("filename") String filename);
+}
@@ -0,0 +1,24 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    // Isi ulang RevokedTokenFilter: hanya token yang JWT-nya masih berlaku
+    @Query("SELECT r.tokenHash FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveHashes(@Param("now") LocalDateTime now);
+
+    // Tabel ini kecil (hanya logout dalam masa berlaku token), cukup satu DELETE
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
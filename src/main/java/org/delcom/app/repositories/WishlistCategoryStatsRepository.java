@@ -0,0 +1,38 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.WishlistCategoryStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface WishlistCategoryStatsRepository extends JpaRepository<WishlistCategoryStats, UUID> {
+
+    List<WishlistCategoryStats> findByUserId(UUID userId);
+
+    // Update atomik pakai delta, return 0 kalau kategori ini belum punya baris
+    @Modifying
+    @Query("UPDATE WishlistCategoryStats c SET "
+            + "c.itemCount = c.itemCount + :itemCount, "
+            + "c.pricedCount = c.pricedCount + :pricedCount, "
+            + "c.totalPrice = c.totalPrice + :totalPrice "
+            + "WHERE c.userId = :userId AND c.category = :category")
+    int applyDelta(@Param("userId") UUID userId,
+                   @Param("category") String category,
+                   @Param("itemCount") long itemCount,
+                   @Param("pricedCount") long pricedCount,
+                   @Param("totalPrice") BigDecimal totalPrice);
+
+    // Kategori yang sudah tidak punya item dibuang supaya baca stats tetap O(kategori)
+    @Modifying
+    @Query("DELETE FROM WishlistCategoryStats c WHERE c.userId = :userId AND c.itemCount <= 0")
+    int deleteEmptyByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM WishlistCategoryStats c WHERE c.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
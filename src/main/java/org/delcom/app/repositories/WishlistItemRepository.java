@@ -1,17 +1,76 @@
 package org.delcom.app.repositories;
 
+import org.delcom.app.dto.WishlistStatsRow;
 import org.delcom.app.entities.WishlistItem;
 import org.delcom.app.entities.User;
-import org.delcom.app.entities.Status;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import jakarta.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 // Perhatikan <WishlistItem, UUID> <- Ini harus UUID, bukan String/Long
 public interface WishlistItemRepository extends JpaRepository<WishlistItem, UUID> {
     
     List<WishlistItem> findByUserOrderByCreatedAtDesc(User user);
+
+    // Detail / edit / toggle / hapus: satu query lewat primary key + cek pemilik (WHERE id = ? AND user_id = ?)
+    Optional<WishlistItem> findByIdAndUser(UUID id, User user);
+
+    // --- KEYSET PAGINATION (createdAt DESC, id DESC) ---
+    // Halaman pertama
+    @Query("SELECT w FROM WishlistItem w WHERE w.user = :user ORDER BY w.createdAt DESC, w.id DESC")
+    List<WishlistItem> findPageByUser(@Param("user") User user, Pageable limit);
+
+    // Halaman berikutnya: semua item yang posisinya setelah cursor (createdAt, id)
+    @Query("SELECT w FROM WishlistItem w WHERE w.user = :user "
+            + "AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id)) "
+            + "ORDER BY w.createdAt DESC, w.id DESC")
+    List<WishlistItem> findPageByUserAfter(@Param("user") User user,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") UUID id,
+                                           Pageable limit);
     
-    // Untuk Statistik
-    long countByUserAndStatus(User user, Status status);
-}
\ No newline at end of file
+    // Agregasi statistik langsung di database (satu query, tanpa load entity)
+    @Query("SELECT new org.delcom.app.dto.WishlistStatsRow(w.status, w.category, COUNT(w), COUNT(w.price), SUM(w.price)) "
+            + "FROM WishlistItem w WHERE w.user = :user GROUP BY w.status, w.category")
+    List<WishlistStatsRow> aggregateStatsByUser(@Param("user") User user);
+
+    // --- UPLOAD GAMBAR DI BACKGROUND (ImageUploadProcessor) ---
+    // Kosong kalau item sudah dihapus atau upload-nya sudah diganti upload yang lebih baru
+    Optional<WishlistItem> findByIdAndPendingImage(UUID id, String pendingImage);
+
+    List<WishlistItem> findByPendingImageIsNotNull();
+
+    // Hanya upload terakhir (pendingImage sama) yang boleh mengisi imageUrl.
+    // REQUIRES_NEW: bisa dipanggil dari afterCompletion transaksi request (app.upload.workers.threads=0)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE WishlistItem w SET w.imageUrl = :imageUrl, w.pendingImage = null WHERE w.id = :id AND w.pendingImage = :pendingImage")
+    int finishPendingImage(@Param("id") UUID id, @Param("pendingImage") String pendingImage, @Param("imageUrl") String imageUrl);
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE WishlistItem w SET w.pendingImage = null WHERE w.id = :id AND w.pendingImage = :pendingImage")
+    int clearPendingImage(@Param("id") UUID id, @Param("pendingImage") String pendingImage);
+
+    // --- PEMBERSIH FILE UPLOAD YATIM (OrphanUploadCollector) ---
+    // Nama file di batch yang masih dipakai item (index idx_wishlist_items_image_url)
+    @Query("SELECT DISTINCT w.imageUrl FROM WishlistItem w WHERE w.imageUrl IN :names")
+    List<String> findImageUrlsIn(@Param("names") Collection<String> names);
+
+    @Query("SELECT w.pendingImage FROM WishlistItem w WHERE w.pendingImage IN :tokens")
+    List<String> findPendingImagesIn(@Param("tokens") Collection<String> tokens);
+
+    boolean existsByImageUrl(String imageUrl);
+
+    boolean existsByPendingImage(String pendingImage);
+
+    boolean existsByPendingImageIsNotNull();
+}
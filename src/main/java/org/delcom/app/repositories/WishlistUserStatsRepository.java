@@ -0,0 +1,46 @@
+package org.delcom.app.repositories;
+
+import jakarta.persistence.LockModeType;
+import jakarta.transaction.Transactional;
+import org.delcom.app.entities.WishlistUserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface WishlistUserStatsRepository extends JpaRepository<WishlistUserStats, UUID> {
+
+    // Update atomik pakai delta, return 0 kalau baris user belum ada atau belum pernah dihitung (updated_at NULL)
+    @Modifying
+    @Query("UPDATE WishlistUserStats s SET "
+            + "s.pendingCount = s.pendingCount + :pendingCount, "
+            + "s.boughtCount = s.boughtCount + :boughtCount, "
+            + "s.pendingTotal = s.pendingTotal + :pendingTotal, "
+            + "s.boughtTotal = s.boughtTotal + :boughtTotal, "
+            + "s.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE s.userId = :userId AND s.updatedAt IS NOT NULL")
+    int applyDelta(@Param("userId") UUID userId,
+                   @Param("pendingCount") long pendingCount,
+                   @Param("boughtCount") long boughtCount,
+                   @Param("pendingTotal") BigDecimal pendingTotal,
+                   @Param("boughtTotal") BigDecimal boughtTotal);
+
+    // Baris kosong (updated_at NULL = belum dihitung) untuk user yang belum punya statistik.
+    // Langsung di-commit: kalau transaksi lain sudah membuatnya, cukup insert ini yang gagal
+    // (DataIntegrityViolationException), transaksi pemanggil tetap jalan
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO wishlist_user_stats (user_id, pending_count, bought_count, pending_total, bought_total) "
+            + "VALUES (:userId, 0, 0, 0, 0)", nativeQuery = true)
+    int insertEmpty(@Param("userId") UUID userId);
+
+    // Kunci baris user sampai commit, jadi rebuild & delta statistik satu user selalu berurutan
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM WishlistUserStats s WHERE s.userId = :userId")
+    Optional<WishlistUserStats> findForUpdate(@Param("userId") UUID userId);
+}
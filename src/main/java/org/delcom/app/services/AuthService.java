@@ -1,5 +1,6 @@
 package org.delcom.app.services;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 
@@ -11,13 +12,14 @@ import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
-public class AuthService implements UserDetailsService {
+public class AuthService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
@@ -31,6 +33,9 @@ public class AuthService implements UserDetailsService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
     // --- METHOD INI YANG DICARI TEST (authenticateUser) ---
     public String authenticateUser(String email, String password) {
         // 1. Cari User
@@ -42,14 +47,37 @@ public class AuthService implements UserDetailsService {
             throw new RuntimeException("Invalid password");
         }
 
-        // 3. Generate Token
+        // 2b. Cost hash tersimpan beda dengan cost mesin ini -> hash ulang selagi password asli ada
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(password));
+            userRepository.save(user);
+            currentUserCache.invalidate(user.getEmail());
+        }
+
+        // 3. Generate Token & simpan
+        return issueToken(user);
+    }
+
+    // Dipakai juga oleh form login mode stateless (password sudah dicek Spring Security)
+    public String issueToken(String email) {
+        User user = currentUserCache.get(email);
+        if (user == null) {
+            user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        }
+        return issueToken(user);
+    }
+
+    private String issueToken(User user) {
         String token = jwtUtil.generateToken(user.getEmail());
 
-        // 4. Simpan Token ke DB (Optional, tapi bagus buat security)
+        // Simpan Token ke DB (Optional, tapi bagus buat security)
         AuthToken authToken = new AuthToken();
         authToken.setToken(token);
         authToken.setUserId(user.getId());
-        authToken.setCreatedAt(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        authToken.setCreatedAt(now);
+        authToken.setExpiresAt(now.plus(Duration.ofMillis(jwtUtil.getExpirationMillis())));
         authTokenRepository.save(authToken);
 
         return token;
@@ -60,6 +88,8 @@ public class AuthService implements UserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        // Sengaja tidak masuk CurrentUserCache: password belum dicek di sini, login gagal tidak boleh
+        // mengisi (dan menggusur) cache. Cache diisi getCurrentUser setelah request ter-autentikasi.
 
         return new org.springframework.security.core.userdetails.User(
                 user.getEmail(),
@@ -68,6 +98,19 @@ public class AuthService implements UserDetailsService {
         );
     }
 
+    // Dipanggil Spring Security setelah form login sukses kalau passwordEncoder.upgradeEncoding(hash) true
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        userRepository.findByEmail(userDetails.getUsername()).ifPresent(user -> {
+            user.setPassword(newPassword);
+            userRepository.save(user);
+            currentUserCache.invalidate(user.getEmail());
+        });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails)
+                .password(newPassword)
+                .build();
+    }
+
     // --- METHOD BANTUAN LAIN ---
     public User getCurrentUser() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
@@ -80,6 +123,11 @@ public class AuthService implements UserDetailsService {
         
         if ("anonymousUser".equals(email)) return null;
 
-        return userRepository.findByEmail(email).orElse(null);
+        User cached = currentUserCache.get(email);
+        if (cached != null) return cached;
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        currentUserCache.put(email, user);
+        return user;
     }
 }
\ No newline at end of file
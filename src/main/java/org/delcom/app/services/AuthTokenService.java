@@ -2,27 +2,83 @@ package org.delcom.app.services;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Service
 public class AuthTokenService {
 
     @Autowired
     private AuthTokenRepository authTokenRepository;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${app.token-purge.batch-size:1000}")
+    private int purgeBatchSize = 1000;
+
+    // Batas batch per sekali jalan, sisanya diteruskan di jadwal berikutnya
+    @Value("${app.token-purge.max-batches:100}")
+    private int purgeMaxBatches = 100;
+
+    private final AtomicLong purgedTotal = new AtomicLong();
+    private final AtomicLong lastPurged = new AtomicLong();
+    private final AtomicLong tokenCount = new AtomicLong(-1);
+
     // Method yang dicari oleh Test
     public void saveToken(AuthToken token) {
         authTokenRepository.save(token);
     }
 
     // Method yang dicari oleh Test
+    // Dipanggil saat logout: token langsung tidak berlaku lagi, termasuk yang sudah ada di cache
     public void removeTokenByToken(String token) {
         authTokenRepository.deleteByToken(token);
+        revokedTokenFilter.revoke(token);
+        verifiedTokenCache.evict(token);
     }
     
-    // Method validasi (mungkin sudah ada sebelumnya)
+    // Valid = tanda tangan & exp JWT benar (tanpa DB) dan belum di-logout (Bloom filter, DB hanya kalau filter hit)
     public boolean isTokenValid(String token) {
-        return authTokenRepository.findByToken(token) != null;
+        if (token == null || token.isBlank()) return false;
+        return jwtUtil.validateAndExtract(token).isPresent() && !revokedTokenFilter.isRevoked(token);
     }
-}
\ No newline at end of file
+
+    // --- PURGE TOKEN KEDALUWARSA (dipanggil AuthTokenPurgeJob) ---
+    // Hapus per batch kecil (masing-masing transaksi sendiri) supaya tidak ada lock lama di auth_tokens
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        for (int batch = 0; batch < purgeMaxBatches; batch++) {
+            List<UUID> ids = authTokenRepository.findExpiredIds(now, PageRequest.of(0, purgeBatchSize));
+            if (ids.isEmpty()) break;
+            purged += authTokenRepository.deleteByIdIn(ids);
+            if (ids.size() < purgeBatchSize) break;
+        }
+        purgedTotal.addAndGet(purged);
+        lastPurged.set(purged);
+        tokenCount.set(authTokenRepository.count());
+        return purged;
+    }
+
+    // --- METRIK ---
+    public long getPurgedTotal() { return purgedTotal.get(); }
+    public long getLastPurged() { return lastPurged.get(); }
+
+    // Jumlah baris auth_tokens saat purge terakhir (-1 kalau purge belum pernah jalan)
+    public long getTokenCount() { return tokenCount.get(); }
+}
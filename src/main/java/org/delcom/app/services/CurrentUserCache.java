@@ -0,0 +1,127 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Cache User yang sudah ter-autentikasi, diisi & dipakai AuthService.getCurrentUser supaya tiap request tidak
+// query findByEmail. Tidak diisi saat login (loadUserByUsername), jadi login gagal tidak bisa menggusur isi cache.
+// Dua lapis: atribut request (sekali resolve per request) lalu map ber-TTL yang dibatasi jumlahnya.
+// Key = principal (email). Wajib di-invalidate kalau data user berubah (lihat UserService.updateUser).
+@Service
+public class CurrentUserCache {
+
+    static final String REQUEST_ATTRIBUTE_PREFIX = CurrentUserCache.class.getName() + ".";
+
+    @Value("${app.user-cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @Value("${app.user-cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static final class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        private Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // null kalau belum ada / sudah kedaluwarsa (dihitung sebagai miss)
+    public User get(String principal) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            Object cached = request.getAttribute(REQUEST_ATTRIBUTE_PREFIX + principal, RequestAttributes.SCOPE_REQUEST);
+            if (cached instanceof User user) {
+                hits.incrementAndGet();
+                return user;
+            }
+        }
+
+        Entry entry = entries.get(principal);
+        if (entry != null && entry.expiresAt > clock.getAsLong()) {
+            hits.incrementAndGet();
+            rememberForRequest(request, principal, entry.user);
+            return entry.user;
+        }
+        if (entry != null) entries.remove(principal, entry);
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String principal, User user) {
+        if (principal == null || user == null) return;
+        long now = clock.getAsLong();
+        if (entries.size() >= maxSize && !entries.containsKey(principal)) {
+            evict(now);
+        }
+        entries.put(principal, new Entry(user, now + ttlSeconds * 1000));
+        rememberForRequest(RequestContextHolder.getRequestAttributes(), principal, user);
+    }
+
+    public void invalidate(String principal) {
+        if (principal == null) return;
+        entries.remove(principal);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + principal, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // --- COUNTER ---
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public int size() { return entries.size(); }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    // Buang yang kedaluwarsa; kalau masih penuh, buang entry yang paling cepat kedaluwarsa
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        while (entries.size() >= maxSize) {
+            String oldest = null;
+            long oldestExpiry = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (e.getValue().expiresAt < oldestExpiry) {
+                    oldestExpiry = e.getValue().expiresAt;
+                    oldest = e.getKey();
+                }
+            }
+            if (oldest == null) return;
+            entries.remove(oldest);
+        }
+    }
+
+    private void rememberForRequest(RequestAttributes request, String principal, User user) {
+        if (request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE_PREFIX + principal, user, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    // --- UNTUK TEST ---
+    void setClock(LongSupplier clock) { this.clock = clock; }
+    void setTtlSeconds(long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+    void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+}
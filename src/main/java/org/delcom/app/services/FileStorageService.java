@@ -1,54 +1,231 @@
 package org.delcom.app.services;
 
+import org.delcom.app.repositories.ImageBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+// Penyimpanan gambar item di folder upload.
+// Mode content-addressed (default): nama file = SHA-256 isi + ekstensi, jadi gambar yang sama persis
+// hanya ditulis sekali ke disk dan dipakai bersama. Jumlah item pemakainya dicatat di image_blobs.ref_count,
+// file baru dihapus saat referensi terakhir dilepas (deleteFile).
+// app.upload.content-addressed=false kembali ke nama lama item_<uuid><ext> yang ditimpa tiap upload.
+// Tiap file baru dijadwalkan ke ImageVariantService (varian card/detail untuk srcset) tanpa menunggu hasilnya.
 @Service
 public class FileStorageService {
-    
+
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final int LOCK_STRIPES = 64;
+    private static final int BUFFER_SIZE = 8192;
+
     // Default ke folder static agar gambar langsung tampil di browser
     @Value("${app.upload.dir:src/main/resources/static/uploads/}")
     private String uploadDir;
 
+    @Value("${app.upload.content-addressed:true}")
+    private boolean contentAddressed = true;
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    // Tulis/hapus file + ubah ref_count satu blob selalu di bawah lock yang sama
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final AtomicLong blobsWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong bytesDeduplicated = new AtomicLong();
+    private final AtomicLong blobsDeleted = new AtomicLong();
+
+    public FileStorageService() {
+        for (int i = 0; i < LOCK_STRIPES; i++) locks[i] = new Object();
+    }
+
     public String storeFile(MultipartFile file, UUID entityId) throws IOException {
+        return store(file::getInputStream, extensionOf(file.getOriginalFilename()), entityId);
+    }
+
+    // File yang sudah ada di disk (folder spool ImageUploadProcessor); file sumbernya tidak diubah
+    public String storeFile(Path source, UUID entityId) throws IOException {
+        return store(() -> Files.newInputStream(source), extensionOf(source.getFileName().toString()), entityId);
+    }
+
+    // Sumber isi file yang bisa dibuka lebih dari sekali (hash dulu, tulis kalau perlu)
+    @FunctionalInterface
+    private interface Content {
+        InputStream open() throws IOException;
+    }
+
+    private String store(Content content, String fileExtension, UUID entityId) throws IOException {
         // Buat directory jika belum ada
         Path uploadPath = Paths.get(uploadDir);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate nama file unik
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        if (!contentAddressed) {
+            // Ganti prefix "cover_" (Todo) menjadi "item_" (Wishlist)
+            String filename = "item_" + entityId.toString() + fileExtension;
+            try (InputStream in = content.open()) {
+                long size = Files.copy(in, uploadPath.resolve(filename), StandardCopyOption.REPLACE_EXISTING);
+                blobsWritten.incrementAndGet();
+                bytesWritten.addAndGet(size);
+            }
+            // Nama sama untuk isi baru: varian lama tidak berlaku lagi
+            imageVariantService.deleteVariants(filename);
+            imageVariantService.generate(filename);
+            return filename;
         }
 
-        // Ganti prefix "cover_" (Todo) menjadi "item_" (Wishlist)
-        String filename = "item_" + entityId.toString() + fileExtension;
+        // Hash dulu (read-only); disk hanya ditulis kalau isinya belum pernah disimpan
+        byte[] buffer = new byte[BUFFER_SIZE];
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (InputStream in = content.open()) {
+            for (int n; (n = in.read(buffer)) > 0; size += n) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        String filename = HexFormat.of().formatHex(digest.digest()) + fileExtension;
 
-        // Simpan file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        synchronized (lockFor(filename)) {
+            Path target = uploadPath.resolve(filename);
+            if (Files.exists(target)) {
+                deduplicated.incrementAndGet();
+                bytesDeduplicated.addAndGet(size);
+            } else {
+                writeAtomically(content, uploadPath, target);
+                blobsWritten.incrementAndGet();
+                bytesWritten.addAndGet(size);
+                imageVariantService.generate(filename);
+            }
+            if (imageBlobRepository.incrementRefCount(filename) == 0) {
+                imageBlobRepository.insertFirstReference(filename, size, LocalDateTime.now());
+            }
+        }
+        return filename;
+    }
 
-        return filename; 
+    // Gambar lama item diganti gambar baru: referensi lama dilepas.
+    // Mode lama menimpa file bernama sama (item_<uuid>), jadi nama yang sama tidak boleh dihapus.
+    public void replaceFile(String previous, String current) {
+        if (previous == null) return;
+        if (!contentAddressed && previous.equals(current)) return;
+        deleteFile(previous);
     }
 
+    // Lepas satu referensi ke file; file dihapus kalau tidak ada item lain yang memakainya.
+    // Di dalam transaksi, pelepasan ditunda sampai commit (rollback = file tetap ada) dan hasilnya false.
     public boolean deleteFile(String filename) {
-        try {
-            if (filename == null) return false;
-            Path filePath = Paths.get(uploadDir).resolve(filename);
-            return Files.deleteIfExists(filePath);
-        } catch (IOException e) {
+        if (filename == null) return false;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(filename);
+                }
+            });
             return false;
         }
+        return release(filename);
     }
-}
\ No newline at end of file
+
+    private boolean release(String filename) {
+        synchronized (lockFor(filename)) {
+            try {
+                // decrement 0 baris = file lama tanpa catatan di image_blobs, langsung dihapus
+                if (imageBlobRepository.decrementRefCount(filename) > 0
+                        && imageBlobRepository.deleteIfUnreferenced(filename) == 0) {
+                    return false; // masih dipakai item lain
+                }
+            } catch (RuntimeException e) {
+                log.warn("Gagal melepas referensi gambar {}: {}", filename, e.getMessage());
+                return false;
+            }
+            try {
+                Path uploadPath = Paths.get(uploadDir).normalize();
+                Path filePath = uploadPath.resolve(filename).normalize();
+                if (!filePath.startsWith(uploadPath)) return false;
+                boolean deleted = Files.deleteIfExists(filePath);
+                imageVariantService.deleteVariants(filename);
+                if (deleted) blobsDeleted.incrementAndGet();
+                return deleted;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    // Ditulis ke file sementara di folder yang sama lalu di-rename, jadi blob setengah jadi tidak pernah terlihat
+    private static void writeAtomically(Content content, Path uploadPath, Path target) throws IOException {
+        Path temp = Files.createTempFile(uploadPath, ".upload-", ".tmp");
+        try {
+            try (InputStream in = content.open()) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Hanya huruf/angka supaya nama file asli tidak bisa menyisipkan path
+    static String extensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) return "";
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        if (extension.isEmpty() || extension.length() > 10 || !extension.chars().allMatch(c -> c < 128 && Character.isLetterOrDigit(c))) {
+            return "";
+        }
+        return "." + extension;
+    }
+
+    private Object lockFor(String filename) {
+        return locks[Math.floorMod(filename.hashCode(), LOCK_STRIPES)];
+    }
+
+    // OrphanUploadCollector mengecek ulang referensi lalu menghapus file di bawah lock yang sama dengan store/release
+    <T> T withLock(String filename, Supplier<T> action) {
+        synchronized (lockFor(filename)) {
+            return action.get();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // --- COUNTER ---
+    public long getBlobsWritten() { return blobsWritten.get(); }
+    public long getBytesWritten() { return bytesWritten.get(); }
+    public long getDeduplicated() { return deduplicated.get(); }
+    public long getBytesDeduplicated() { return bytesDeduplicated.get(); }
+    public long getBlobsDeleted() { return blobsDeleted.get(); }
+}
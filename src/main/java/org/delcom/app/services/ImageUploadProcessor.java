@@ -0,0 +1,199 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.WishlistItem;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Upload gambar item diselesaikan di luar thread request.
+// Request hanya memindahkan file multipart ke folder spool (rename kalau Tomcat sudah menyimpannya di disk)
+// dan menyimpan item sekali dengan pendingImage = nama file spool. Setelah commit, pool terbatas menyimpan file
+// lewat FileStorageService (dedup + varian) lalu mengisi imageUrl. Kalau antrean penuh, job dijalankan
+// di thread pemanggil (backpressure) supaya upload tidak pernah hilang.
+@Service
+public class ImageUploadProcessor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageUploadProcessor.class);
+
+    @Autowired
+    private WishlistItemRepository repository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${app.upload.spool-dir:${java.io.tmpdir}/wishlist-upload-spool}")
+    private String spoolDir;
+
+    // 0 = dijalankan langsung di thread request setelah commit (tanpa pool)
+    @Value("${app.upload.workers.threads:2}")
+    private int threads = 2;
+
+    @Value("${app.upload.workers.queue-capacity:100}")
+    private int queueCapacity = 100;
+
+    private volatile Executor executor;
+    private ThreadPoolExecutor pool;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    // Pindahkan upload ke folder spool; hasilnya disimpan di WishlistItem.pendingImage
+    public String spool(MultipartFile file) throws IOException {
+        Path dir = Paths.get(spoolDir).toAbsolutePath();
+        Files.createDirectories(dir);
+        String token = UUID.randomUUID() + FileStorageService.extensionOf(file.getOriginalFilename());
+        // transferTo(File): Part.write -> rename file sementara Tomcat, bukan copy isi
+        file.transferTo(dir.resolve(token).toFile());
+        return token;
+    }
+
+    // Dijalankan setelah transaksi item commit; rollback = file spool langsung dibuang
+    public void schedule(UUID itemId, String token) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(itemId, token);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) submit(itemId, token);
+                else discard(token);
+            }
+        });
+    }
+
+    // Job yang hilang karena restart: dilanjutkan kalau file spool-nya masih ada
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        for (WishlistItem item : repository.findByPendingImageIsNotNull()) {
+            if (Files.exists(spoolPath(item.getPendingImage()))) {
+                submit(item.getId(), item.getPendingImage());
+            } else {
+                repository.clearPendingImage(item.getId(), item.getPendingImage());
+            }
+        }
+    }
+
+    private void submit(UUID itemId, String token) {
+        Runnable job = () -> finish(itemId, token);
+        if (threads <= 0) {
+            job.run();
+        } else {
+            executor().execute(job);
+        }
+    }
+
+    void finish(UUID itemId, String token) {
+        Path spooled = spoolPath(token);
+        try {
+            Optional<WishlistItem> item = repository.findByIdAndPendingImage(itemId, token);
+            if (item.isEmpty()) {
+                stale.incrementAndGet(); // item dihapus / diganti upload lain selama antre
+                return;
+            }
+            String previous = item.get().getImageUrl();
+            String filename = fileStorageService.storeFile(spooled, itemId);
+            if (repository.finishPendingImage(itemId, token, filename) == 1) {
+                processed.incrementAndGet();
+                fileStorageService.replaceFile(previous, filename);
+            } else {
+                // Kalah cepat dengan upload lain / item dihapus: referensi yang baru dibuat dilepas lagi
+                stale.incrementAndGet();
+                fileStorageService.replaceFile(filename, previous);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Gagal memproses upload gambar item {}: {}", itemId, e.getMessage());
+            try {
+                repository.clearPendingImage(itemId, token);
+            } catch (RuntimeException ignored) {
+                // ditangani resumePending saat start berikutnya
+            }
+        } finally {
+            discard(token);
+        }
+    }
+
+    private void discard(String token) {
+        try {
+            Files.deleteIfExists(spoolPath(token));
+        } catch (IOException e) {
+            log.warn("Gagal menghapus file spool {}: {}", token, e.getMessage());
+        }
+    }
+
+    Path spoolPath(String token) {
+        return Paths.get(spoolDir).toAbsolutePath().resolve(token);
+    }
+
+    private Executor executor() {
+        Executor current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                                Thread thread = new Thread(r, "image-upload-" + counter.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            }, (job, executor) -> {
+                                callerRuns.incrementAndGet();
+                                if (!executor.isShutdown()) job.run();
+                            });
+                    current = pool;
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        ThreadPoolExecutor current = pool;
+        if (current != null) {
+            current.shutdown();
+            current.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // --- COUNTER ---
+    public long getProcessed() { return processed.get(); }
+    public long getStale() { return stale.get(); }
+    public long getFailed() { return failed.get(); }
+    public long getCallerRuns() { return callerRuns.get(); }
+    public int getQueueDepth() {
+        ThreadPoolExecutor current = pool;
+        return current == null ? 0 : current.getQueue().size();
+    }
+
+    // --- UNTUK TEST ---
+    void setExecutor(Executor executor) { this.executor = executor; }
+    void setSpoolDir(String spoolDir) { this.spoolDir = spoolDir; }
+}
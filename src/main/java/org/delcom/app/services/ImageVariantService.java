@@ -0,0 +1,280 @@
+package org.delcom.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Varian gambar item dengan lebar tetap (default 400 = card dashboard, 960 = halaman detail) untuk srcset.
+// Dibuat dengan Java2D di pool thread sendiri yang antreannya terbatas: upload tidak pernah menunggu resize,
+// dan kalau antrean penuh job dibuang (dihitung) lalu dicoba lagi saat gambar itu dirender berikutnya.
+// Nama varian: <nama asli tanpa ekstensi>-<lebar>w.<ekstensi>, di folder upload yang sama.
+@Service
+public class ImageVariantService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    static final String URL_PREFIX = "/uploads/";
+
+    // Tanda "sudah dicek, tidak ada varian" (gambar kecil / format tidak didukung) supaya tidak dicek ulang
+    private static final String NONE = "";
+
+    @Value("${app.upload.dir:src/main/resources/static/uploads/}")
+    private String uploadDir;
+
+    @Value("${app.image-variants.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.image-variants.widths:400,960}")
+    private int[] widths = {400, 960};
+
+    @Value("${app.image-variants.threads:1}")
+    private int threads = 1;
+
+    @Value("${app.image-variants.queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    // Batas piksel sebelum decode, supaya gambar raksasa (decompression bomb) tidak menghabiskan heap
+    @Value("${app.image-variants.max-pixels:40000000}")
+    private long maxPixels = 40_000_000L;
+
+    @Value("${app.image-variants.cache-size:10000}")
+    private int cacheSize = 10000;
+
+    private volatile Executor executor;
+    private ThreadPoolExecutor pool;
+
+    // filename -> srcset siap pakai (atau NONE), LRU terbatas
+    private final Map<String, String> srcsets = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > cacheSize;
+        }
+    };
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    // Dipanggil setelah file gambar baru ditulis; tidak pernah menunggu
+    public void generate(String filename) {
+        if (!enabled || filename == null) return;
+        if (!pending.add(filename)) return; // sudah antre / sedang diproses
+        try {
+            executor().execute(() -> {
+                try {
+                    process(filename);
+                } finally {
+                    pending.remove(filename);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(filename);
+            dropped.incrementAndGet();
+        }
+    }
+
+    // Nilai atribut srcset (varian + file asli dengan lebar masing-masing), null kalau belum ada / tidak perlu.
+    // Gambar yang belum pernah dicek (upload sebelum fitur ini, restart, job dibuang) dijadwalkan di sini.
+    public String srcset(String filename) {
+        if (!enabled || filename == null) return null;
+        String srcset;
+        synchronized (srcsets) {
+            srcset = srcsets.get(filename);
+        }
+        if (srcset == null) {
+            generate(filename);
+            return null;
+        }
+        return srcset.isEmpty() ? null : srcset;
+    }
+
+    // Dipanggil saat file aslinya dihapus / ditimpa
+    public void deleteVariants(String filename) {
+        if (filename == null) return;
+        synchronized (srcsets) {
+            srcsets.remove(filename);
+        }
+        Path uploadPath = Paths.get(uploadDir);
+        for (int width : widths) {
+            try {
+                Files.deleteIfExists(uploadPath.resolve(variantName(filename, width)));
+            } catch (IOException e) {
+                log.warn("Gagal menghapus varian {} ({}w): {}", filename, width, e.getMessage());
+            }
+        }
+    }
+
+    static String variantName(String filename, int width) {
+        int dot = filename.lastIndexOf('.');
+        return dot < 0 ? filename + "-" + width + "w" : filename.substring(0, dot) + "-" + width + "w" + filename.substring(dot);
+    }
+
+    void process(String filename) {
+        Path uploadPath = Paths.get(uploadDir);
+        Path source = uploadPath.resolve(filename);
+        String srcset = NONE;
+        try {
+            if (Files.isRegularFile(source)) srcset = buildVariants(uploadPath, source, filename);
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.warn("Gagal membuat varian gambar {}: {}", filename, e.getMessage());
+            srcset = NONE;
+        }
+
+        // File asli bisa saja dihapus selama resize: varian yang telanjur ditulis ikut dibuang
+        if (!srcset.isEmpty() && !Files.exists(source)) {
+            deleteVariants(filename);
+            return;
+        }
+        synchronized (srcsets) {
+            srcsets.put(filename, srcset);
+        }
+    }
+
+    private String buildVariants(Path uploadPath, Path source, String filename) throws IOException {
+        int dot = filename.lastIndexOf('.');
+        String format = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (format.isEmpty() || !ImageIO.getImageWritersBySuffix(format).hasNext()) return NONE;
+
+        int originalWidth;
+        int originalHeight;
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) return NONE;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                originalWidth = reader.getWidth(0);
+                originalHeight = reader.getHeight(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+        if ((long) originalWidth * originalHeight > maxPixels) return NONE;
+
+        int[] targets = Arrays.stream(widths).filter(w -> w > 0 && w < originalWidth).sorted().distinct().toArray();
+        if (targets.length == 0) return NONE;
+
+        BufferedImage original = null;
+        StringBuilder srcset = new StringBuilder();
+        for (int width : targets) {
+            String name = variantName(filename, width);
+            Path target = uploadPath.resolve(name);
+            if (!Files.exists(target)) {
+                if (original == null) {
+                    original = ImageIO.read(source.toFile());
+                    if (original == null) return NONE;
+                }
+                int height = Math.max(1, (int) Math.round((double) originalHeight * width / originalWidth));
+                write(resize(original, width, height, "png".equals(format) || "gif".equals(format)), format, uploadPath, target);
+                generated.incrementAndGet();
+            }
+            srcset.append(URL_PREFIX).append(name).append(' ').append(width).append("w, ");
+        }
+        return srcset.append(URL_PREFIX).append(filename).append(' ').append(originalWidth).append('w').toString();
+    }
+
+    // Turun bertahap maksimal setengah per langkah: bilinear satu langkah dari gambar besar hasilnya kasar
+    static BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static void write(BufferedImage image, String format, Path uploadPath, Path target) throws IOException {
+        Path temp = Files.createTempFile(uploadPath, ".variant-", ".tmp");
+        try {
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                throw new IOException("No ImageIO writer for " + format);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Executor executor() {
+        Executor current = executor;
+        if (current == null) {
+            synchronized (this) {
+                current = executor;
+                if (current == null) {
+                    AtomicInteger counter = new AtomicInteger();
+                    pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(queueCapacity), r -> {
+                                Thread thread = new Thread(r, "image-variant-" + counter.incrementAndGet());
+                                thread.setDaemon(true);
+                                thread.setPriority(Thread.MIN_PRIORITY);
+                                return thread;
+                            }, new ThreadPoolExecutor.AbortPolicy());
+                    current = pool;
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public void destroy() {
+        ThreadPoolExecutor current = pool;
+        if (current != null) current.shutdownNow();
+    }
+
+    // --- COUNTER ---
+    public long getGenerated() { return generated.get(); }
+    public long getDropped() { return dropped.get(); }
+    public long getFailed() { return failed.get(); }
+    public int getPending() { return pending.size(); }
+
+    // --- UNTUK TEST ---
+    void setExecutor(Executor executor) { this.executor = executor; }
+    void setUploadDir(String uploadDir) { this.uploadDir = uploadDir; }
+    void setWidths(int... widths) { this.widths = widths; }
+    void setMaxPixels(long maxPixels) { this.maxPixels = maxPixels; }
+}
@@ -0,0 +1,138 @@
+package org.delcom.app.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Token bucket percobaan login per IP dan per email, dicek LoginRateLimitFilter sebelum query user & BCrypt.
+// Map dibagi ke beberapa stripe (lock sendiri-sendiri) supaya login paralel tidak rebutan satu lock,
+// dan tiap stripe dibatasi jumlah key-nya (LRU) supaya memori tetap terbatas walau IP / email acak.
+@Service
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    @Value("${app.login-limit.ip.capacity:50}")
+    private int ipCapacity = 50;
+
+    @Value("${app.login-limit.ip.refill-per-minute:30}")
+    private double ipRefillPerMinute = 30;
+
+    @Value("${app.login-limit.email.capacity:10}")
+    private int emailCapacity = 10;
+
+    @Value("${app.login-limit.email.refill-per-minute:5}")
+    private double emailRefillPerMinute = 5;
+
+    @Value("${app.login-limit.max-keys:100000}")
+    private int maxKeys = 100000;
+
+    private LongSupplier clock = System::nanoTime;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicLong allowed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LoginRateLimiter() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long lastRefill) {
+            this.tokens = tokens;
+            this.lastRefill = lastRefill;
+        }
+    }
+
+    // LinkedHashMap access-order: yang paling lama tidak dipakai dibuang duluan
+    private final class Stripe {
+        private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > Math.max(1, maxKeys / STRIPES);
+            }
+        };
+    }
+
+    // Hasil pengecekan: retryAfterSeconds > 0 kalau ditolak
+    public static final class Decision {
+        private final boolean allowed;
+        private final long retryAfterSeconds;
+
+        private Decision(boolean allowed, long retryAfterSeconds) {
+            this.allowed = allowed;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public boolean isAllowed() { return allowed; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    }
+
+    public Decision tryAcquire(String ip, String email) {
+        long wait = acquire("ip:" + (ip == null ? "" : ip), ipCapacity, ipRefillPerMinute);
+        if (wait == 0 && email != null && !email.isBlank()) {
+            wait = acquire("email:" + email.trim().toLowerCase(Locale.ROOT), emailCapacity, emailRefillPerMinute);
+        }
+        if (wait == 0) {
+            allowed.incrementAndGet();
+            return new Decision(true, 0);
+        }
+        rejected.incrementAndGet();
+        return new Decision(false, wait);
+    }
+
+    // 0 kalau token berhasil diambil, selain itu detik sampai token berikutnya tersedia
+    private long acquire(String key, int capacity, double refillPerMinute) {
+        Stripe stripe = stripes[Math.floorMod(key.hashCode(), STRIPES)];
+        double refillPerNano = refillPerMinute / 60_000_000_000.0;
+        synchronized (stripe) {
+            long now = clock.getAsLong();
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * refillPerNano);
+                bucket.lastRefill = now;
+            }
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / refillPerNano / 1_000_000_000.0));
+        }
+    }
+
+    // --- COUNTER ---
+    public long getAllowed() { return allowed.get(); }
+    public long getRejected() { return rejected.get(); }
+
+    public double getRejectRate() {
+        long total = allowed.get() + rejected.get();
+        return total == 0 ? 0.0 : (double) rejected.get() / total;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    // --- UNTUK TEST ---
+    void setClock(LongSupplier clock) { this.clock = clock; }
+    void setIpLimit(int capacity, double refillPerMinute) { this.ipCapacity = capacity; this.ipRefillPerMinute = refillPerMinute; }
+    void setEmailLimit(int capacity, double refillPerMinute) { this.emailCapacity = capacity; this.emailRefillPerMinute = refillPerMinute; }
+    void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+}
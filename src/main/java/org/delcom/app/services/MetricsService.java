@@ -0,0 +1,188 @@
+package org.delcom.app.services;
+
+import org.delcom.app.configs.AsyncRequestLogger;
+import org.delcom.app.configs.BoundedPasswordEncoder;
+import org.delcom.app.configs.RequestLoggingFilter;
+import org.delcom.app.controllers.UploadController;
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+// Menyusun semua counter aplikasi dalam format teks Prometheus (0.0.4) untuk GET /metrics.
+// Histogram latensi diekspor sebagai summary (p50/p90/p99/p999 + count/sum) dalam detik.
+@Service
+public class MetricsService {
+
+    static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    @Autowired
+    private RouteLatencyMetrics routeLatencyMetrics;
+
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private AuthTokenService authTokenService;
+
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private QueryMonitor queryMonitor;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private ImageUploadProcessor imageUploadProcessor;
+
+    @Autowired
+    private UploadController uploadController;
+
+    @Autowired
+    private OrphanUploadCollector orphanUploadCollector;
+
+    @Autowired(required = false)
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired(required = false)
+    private RequestLoggingFilter requestLoggingFilter;
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        writeLatency(out);
+
+        counter(out, "app_user_cache_hits_total", "Hit cache user login (CurrentUserCache)", currentUserCache.getHits());
+        counter(out, "app_user_cache_misses_total", "Miss cache user login (CurrentUserCache)", currentUserCache.getMisses());
+        gauge(out, "app_user_cache_size", "Jumlah entry cache user login", currentUserCache.size());
+
+        counter(out, "app_token_cache_hits_total", "Hit cache JWT terverifikasi (VerifiedTokenCache)", verifiedTokenCache.getHits());
+        counter(out, "app_token_cache_misses_total", "Miss cache JWT terverifikasi (VerifiedTokenCache)", verifiedTokenCache.getMisses());
+        gauge(out, "app_token_cache_size", "Jumlah entry cache JWT terverifikasi", verifiedTokenCache.size());
+
+        counter(out, "app_auth_tokens_purged_total", "Baris auth_tokens kedaluwarsa yang sudah dihapus", authTokenService.getPurgedTotal());
+        gauge(out, "app_auth_tokens_last_purged", "Baris auth_tokens yang dihapus pada purge terakhir", authTokenService.getLastPurged());
+        if (authTokenService.getTokenCount() >= 0) {
+            gauge(out, "app_auth_tokens", "Jumlah baris auth_tokens setelah purge terakhir", authTokenService.getTokenCount());
+        }
+
+        counter(out, "app_revoked_filter_checks_total", "Cek token logout lewat Bloom filter", revokedTokenFilter.getChecks());
+        counter(out, "app_revoked_filter_positives_total", "Cek yang dijawab 'mungkin' oleh Bloom filter", revokedTokenFilter.getPositives());
+        counter(out, "app_revoked_filter_false_positives_total", "Positif Bloom filter yang ternyata tidak ada di revoked_tokens", revokedTokenFilter.getFalsePositives());
+        gauge(out, "app_revoked_filter_expected_fpp", "Perkiraan false positive rate Bloom filter", revokedTokenFilter.getExpectedFalsePositiveRate());
+        gauge(out, "app_revoked_filter_memory_bytes", "Ukuran memori Bloom filter", revokedTokenFilter.getMemoryBytes());
+        gauge(out, "app_revoked_filter_size", "Jumlah token di Bloom filter", revokedTokenFilter.size());
+
+        counter(out, "app_login_limit_allowed_total", "Percobaan login yang lolos batas", loginRateLimiter.getAllowed());
+        counter(out, "app_login_limit_rejected_total", "Percobaan login yang ditolak 429", loginRateLimiter.getRejected());
+        gauge(out, "app_login_limit_keys", "Jumlah bucket IP/email di memori", loginRateLimiter.size());
+
+        counter(out, "app_db_queries_total", "Statement SQL yang dijalankan selama request", queryMonitor.getQueries());
+        counter(out, "app_db_query_seconds_total", "Total waktu eksekusi SQL selama request", seconds(queryMonitor.getQueryNanos()));
+        counter(out, "app_db_query_budget_exceeded_total", "Request yang melewati app.query-monitor.max-queries", queryMonitor.getOverBudget());
+        counter(out, "app_db_repeated_statements_total", "Request dengan statement identik berulang (kemungkinan N+1)", queryMonitor.getRepeated());
+
+        counter(out, "app_upload_blobs_written_total", "File gambar yang ditulis ke folder upload", fileStorageService.getBlobsWritten());
+        counter(out, "app_upload_bytes_written_total", "Byte gambar yang ditulis ke folder upload", fileStorageService.getBytesWritten());
+        counter(out, "app_upload_deduplicated_total", "Upload yang isinya sudah tersimpan (tidak ditulis ulang)", fileStorageService.getDeduplicated());
+        counter(out, "app_upload_bytes_deduplicated_total", "Byte upload yang tidak ditulis ulang karena duplikat", fileStorageService.getBytesDeduplicated());
+        counter(out, "app_upload_blobs_deleted_total", "File gambar yang dihapus setelah referensi terakhirnya hilang", fileStorageService.getBlobsDeleted());
+        counter(out, "app_image_uploads_processed_total", "Upload gambar yang selesai diproses di background", imageUploadProcessor.getProcessed());
+        counter(out, "app_image_uploads_stale_total", "Upload gambar yang dibuang karena item dihapus / diganti upload lain", imageUploadProcessor.getStale());
+        counter(out, "app_image_uploads_failed_total", "Upload gambar yang gagal diproses", imageUploadProcessor.getFailed());
+        counter(out, "app_image_uploads_caller_runs_total", "Upload gambar yang diproses di thread request karena antrean penuh", imageUploadProcessor.getCallerRuns());
+        gauge(out, "app_image_uploads_queue_depth", "Upload gambar yang menunggu diproses", imageUploadProcessor.getQueueDepth());
+        counter(out, "app_image_variants_generated_total", "Varian gambar (card/detail) yang dibuat", imageVariantService.getGenerated());
+        counter(out, "app_image_variants_dropped_total", "Job varian gambar yang dibuang karena antrean penuh", imageVariantService.getDropped());
+        counter(out, "app_image_variants_failed_total", "Gambar yang gagal dibuatkan varian", imageVariantService.getFailed());
+        gauge(out, "app_image_variants_pending", "Gambar yang menunggu / sedang dibuatkan varian", imageVariantService.getPending());
+        counter(out, "app_uploads_served_total", "Response 200/206 untuk GET/HEAD /uploads", uploadController.getServed());
+        counter(out, "app_uploads_not_modified_total", "Response 304 untuk /uploads (isi file tidak dibaca)", uploadController.getNotModified());
+        counter(out, "app_uploads_partial_total", "Response 206 (Range) untuk /uploads", uploadController.getPartial());
+        counter(out, "app_uploads_sendfile_bytes_total", "Byte /uploads yang dikirim lewat sendfile connector", uploadController.getSendfileBytes());
+        counter(out, "app_uploads_copied_bytes_total", "Byte /uploads yang dikirim lewat FileChannel.transferTo", uploadController.getCopiedBytes());
+        counter(out, "app_upload_gc_scanned_total", "File upload/spool yang sudah dicek pembersih file yatim", orphanUploadCollector.getScanned());
+        counter(out, "app_upload_gc_orphans_total", "File upload/spool yatim yang ditemukan", orphanUploadCollector.getOrphans());
+        counter(out, "app_upload_gc_deleted_total", "File yatim yang dihapus", orphanUploadCollector.getDeleted());
+        counter(out, "app_upload_gc_quarantined_total", "File yatim yang dipindah ke folder karantina", orphanUploadCollector.getQuarantined());
+        counter(out, "app_upload_gc_bytes_collected_total", "Byte file yatim yang dihapus / dipindah dari folder upload", orphanUploadCollector.getBytesCollected());
+
+        if (passwordEncoder != null) {
+            counter(out, "app_password_hash_total", "Jumlah hash/verifikasi BCrypt", passwordEncoder.getHashCount());
+            counter(out, "app_password_hash_rejected_total", "Hash BCrypt yang ditolak karena pool penuh", passwordEncoder.getRejectedCount());
+            gauge(out, "app_password_hash_queue_depth", "Antrean pool hashing password", passwordEncoder.getQueueDepth());
+            gauge(out, "app_password_hash_active", "Thread pool hashing password yang sedang bekerja", passwordEncoder.getActiveCount());
+            gauge(out, "app_password_hash_avg_seconds", "Rata-rata durasi satu hash BCrypt", passwordEncoder.getAverageHashMillis() / 1000.0);
+            gauge(out, "app_password_hash_max_seconds", "Durasi hash BCrypt terlama", passwordEncoder.getMaxHashMillis() / 1000.0);
+        }
+
+        if (requestLoggingFilter != null) {
+            AsyncRequestLogger logger = requestLoggingFilter.logger();
+            counter(out, "app_request_log_written_total", "Baris log request yang sudah ditulis", logger.getWritten());
+            counter(out, "app_request_log_dropped_total", "Baris log request yang dibuang karena buffer penuh", logger.getDropped());
+            gauge(out, "app_request_log_pending", "Baris log request yang masih di buffer", logger.getPending());
+        }
+        return out.toString();
+    }
+
+    private void writeLatency(StringBuilder out) {
+        String name = "http_server_requests_seconds";
+        out.append("# HELP ").append(name).append(" Latensi request per route, method dan kelas status\n");
+        out.append("# TYPE ").append(name).append(" summary\n");
+        StringBuilder max = new StringBuilder();
+        for (RouteLatencyMetrics.Series series : routeLatencyMetrics.snapshot()) {
+            LatencyHistogram histogram = series.histogram();
+            String labels = "method=\"" + series.method() + "\",uri=\"" + escape(series.route())
+                    + "\",status=\"" + series.statusClass() + "\"";
+            for (double quantile : QUANTILES) {
+                out.append(name).append('{').append(labels).append(",quantile=\"").append(quantile).append("\"} ")
+                   .append(seconds(histogram.valueAtPercentile(quantile * 100))).append('\n');
+            }
+            out.append(name).append("_count{").append(labels).append("} ").append(histogram.getCount()).append('\n');
+            out.append(name).append("_sum{").append(labels).append("} ").append(seconds(histogram.getSum())).append('\n');
+            max.append(name).append("_max{").append(labels).append("} ").append(seconds(histogram.getMax())).append('\n');
+        }
+        out.append("# HELP ").append(name).append("_max Latensi request terlama per route\n");
+        out.append("# TYPE ").append(name).append("_max gauge\n");
+        out.append(max);
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, double value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) out.append((long) value);
+        else out.append(value);
+        out.append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    // Escape nilai label sesuai format teks Prometheus
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
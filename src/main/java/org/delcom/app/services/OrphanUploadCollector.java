@@ -0,0 +1,295 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.UploadGcReport;
+import org.delcom.app.repositories.ImageBlobRepository;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Pembersih file yatim di folder upload dan folder spool.
+// Yatim = tidak dipakai item mana pun (image_url; pending_image untuk folder spool) dan umurnya (mtime) sudah
+// lewat masa tenggang: ekstensi lama sisa edit (item_<uuid>.png vs .jpg), upload dari transaksi yang gagal,
+// varian yang gambar aslinya sudah tidak dipakai, file sementara sisa crash, nama dari skema lama.
+// Folder dijalani bertahap: tiap jalan hanya mengambil max-files-per-run nama berikutnya (urut nama, lanjut dari
+// cursor jalan sebelumnya), referensinya dicek per batch dengan satu query IN, dan stat file dibatasi
+// files-per-second supaya tidak berebut I/O dengan request. Default file dipindah ke folder karantina, bukan dihapus.
+@Service
+public class OrphanUploadCollector {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanUploadCollector.class);
+
+    // <nama asli tanpa ekstensi>-<lebar>w.<ext>, lihat ImageVariantService.variantName
+    private static final Pattern VARIANT = Pattern.compile("(.+)-[0-9]+w(\\.[a-z0-9]{1,10})?");
+
+    @Autowired
+    private WishlistItemRepository itemRepository;
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Value("${app.upload.dir:src/main/resources/static/uploads/}")
+    private String uploadDir;
+
+    @Value("${app.upload.spool-dir:${java.io.tmpdir}/wishlist-upload-spool}")
+    private String spoolDir;
+
+    @Value("${app.upload-gc.grace-hours:24}")
+    private long graceHours = 24;
+
+    @Value("${app.upload-gc.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${app.upload-gc.max-files-per-run:5000}")
+    private int maxFilesPerRun = 5000;
+
+    // 0 = tanpa batas
+    @Value("${app.upload-gc.files-per-second:200}")
+    private int filesPerSecond = 200;
+
+    // false = file yatim langsung dihapus
+    @Value("${app.upload-gc.quarantine:true}")
+    private boolean quarantine = true;
+
+    // Kosong = <app.upload.dir>/.quarantine (diawali titik, jadi tidak ikut disajikan di /uploads)
+    @Value("${app.upload-gc.quarantine-dir:}")
+    private String quarantineDir = "";
+
+    private LongSupplier clock = System::currentTimeMillis;
+    private Sleeper sleeper = Thread::sleep;
+
+    // Nama terakhir yang sudah dicek per folder; null = jalan berikutnya mulai dari awal
+    private String uploadCursor;
+    private String spoolCursor;
+
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong orphans = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong quarantined = new AtomicLong();
+    private final AtomicLong bytesCollected = new AtomicLong();
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long millis) throws InterruptedException;
+    }
+
+    // dryRun = hanya laporan. fullPass = seluruh folder sekaligus (perintah --uploads-gc*), selain itu satu potongan
+    public synchronized UploadGcReport collect(boolean dryRun, boolean fullPass) {
+        UploadGcReport report = new UploadGcReport(dryRun);
+        Throttle throttle = new Throttle();
+        try {
+            if (fullPass) {
+                String cursor = null;
+                do {
+                    cursor = walk(Paths.get(uploadDir), cursor, false, report, throttle);
+                } while (cursor != null);
+                do {
+                    cursor = walk(Paths.get(spoolDir), cursor, true, report, throttle);
+                } while (cursor != null);
+                report.setComplete(true);
+            } else {
+                uploadCursor = walk(Paths.get(uploadDir), uploadCursor, false, report, throttle);
+                spoolCursor = walk(Paths.get(spoolDir), spoolCursor, true, report, throttle);
+                report.setComplete(uploadCursor == null && spoolCursor == null);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Gagal membaca folder upload: {}", e.getMessage());
+        }
+        return report;
+    }
+
+    // Satu potongan folder: max-files-per-run nama terkecil setelah cursor (memori terbatas walau folder besar).
+    // Hasilnya cursor berikutnya, null kalau folder sudah habis.
+    private String walk(Path dir, String cursor, boolean spool, UploadGcReport report, Throttle throttle)
+            throws IOException, InterruptedException {
+        if (!Files.isDirectory(dir)) return null;
+        TreeSet<String> chunk = new TreeSet<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (cursor != null && name.compareTo(cursor) <= 0) continue;
+                chunk.add(name);
+                if (chunk.size() > maxFilesPerRun) chunk.pollLast();
+            }
+        }
+
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String name : chunk) {
+            batch.add(name);
+            if (batch.size() >= batchSize) {
+                collectBatch(dir, batch, spool, report, throttle);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) collectBatch(dir, batch, spool, report, throttle);
+        return chunk.size() < maxFilesPerRun ? null : chunk.last();
+    }
+
+    private void collectBatch(Path dir, List<String> names, boolean spool, UploadGcReport report, Throttle throttle)
+            throws InterruptedException {
+        long cutoff = clock.getAsLong() - TimeUnit.HOURS.toMillis(graceHours);
+        Map<String, Long> candidates = new LinkedHashMap<>(); // nama -> ukuran
+        for (String name : names) {
+            throttle.acquire();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(dir.resolve(name), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (IOException e) {
+                continue; // sudah dihapus di antara listing dan stat
+            }
+            if (!attributes.isRegularFile()) continue; // folder karantina, symlink
+            report.recordScanned();
+            scanned.incrementAndGet();
+            if (attributes.lastModifiedTime().toMillis() > cutoff) {
+                report.recordTooNew();
+                continue;
+            }
+            candidates.put(name, attributes.size());
+        }
+        if (candidates.isEmpty()) return;
+
+        // Satu query per batch; hanya yang lolos di sini yang dicek ulang satu per satu di bawah lock
+        Map<String, String> owners = new HashMap<>();
+        for (String name : candidates.keySet()) owners.put(name, spool ? name : ownerOf(name));
+        Set<String> lookup = new HashSet<>(owners.values());
+        lookup.remove(null);
+        Set<String> used = lookup.isEmpty() ? Set.of() : new HashSet<>(spool
+                ? itemRepository.findPendingImagesIn(lookup)
+                : itemRepository.findImageUrlsIn(lookup));
+
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            String owner = owners.get(candidate.getKey());
+            if (owner != null && used.contains(owner)) {
+                report.recordReferenced();
+                continue;
+            }
+            collectOrphan(dir, candidate.getKey(), owner, candidate.getValue(), spool, report);
+        }
+    }
+
+    private void collectOrphan(Path dir, String name, String owner, long size, boolean spool, UploadGcReport report) {
+        // Lock yang sama dengan FileStorageService.store/release untuk blob pemiliknya:
+        // upload yang memakai ulang blob ini tidak bisa menyelip di antara cek dan hapus
+        Boolean removed = fileStorageService.withLock(Objects.requireNonNullElse(owner, name), () -> {
+            if (!stillOrphan(name, owner, spool)) return null;
+            return !report.isDryRun() && remove(dir, name, owner, spool);
+        });
+        if (removed == null) {
+            report.recordReferenced();
+            return;
+        }
+        report.recordOrphan(spool ? "spool/" + name : name, size, removed);
+        orphans.incrementAndGet();
+        if (removed) bytesCollected.addAndGet(size);
+    }
+
+    private boolean stillOrphan(String name, String owner, boolean spool) {
+        if (spool) return !itemRepository.existsByPendingImage(name);
+        if (owner == null) return true; // file sementara sisa crash
+        if (itemRepository.existsByImageUrl(owner)) return false;
+        // ref_count > 0 tanpa item pemakai: bocor (rollback setelah increment), atau upload yang sedang diproses
+        // (storeFile sudah, image_url belum). Yang kedua selalu punya item dengan pending_image terisi,
+        // jadi blob tercatat baru dibersihkan saat tidak ada upload yang berjalan.
+        return !imageBlobRepository.existsById(owner) || !itemRepository.existsByPendingImageIsNotNull();
+    }
+
+    private boolean remove(Path dir, String name, String owner, boolean spool) {
+        Path file = dir.resolve(name);
+        try {
+            if (!spool && name.equals(owner)) {
+                imageBlobRepository.forget(name);
+                imageVariantService.deleteVariants(name); // turunan file ini, bisa dibuat ulang
+            }
+            if (quarantine && !spool) {
+                Path target = quarantinePath();
+                Files.createDirectories(target);
+                Files.move(file, target.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+                quarantined.incrementAndGet();
+                return true;
+            }
+            if (!Files.deleteIfExists(file)) return false;
+            deleted.incrementAndGet();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Gagal membersihkan file upload yatim {}: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    // Nama file asli pemilik file ini: varian -> file aslinya, file sementara (.upload-*, .variant-*) -> null
+    static String ownerOf(String name) {
+        if (name.startsWith(".")) return null;
+        Matcher variant = VARIANT.matcher(name);
+        if (!variant.matches()) return name;
+        return variant.group(2) == null ? variant.group(1) : variant.group(1) + variant.group(2);
+    }
+
+    Path quarantinePath() {
+        return quarantineDir == null || quarantineDir.isBlank()
+                ? Paths.get(uploadDir).resolve(".quarantine")
+                : Paths.get(quarantineDir);
+    }
+
+    // Batas stat file per detik dalam satu jalan: tidur kalau sudah mendahului jadwal
+    private final class Throttle {
+        private final long started = clock.getAsLong();
+        private long permits;
+
+        void acquire() throws InterruptedException {
+            if (filesPerSecond <= 0) return;
+            long due = started + permits++ * 1000L / filesPerSecond;
+            long wait = due - clock.getAsLong();
+            if (wait > 0) sleeper.sleep(wait);
+        }
+    }
+
+    // --- COUNTER ---
+    public long getScanned() { return scanned.get(); }
+    public long getOrphans() { return orphans.get(); }
+    public long getDeleted() { return deleted.get(); }
+    public long getQuarantined() { return quarantined.get(); }
+    public long getBytesCollected() { return bytesCollected.get(); }
+
+    // --- UNTUK TEST ---
+    void setClock(LongSupplier clock) { this.clock = clock; }
+    void setSleeper(Sleeper sleeper) { this.sleeper = sleeper; }
+    void setUploadDir(String uploadDir) { this.uploadDir = uploadDir; }
+    void setSpoolDir(String spoolDir) { this.spoolDir = spoolDir; }
+    void setMaxFilesPerRun(int maxFilesPerRun) { this.maxFilesPerRun = maxFilesPerRun; }
+    void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    void setFilesPerSecond(int filesPerSecond) { this.filesPerSecond = filesPerSecond; }
+    void setQuarantine(boolean quarantine) { this.quarantine = quarantine; }
+}
@@ -0,0 +1,58 @@
+package org.delcom.app.services;
+
+import org.delcom.app.configs.QueryContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Evaluasi jumlah query per request (dipanggil RequestLoggingFilter): warning kalau melewati
+// app.query-monitor.max-queries atau ada statement identik yang berulang (kemungkinan N+1).
+@Service
+public class QueryMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMonitor.class);
+
+    @Value("${app.query-monitor.max-queries:20}")
+    private int maxQueries = 20;
+
+    @Value("${app.query-monitor.repeat-threshold:5}")
+    private int repeatThreshold = 5;
+
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+    private final AtomicLong overBudget = new AtomicLong();
+    private final AtomicLong repeated = new AtomicLong();
+
+    public void report(String method, String uri, QueryContext context) {
+        int count = context.getCount();
+        queries.addAndGet(count);
+        queryNanos.addAndGet(context.getNanos());
+
+        if (count > maxQueries) {
+            overBudget.incrementAndGet();
+            log.warn("{} {} menjalankan {} query ({} ms di database), batas {}",
+                    method, uri, count, TimeUnit.NANOSECONDS.toMillis(context.getNanos()), maxQueries);
+        }
+        Map<String, Integer> repeats = context.getRepeated(repeatThreshold);
+        if (!repeats.isEmpty()) {
+            repeated.incrementAndGet();
+            repeats.forEach((sql, n) -> log.warn("Kemungkinan N+1 di {} {}: statement sama dijalankan {}x: {}",
+                    method, uri, n, sql));
+        }
+    }
+
+    // --- COUNTER ---
+    public long getQueries() { return queries.get(); }
+    public long getQueryNanos() { return queryNanos.get(); }
+    public long getOverBudget() { return overBudget.get(); }
+    public long getRepeated() { return repeated.get(); }
+
+    // --- UNTUK TEST ---
+    void setMaxQueries(int maxQueries) { this.maxQueries = maxQueries; }
+    void setRepeatThreshold(int repeatThreshold) { this.repeatThreshold = repeatThreshold; }
+}
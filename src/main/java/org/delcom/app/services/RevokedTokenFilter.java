@@ -0,0 +1,138 @@
+package org.delcom.app.services;
+
+import io.jsonwebtoken.Claims;
+import org.delcom.app.entities.RevokedToken;
+import org.delcom.app.repositories.RevokedTokenRepository;
+import org.delcom.app.utils.BloomFilter;
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.TokenHashUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Daftar token yang sudah di-logout, di memori sebagai Bloom filter atas SHA-256 token.
+// Kasus umum (token tidak pernah di-logout) dijawab tanpa query; hanya kalau filter bilang "mungkin"
+// baru dicek pasti ke tabel revoked_tokens. Diisi ulang dari tabel saat startup dan berkala
+// (RevokedTokenRefreshJob) supaya logout di node lain ikut terbaca. Sebelum rebuild pertama
+// semua pengecekan langsung ke tabel.
+@Service
+public class RevokedTokenFilter {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${app.revoked-filter.expected-tokens:10000}")
+    private long expectedTokens = 10000;
+
+    @Value("${app.revoked-filter.fpp:0.01}")
+    private double fpp = 0.01;
+
+    private volatile BloomFilter filter;
+
+    // Logout di node ini sejak rebuild terakhir dimulai, dimasukkan lagi ke filter hasil rebuild
+    private final Queue<byte[]> recent = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    // true kalau token sudah di-logout
+    public boolean isRevoked(String token) {
+        if (token == null) return false;
+        byte[] hash = TokenHashUtil.sha256(token);
+        String key = TokenHashUtil.encode(hash);
+        BloomFilter f = filter;
+        if (f == null) return revokedTokenRepository.existsById(key); // belum di-rebuild: langsung cek tabel
+
+        checks.incrementAndGet();
+        if (!f.mightContain(hash)) return false;
+
+        positives.incrementAndGet();
+        boolean revoked = revokedTokenRepository.existsById(key);
+        if (!revoked) falsePositives.incrementAndGet();
+        return revoked;
+    }
+
+    // Catat token sebagai di-logout sampai waktu exp-nya. Token yang rusak / sudah kedaluwarsa tidak perlu dicatat.
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) return;
+        Optional<Claims> claims = jwtUtil.validateAndExtract(token);
+        if (claims.isEmpty() || claims.get().getExpiration() == null) return;
+
+        byte[] hash = TokenHashUtil.sha256(token);
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.get().getExpiration().toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(TokenHashUtil.encode(hash), expiresAt, LocalDateTime.now()));
+
+        recent.add(hash);
+        BloomFilter f = filter;
+        if (f != null) f.put(hash);
+    }
+
+    // Bangun filter baru dari tabel (token yang sudah kedaluwarsa ikut terbuang), lalu tukar
+    public synchronized void rebuild() {
+        recent.clear();
+        List<String> hashes = revokedTokenRepository.findActiveHashes(LocalDateTime.now());
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, hashes.size() * 2L), fpp);
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        for (String hash : hashes) {
+            rebuilt.put(decoder.decode(hash));
+        }
+        filter = rebuilt;
+
+        // Logout yang terjadi selama query di atas
+        byte[] hash;
+        while ((hash = recent.poll()) != null) {
+            rebuilt.put(hash);
+        }
+    }
+
+    // Hapus baris yang JWT-nya sudah kedaluwarsa lalu rebuild (dipanggil AuthTokenPurgeJob)
+    public int purgeExpired() {
+        int purged = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        rebuild();
+        return purged;
+    }
+
+    // --- METRIK ---
+    public long getChecks() { return checks.get(); }
+    public long getPositives() { return positives.get(); }
+    public long getFalsePositives() { return falsePositives.get(); }
+
+    // False positive terukur: hit filter yang ternyata tidak ada di tabel / semua token yang tidak di-logout
+    public double getFalsePositiveRate() {
+        long negatives = checks.get() - (positives.get() - falsePositives.get());
+        return negatives <= 0 ? 0.0 : (double) falsePositives.get() / negatives;
+    }
+
+    // Perkiraan teoritis dari isi filter sekarang
+    public double getExpectedFalsePositiveRate() {
+        BloomFilter f = filter;
+        return f == null ? 0.0 : f.expectedFalsePositiveRate();
+    }
+
+    public long getMemoryBytes() {
+        BloomFilter f = filter;
+        return f == null ? 0 : f.getMemoryBytes();
+    }
+
+    public long size() {
+        BloomFilter f = filter;
+        return f == null ? 0 : f.getInsertions();
+    }
+
+    // --- UNTUK TEST ---
+    void setExpectedTokens(long expectedTokens) { this.expectedTokens = expectedTokens; }
+    void setFpp(double fpp) { this.fpp = fpp; }
+}
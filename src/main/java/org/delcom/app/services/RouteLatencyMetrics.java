@@ -0,0 +1,95 @@
+package org.delcom.app.services;
+
+import org.delcom.app.utils.LatencyHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Histogram latensi per route: pola URL yang cocok (mis. /wishlist/{id}), method HTTP dan kelas status (2xx, 4xx, ...).
+// Diisi RequestLoggingFilter, dibaca MetricsService. Setelah kombinasi route pertama kali muncul,
+// record() hanya lookup map + increment, tanpa alokasi objek.
+@Service
+public class RouteLatencyMetrics {
+
+    // Request yang tidak sampai ke handler MVC (mis. redirect security, 404) atau route di atas batas max-routes
+    public static final String UNMATCHED = "UNMATCHED";
+
+    static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "OTHER"};
+    static final String[] STATUS_CLASSES = {"1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    @Value("${app.metrics.max-routes:500}")
+    private int maxRoutes = 500;
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    private static final class Route {
+        private final AtomicReferenceArray<LatencyHistogram> histograms =
+                new AtomicReferenceArray<>(METHODS.length * STATUS_CLASSES.length);
+    }
+
+    // Satu baris hasil baca untuk export
+    public record Series(String route, String method, String statusClass, LatencyHistogram histogram) { }
+
+    public void record(String pattern, String method, int status, long nanos) {
+        Route route = route(pattern == null ? UNMATCHED : pattern);
+        int slot = methodIndex(method) * STATUS_CLASSES.length + statusIndex(status);
+        LatencyHistogram histogram = route.histograms.get(slot);
+        if (histogram == null) {
+            route.histograms.compareAndSet(slot, null, new LatencyHistogram());
+            histogram = route.histograms.get(slot);
+        }
+        histogram.record(nanos);
+    }
+
+    public List<Series> snapshot() {
+        List<Series> series = new ArrayList<>();
+        routes.forEach((pattern, route) -> {
+            for (int slot = 0; slot < route.histograms.length(); slot++) {
+                LatencyHistogram histogram = route.histograms.get(slot);
+                if (histogram != null) {
+                    series.add(new Series(pattern, METHODS[slot / STATUS_CLASSES.length],
+                            STATUS_CLASSES[slot % STATUS_CLASSES.length], histogram));
+                }
+            }
+        });
+        series.sort((a, b) -> a.route().equals(b.route())
+                ? (a.method() + a.statusClass()).compareTo(b.method() + b.statusClass())
+                : a.route().compareTo(b.route()));
+        return series;
+    }
+
+    public int routeCount() { return routes.size(); }
+
+    private Route route(String pattern) {
+        Route route = routes.get(pattern);
+        if (route != null) return route;
+        if (routes.size() >= maxRoutes) pattern = UNMATCHED;
+        return routes.computeIfAbsent(pattern, p -> new Route());
+    }
+
+    static int methodIndex(String method) {
+        if (method == null) return METHODS.length - 1;
+        switch (method) {
+            case "GET": return 0;
+            case "POST": return 1;
+            case "PUT": return 2;
+            case "DELETE": return 3;
+            case "PATCH": return 4;
+            case "HEAD": return 5;
+            case "OPTIONS": return 6;
+            default: return METHODS.length - 1;
+        }
+    }
+
+    static int statusIndex(int status) {
+        return Math.max(0, Math.min(STATUS_CLASSES.length - 1, status / 100 - 1));
+    }
+
+    // --- UNTUK TEST ---
+    void setMaxRoutes(int maxRoutes) { this.maxRoutes = maxRoutes; }
+}
@@ -18,6 +18,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private CurrentUserCache currentUserCache;
+
     // --- 1. UNTUK AUTH CONTROLLER (Register) ---
     public User registerNewUser(User user) {
         // Enkripsi password
@@ -47,6 +50,7 @@ public class UserService {
 
     // --- 4. LOGIKA UPDATE ASLI ---
     public void updateUser(User existingUser, User updatedData) {
+        String oldEmail = existingUser.getEmail();
         existingUser.setName(updatedData.getName());
         existingUser.setEmail(updatedData.getEmail());
         
@@ -61,6 +65,10 @@ public class UserService {
         }
 
         userRepository.save(existingUser);
+
+        // Data di cache getCurrentUser sudah basi (email lama & baru sama-sama dibuang)
+        currentUserCache.invalidate(oldEmail);
+        currentUserCache.invalidate(existingUser.getEmail());
     }
 
     // --- 5. FIND BY EMAIL ---
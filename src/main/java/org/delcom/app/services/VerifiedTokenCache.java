@@ -0,0 +1,133 @@
+package org.delcom.app.services;
+
+import io.jsonwebtoken.Claims;
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.TokenHashUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Cache token JWT yang sudah lolos verifikasi (tanda tangan + belum di-logout, lihat RevokedTokenFilter), dipakai JwtAuthenticationFilter.
+// Key = SHA-256 token (token mentah tidak disimpan), entry berlaku sampai claim "exp" token itu sendiri.
+// Yang dihemat cache hanya verifikasi tanda tangan; cek logout (RevokedTokenFilter) tetap jalan tiap request.
+// Logout (AuthTokenService.removeTokenByToken) langsung meng-evict dan meninggalkan tanda "revoked"
+// supaya verifikasi yang sedang berjalan bersamaan tidak memasukkan token itu lagi.
+@Service
+public class VerifiedTokenCache {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @Value("${app.token-cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    // Lama tanda "revoked" disimpan kalau token belum pernah masuk cache
+    @Value("${app.token-cache.revoked-ttl-seconds:60}")
+    private long revokedTtlSeconds = 60;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // claims == null berarti token sudah di-logout
+    private static final class Entry {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private Entry(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // Kosong kalau token rusak, kedaluwarsa, atau sudah di-logout
+    public Optional<Claims> verify(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        String key = TokenHashUtil.digest(token);
+        long now = clock.getAsLong();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            if (entry.claims == null) return Optional.empty();
+            // Logout di node lain tidak melewati evict() di node ini: Bloom filter (tanpa query kalau negatif)
+            // tetap dicek, jadi logout terbaca paling lambat satu app.revoked-filter.refresh-ms
+            if (revokedTokenFilter.isRevoked(token)) {
+                evict(token);
+                return Optional.empty();
+            }
+            hits.incrementAndGet();
+            return Optional.of(entry.claims);
+        }
+        if (entry != null) entries.remove(key, entry);
+        misses.incrementAndGet();
+
+        Optional<Claims> claims = jwtUtil.validateAndExtract(token)
+                .filter(c -> c.getExpiration() != null)
+                .filter(c -> !revokedTokenFilter.isRevoked(token));
+        claims.ifPresent(c -> put(key, new Entry(c, c.getExpiration().getTime()), now));
+        return claims;
+    }
+
+    public void evict(String token) {
+        if (token == null) return;
+        long now = clock.getAsLong();
+        long revokedUntil = now + revokedTtlSeconds * 1000;
+        entries.compute(TokenHashUtil.digest(token), (k, old) ->
+                new Entry(null, old != null && old.claims != null ? Math.max(old.expiresAt, revokedUntil) : revokedUntil));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    // --- COUNTER ---
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public int size() { return entries.size(); }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    // Tidak menimpa tanda "revoked" yang masih berlaku
+    private void put(String key, Entry entry, long now) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evictOldest(now);
+        }
+        entries.compute(key, (k, old) -> old != null && old.claims == null && old.expiresAt > now ? old : entry);
+    }
+
+    // Buang yang kedaluwarsa; kalau masih penuh, buang entry yang paling cepat kedaluwarsa
+    private void evictOldest(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        while (entries.size() >= maxSize) {
+            String oldest = null;
+            long oldestExpiry = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (e.getValue().expiresAt < oldestExpiry) {
+                    oldestExpiry = e.getValue().expiresAt;
+                    oldest = e.getKey();
+                }
+            }
+            if (oldest == null) return;
+            entries.remove(oldest);
+        }
+    }
+
+    // --- UNTUK TEST ---
+    void setClock(LongSupplier clock) { this.clock = clock; }
+    void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+    void setRevokedTtlSeconds(long revokedTtlSeconds) { this.revokedTtlSeconds = revokedTtlSeconds; }
+}
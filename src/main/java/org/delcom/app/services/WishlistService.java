@@ -1,35 +1,65 @@
 package org.delcom.app.services;
 
 import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.dto.WishlistPage;
 import org.delcom.app.dto.WishlistStats;
 import org.delcom.app.entities.Status;
 import org.delcom.app.entities.User;
 import org.delcom.app.entities.WishlistItem;
 import org.delcom.app.repositories.WishlistItemRepository;
+import org.delcom.app.services.WishlistStatsService.ItemSnapshot;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class WishlistService {
 
     @Autowired private WishlistItemRepository repository;
     @Autowired private FileStorageService fileStorageService; // Panggil Service Gambar
+    @Autowired private ImageUploadProcessor imageUploadProcessor;
+    @Autowired private WishlistStatsService statsService; // Statistik per user (delta)
 
     public List<WishlistItem> getAllItems(User user) {
         return repository.findByUserOrderByCreatedAtDesc(user);
     }
 
-    public WishlistItem findById(UUID id) {
-        return repository.findById(id).orElse(null);
+    // Keyset pagination: cursor null = halaman pertama.
+    // Ambil size + 1 baris untuk tahu apakah masih ada halaman berikutnya.
+    public WishlistPage getItemsPage(User user, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, ConstUtil.WISHLIST_MAX_PAGE_SIZE));
+        PageRequest fetch = PageRequest.of(0, limit + 1);
+
+        List<WishlistItem> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findPageByUser(user, fetch);
+        } else {
+            CursorUtil.Position after = CursorUtil.decode(cursor);
+            rows = repository.findPageByUserAfter(user, after.getCreatedAt(), after.getId(), fetch);
+        }
+
+        if (rows.size() <= limit) {
+            return new WishlistPage(rows, null);
+        }
+        List<WishlistItem> items = rows.subList(0, limit);
+        WishlistItem last = items.get(limit - 1);
+        return new WishlistPage(items, CursorUtil.encode(last.getCreatedAt(), last.getId()));
     }
 
+    // Satu query (id, user): null kalau item tidak ada atau milik user lain
+    public WishlistItem findByIdForUser(UUID id, User user) {
+        return repository.findByIdAndUser(id, user).orElse(null);
+    }
+
+    @Transactional(rollbackOn = Exception.class)
     public void addItem(User user, WishlistForm form) throws IOException {
         WishlistItem item = new WishlistItem();
         item.setUser(user);
@@ -37,30 +67,42 @@ public class WishlistService {
         item.setStatus(Status.PENDING);
         checkAutoStatus(item, form);
 
-        // Save dulu untuk generate UUID
+        // Gambar cukup dipindah ke folder spool; disimpan & di-set ke imageUrl di background setelah commit
+        String pendingImage = spoolImage(form);
+        item.setPendingImage(pendingImage);
         item = repository.save(item);
-
-        // Upload Gambar menggunakan FileStorageService yang sudah diperbaiki
-        if (form.getImageFile() != null && !form.getImageFile().isEmpty()) {
-            String fileName = fileStorageService.storeFile(form.getImageFile(), item.getId());
-            item.setImageUrl(fileName);
-            repository.save(item); // Update nama file di DB
+        if (pendingImage != null) {
+            imageUploadProcessor.schedule(item.getId(), pendingImage);
         }
+
+        statsService.applyChange(user, null, ItemSnapshot.of(item));
     }
 
+    @Transactional(rollbackOn = Exception.class)
     public void updateItem(User user, WishlistForm form) throws IOException {
-        WishlistItem item = repository.findById(form.getId())
+        WishlistItem item = repository.findByIdAndUser(form.getId(), user)
                 .orElseThrow(() -> new RuntimeException("Item not found"));
+        ItemSnapshot before = ItemSnapshot.of(item);
 
         mapFormToItem(item, form);
         checkAutoStatus(item, form);
 
-        if (form.getImageFile() != null && !form.getImageFile().isEmpty()) {
-            // Hapus file lama jika perlu (opsional), lalu upload baru
-            String fileName = fileStorageService.storeFile(form.getImageFile(), item.getId());
-            item.setImageUrl(fileName);
+        // Gambar lama tetap tampil sampai gambar baru selesai diproses (lihat ImageUploadProcessor)
+        String pendingImage = spoolImage(form);
+        if (pendingImage != null) {
+            item.setPendingImage(pendingImage);
         }
         repository.save(item);
+        if (pendingImage != null) {
+            imageUploadProcessor.schedule(item.getId(), pendingImage);
+        }
+
+        statsService.applyChange(user, before, ItemSnapshot.of(item));
+    }
+
+    private String spoolImage(WishlistForm form) throws IOException {
+        if (form.getImageFile() == null || form.getImageFile().isEmpty()) return null;
+        return imageUploadProcessor.spool(form.getImageFile());
     }
 
     private void mapFormToItem(WishlistItem item, WishlistForm form) {
@@ -81,60 +123,34 @@ public class WishlistService {
         }
     }
 
-    public void changeStatus(UUID itemId) {
-        WishlistItem item = repository.findById(itemId).orElseThrow();
+    @Transactional
+    public void changeStatus(User user, UUID itemId) {
+        WishlistItem item = repository.findByIdAndUser(itemId, user).orElseThrow();
+        ItemSnapshot before = ItemSnapshot.of(item);
         item.setStatus(item.getStatus() == Status.PENDING ? Status.BOUGHT : Status.PENDING);
         repository.save(item);
+        statsService.applyChange(user, before, ItemSnapshot.of(item));
     }
     
-    public void deleteItem(UUID id) {
-        // Hapus gambarnya juga biar bersih (opsional)
-        repository.findById(id).ifPresent(item -> {
+    @Transactional
+    public void deleteItem(User user, UUID id) {
+        // Lepas referensi gambarnya; file baru dihapus kalau tidak dipakai item lain
+        repository.findByIdAndUser(id, user).ifPresent(item -> {
              if (item.getImageUrl() != null) {
                  fileStorageService.deleteFile(item.getImageUrl());
              }
-             repository.deleteById(id);
+             // delete(entity), bukan deleteById: entity sudah di-load, tidak perlu SELECT lagi
+             repository.delete(item);
+             statsService.applyChange(user, ItemSnapshot.of(item), null);
         });
     }
 
-    public long countPending(User user) { return repository.countByUserAndStatus(user, Status.PENDING); }
-    public long countBought(User user) { return repository.countByUserAndStatus(user, Status.BOUGHT); }
+    public long countPending(User user) { return statsService.countByStatus(user, Status.PENDING); }
+    public long countBought(User user) { return statsService.countByStatus(user, Status.BOUGHT); }
 
     // --- LOGIKA UTAMA UNTUK CHART ---
+    // Dibaca dari tabel statistik yang di-update tiap ada perubahan item (lihat WishlistStatsService)
     public WishlistStats getStats(User user) {
-        List<WishlistItem> allItems = getAllItems(user);
-        WishlistStats stats = new WishlistStats();
-
-        // 1. Hitung Jumlah Item
-        stats.setTotalWishlist(allItems.stream().filter(i -> i.getStatus() == Status.PENDING).count());
-        stats.setTotalPurchased(allItems.stream().filter(i -> i.getStatus() == Status.BOUGHT).count());
-
-        // 2. Hitung Total Uang (Reduce)
-        stats.setTotalPriceWishlist(allItems.stream()
-                .filter(i -> i.getStatus() == Status.PENDING && i.getPrice() != null)
-                .map(WishlistItem::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-
-        stats.setTotalPricePurchased(allItems.stream()
-                .filter(i -> i.getStatus() == Status.BOUGHT && i.getPrice() != null)
-                .map(WishlistItem::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-
-        // 3. Grouping Kategori (Jumlah Item)
-        Map<String, Long> catCount = allItems.stream()
-                .filter(i -> i.getCategory() != null)
-                .collect(Collectors.groupingBy(WishlistItem::getCategory, Collectors.counting()));
-        stats.setCountByCategory(catCount);
-
-        // 4. Grouping Kategori (Total Harga)
-        Map<String, BigDecimal> catPrice = allItems.stream()
-                .filter(i -> i.getCategory() != null && i.getPrice() != null)
-                .collect(Collectors.groupingBy(
-                        WishlistItem::getCategory,
-                        Collectors.reducing(BigDecimal.ZERO, WishlistItem::getPrice, BigDecimal::add)
-                ));
-        stats.setPriceByCategory(catPrice);
-
-        return stats;
+        return statsService.getStats(user);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,306 @@
+package org.delcom.app.services;
+
+import jakarta.transaction.Transactional;
+import org.delcom.app.dto.StatsDriftReport;
+import org.delcom.app.dto.WishlistStats;
+import org.delcom.app.dto.WishlistStatsRow;
+import org.delcom.app.entities.Status;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.WishlistCategoryStats;
+import org.delcom.app.entities.WishlistItem;
+import org.delcom.app.entities.WishlistUserStats;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WishlistCategoryStatsRepository;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.delcom.app.repositories.WishlistUserStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+// Menjaga tabel wishlist_user_stats & wishlist_category_stats.
+// Setiap perubahan item dikirim sebagai pasangan (sebelum, sesudah) lalu diterapkan sebagai delta,
+// jadi baca statistik cukup O(jumlah kategori), bukan O(jumlah item).
+// Semua penulis statistik satu user mengunci baris wishlist_user_stats-nya dulu (UPDATE delta atau
+// findForUpdate di rebuild), jadi pembuatan baris kategori baru tidak pernah balapan antar transaksi.
+@Service
+@Transactional
+public class WishlistStatsService {
+
+    private static final int VERIFY_PAGE_SIZE = 500;
+
+    @Autowired private WishlistItemRepository itemRepository;
+    @Autowired private WishlistUserStatsRepository userStatsRepository;
+    @Autowired private WishlistCategoryStatsRepository categoryStatsRepository;
+    @Autowired private UserRepository userRepository;
+
+    // --- SNAPSHOT KONTRIBUSI SATU ITEM KE STATISTIK ---
+    public static final class ItemSnapshot {
+        private final Status status;
+        private final String category;
+        private final BigDecimal price;
+
+        public ItemSnapshot(Status status, String category, BigDecimal price) {
+            this.status = status;
+            this.category = category;
+            this.price = price;
+        }
+
+        public static ItemSnapshot of(WishlistItem item) {
+            return new ItemSnapshot(item.getStatus(), item.getCategory(), item.getPrice());
+        }
+
+        public Status getStatus() { return status; }
+        public String getCategory() { return category; }
+        public BigDecimal getPrice() { return price; }
+    }
+
+    // --- 1. BACA STATISTIK (O(kategori)) ---
+    public WishlistStats getStats(User user) {
+        WishlistUserStats row = computed(user);
+        if (row == null) {
+            // User lama yang belum punya baris statistik: hitung sekali lalu simpan
+            return rebuild(user);
+        }
+        return toStats(row, categoryStatsRepository.findByUserId(user.getId()));
+    }
+
+    public long countByStatus(User user, Status status) {
+        WishlistUserStats row = computed(user);
+        if (row == null) {
+            WishlistStats stats = rebuild(user);
+            return status == Status.BOUGHT ? stats.getTotalPurchased() : stats.getTotalWishlist();
+        }
+        return status == Status.BOUGHT ? row.getBoughtCount() : row.getPendingCount();
+    }
+
+    // --- 2. TERAPKAN PERUBAHAN ITEM SEBAGAI DELTA ---
+    // before == null berarti item baru, after == null berarti item dihapus
+    public void applyChange(User user, ItemSnapshot before, ItemSnapshot after) {
+        UUID userId = user.getId();
+        long pendingCount = 0, boughtCount = 0;
+        BigDecimal pendingTotal = BigDecimal.ZERO, boughtTotal = BigDecimal.ZERO;
+        Map<String, long[]> catCounts = new HashMap<>();
+        Map<String, BigDecimal> catTotals = new HashMap<>();
+
+        ItemSnapshot[] snapshots = {before, after};
+        for (int i = 0; i < snapshots.length; i++) {
+            ItemSnapshot snap = snapshots[i];
+            if (snap == null) continue;
+            int sign = i == 0 ? -1 : 1;
+            BigDecimal price = snap.getPrice() == null ? BigDecimal.ZERO : snap.getPrice();
+            BigDecimal signedPrice = sign < 0 ? price.negate() : price;
+
+            if (snap.getStatus() == Status.BOUGHT) {
+                boughtCount += sign;
+                boughtTotal = boughtTotal.add(signedPrice);
+            } else if (snap.getStatus() == Status.PENDING) {
+                pendingCount += sign;
+                pendingTotal = pendingTotal.add(signedPrice);
+            }
+
+            if (snap.getCategory() != null) {
+                long[] counts = catCounts.computeIfAbsent(snap.getCategory(), k -> new long[2]);
+                counts[0] += sign;
+                if (snap.getPrice() != null) counts[1] += sign;
+                catTotals.merge(snap.getCategory(), signedPrice, BigDecimal::add);
+            }
+        }
+
+        int updated = userStatsRepository.applyDelta(userId, pendingCount, boughtCount, pendingTotal, boughtTotal);
+        if (updated == 0) {
+            // Belum ada baris: hitung ulang dari wishlist_items (perubahan ini sudah ikut terhitung)
+            rebuild(user);
+            return;
+        }
+
+        for (Map.Entry<String, long[]> entry : catCounts.entrySet()) {
+            String category = entry.getKey();
+            long[] counts = entry.getValue();
+            BigDecimal total = catTotals.get(category);
+            if (counts[0] == 0 && counts[1] == 0 && total.signum() == 0) continue;
+
+            int catUpdated = categoryStatsRepository.applyDelta(userId, category, counts[0], counts[1], total);
+            if (catUpdated == 0 && counts[0] > 0) {
+                // Aman: baris user sudah terkunci applyDelta di atas sampai commit
+                WishlistCategoryStats cat = new WishlistCategoryStats(userId, category);
+                cat.setItemCount(counts[0]);
+                cat.setPricedCount(counts[1]);
+                cat.setTotalPrice(total);
+                categoryStatsRepository.save(cat);
+            }
+        }
+        categoryStatsRepository.deleteEmptyByUserId(userId);
+    }
+
+    // --- 3. HITUNG ULANG DARI NOL ---
+    public WishlistStats rebuild(User user) {
+        UUID userId = user.getId();
+        // Kunci dulu baru agregasi: transaksi lain yang menunggu kunci ini melihat item kita setelah commit
+        WishlistUserStats row = lockRow(userId);
+        List<WishlistStatsRow> rows = itemRepository.aggregateStatsByUser(user);
+
+        row.setUpdatedAt(LocalDateTime.now());
+        row.setPendingCount(0);
+        row.setBoughtCount(0);
+        row.setPendingTotal(BigDecimal.ZERO);
+        row.setBoughtTotal(BigDecimal.ZERO);
+
+        Map<String, WishlistCategoryStats> categories = new HashMap<>();
+        for (WishlistStatsRow r : rows) {
+            BigDecimal sum = r.getTotalPrice() == null ? BigDecimal.ZERO : r.getTotalPrice();
+            if (r.getStatus() == Status.PENDING) {
+                row.setPendingCount(row.getPendingCount() + r.getItemCount());
+                row.setPendingTotal(row.getPendingTotal().add(sum));
+            } else if (r.getStatus() == Status.BOUGHT) {
+                row.setBoughtCount(row.getBoughtCount() + r.getItemCount());
+                row.setBoughtTotal(row.getBoughtTotal().add(sum));
+            }
+            if (r.getCategory() != null) {
+                WishlistCategoryStats cat = categories.computeIfAbsent(r.getCategory(),
+                        c -> new WishlistCategoryStats(userId, c));
+                cat.setItemCount(cat.getItemCount() + r.getItemCount());
+                cat.setPricedCount(cat.getPricedCount() + r.getPricedCount());
+                cat.setTotalPrice(cat.getTotalPrice().add(sum));
+            }
+        }
+
+        userStatsRepository.save(row);
+        categoryStatsRepository.deleteByUserId(userId);
+        categoryStatsRepository.saveAll(categories.values());
+
+        return toStats(row, List.copyOf(categories.values()));
+    }
+
+    // Baris user yang terkunci; dibuat kosong dulu kalau belum ada. Dua transaksi yang sama-sama membuat
+    // baris pertama tidak lagi bentrok di primary key saat commit: yang kalah cukup menunggu kunci.
+    private WishlistUserStats lockRow(UUID userId) {
+        WishlistUserStats row = userStatsRepository.findForUpdate(userId).orElse(null);
+        if (row != null) return row;
+        try {
+            userStatsRepository.insertEmpty(userId);
+        } catch (DataIntegrityViolationException e) {
+            // Sudah dibuat transaksi lain
+        }
+        return userStatsRepository.findForUpdate(userId).orElseThrow();
+    }
+
+    // Baris statistik yang sudah pernah dihitung; baris kosong dari lockRow (transaksinya gagal) dianggap belum ada
+    private WishlistUserStats computed(User user) {
+        WishlistUserStats row = userStatsRepository.findById(user.getId()).orElse(null);
+        return row == null || row.getUpdatedAt() == null ? null : row;
+    }
+
+    // Statistik langsung dari wishlist_items (GROUP BY status, category), dipakai rebuild & verifikasi
+    public WishlistStats computeFromItems(User user) {
+        List<WishlistStatsRow> rows = itemRepository.aggregateStatsByUser(user);
+        WishlistStats stats = new WishlistStats();
+
+        long totalWishlist = 0;
+        long totalPurchased = 0;
+        BigDecimal totalPriceWishlist = BigDecimal.ZERO;
+        BigDecimal totalPricePurchased = BigDecimal.ZERO;
+        Map<String, Long> catCount = new HashMap<>();
+        Map<String, BigDecimal> catPrice = new HashMap<>();
+
+        for (WishlistStatsRow row : rows) {
+            BigDecimal sum = row.getTotalPrice();
+
+            // 1. Jumlah Item & Total Uang per Status
+            if (row.getStatus() == Status.PENDING) {
+                totalWishlist += row.getItemCount();
+                if (sum != null) totalPriceWishlist = totalPriceWishlist.add(sum);
+            } else if (row.getStatus() == Status.BOUGHT) {
+                totalPurchased += row.getItemCount();
+                if (sum != null) totalPricePurchased = totalPricePurchased.add(sum);
+            }
+
+            // 2. Grouping Kategori (item tanpa kategori tidak dihitung)
+            if (row.getCategory() != null) {
+                catCount.merge(row.getCategory(), row.getItemCount(), Long::sum);
+                if (sum != null) catPrice.merge(row.getCategory(), sum, BigDecimal::add);
+            }
+        }
+
+        stats.setTotalWishlist(totalWishlist);
+        stats.setTotalPurchased(totalPurchased);
+        stats.setTotalPriceWishlist(totalPriceWishlist);
+        stats.setTotalPricePurchased(totalPricePurchased);
+        stats.setCountByCategory(catCount);
+        stats.setPriceByCategory(catPrice);
+
+        return stats;
+    }
+
+    // --- 4. VERIFIKASI (& PERBAIKI) SEMUA USER ---
+    public StatsDriftReport verifyAll(boolean repair) {
+        StatsDriftReport report = new StatsDriftReport();
+        report.setRepaired(repair);
+
+        int page = 0;
+        Page<User> users;
+        do {
+            users = userRepository.findAll(PageRequest.of(page++, VERIFY_PAGE_SIZE));
+            for (User user : users) {
+                report.recordChecked();
+                if (!matches(user)) {
+                    report.recordDrift(user.getId());
+                    if (repair) rebuild(user);
+                }
+            }
+        } while (users.hasNext());
+
+        return report;
+    }
+
+    // true kalau baris statistik yang tersimpan sama dengan hasil hitung ulang
+    public boolean matches(User user) {
+        WishlistUserStats row = computed(user);
+        WishlistStats expected = computeFromItems(user);
+        if (row == null) {
+            // Tidak punya baris statistik hanya wajar kalau memang belum punya item
+            return expected.getTotalWishlist() == 0 && expected.getTotalPurchased() == 0;
+        }
+        return sameStats(expected, toStats(row, categoryStatsRepository.findByUserId(user.getId())));
+    }
+
+    private WishlistStats toStats(WishlistUserStats row, List<WishlistCategoryStats> categories) {
+        WishlistStats stats = new WishlistStats();
+        stats.setTotalWishlist(row.getPendingCount());
+        stats.setTotalPurchased(row.getBoughtCount());
+        stats.setTotalPriceWishlist(row.getPendingTotal());
+        stats.setTotalPricePurchased(row.getBoughtTotal());
+
+        Map<String, Long> catCount = new HashMap<>();
+        Map<String, BigDecimal> catPrice = new HashMap<>();
+        for (WishlistCategoryStats cat : categories) {
+            if (cat.getItemCount() > 0) catCount.put(cat.getCategory(), cat.getItemCount());
+            if (cat.getPricedCount() > 0) catPrice.put(cat.getCategory(), cat.getTotalPrice());
+        }
+        stats.setCountByCategory(catCount);
+        stats.setPriceByCategory(catPrice);
+        return stats;
+    }
+
+    private boolean sameStats(WishlistStats a, WishlistStats b) {
+        if (a.getTotalWishlist() != b.getTotalWishlist()) return false;
+        if (a.getTotalPurchased() != b.getTotalPurchased()) return false;
+        if (a.getTotalPriceWishlist().compareTo(b.getTotalPriceWishlist()) != 0) return false;
+        if (a.getTotalPricePurchased().compareTo(b.getTotalPricePurchased()) != 0) return false;
+        if (!Objects.equals(a.getCountByCategory(), b.getCountByCategory())) return false;
+        if (!a.getPriceByCategory().keySet().equals(b.getPriceByCategory().keySet())) return false;
+        for (Map.Entry<String, BigDecimal> e : a.getPriceByCategory().entrySet()) {
+            if (e.getValue().compareTo(b.getPriceByCategory().get(e.getKey())) != 0) return false;
+        }
+        return true;
+    }
+}
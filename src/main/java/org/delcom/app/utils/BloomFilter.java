@@ -0,0 +1,74 @@
+package org.delcom.app.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter thread-safe di atas hash yang sudah jadi (mis. SHA-256 token, minimal 16 byte).
+ * mightContain false = pasti belum pernah di-put; true = mungkin (bisa false positive).
+ * Tidak bisa menghapus elemen: untuk membuang elemen lama, bangun filter baru.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    // Ukuran optimal untuk expectedInsertions elemen dengan target false positive rate fpp
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions < 1) expectedInsertions = 1;
+        if (fpp <= 0 || fpp >= 1) throw new IllegalArgumentException("fpp harus di antara 0 dan 1");
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(byte[] hash) {
+        long h1 = readLong(hash, 0);
+        long h2 = readLong(hash, 8);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) break;
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(byte[] hash) {
+        long h1 = readLong(hash, 0);
+        long h2 = readLong(hash, 8);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+        }
+        return true;
+    }
+
+    // Perkiraan false positive rate dengan isi sekarang: (1 - e^(-k*n/m))^k
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bitCount), hashCount);
+    }
+
+    public long getInsertions() { return insertions.get(); }
+    public long getBitCount() { return bitCount; }
+    public int getHashCount() { return hashCount; }
+
+    // Ukuran array bit (byte)
+    public long getMemoryBytes() { return bits.length() * 8L; }
+
+    private static long readLong(byte[] hash, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (hash[offset + i] & 0xFF);
+        }
+        return value;
+    }
+}
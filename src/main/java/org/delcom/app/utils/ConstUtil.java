@@ -26,6 +26,14 @@ public class ConstUtil {
     public static final String UPLOAD_DIR = "src/main/resources/static/uploads/";
     public static final String UPLOAD_URL = "/uploads/";
 
+    // === AUTH COOKIE (JWT) ===
+    public static final String AUTH_COOKIE_NAME = "token";
+    public static final int AUTH_COOKIE_MAX_AGE = 3600; // 1 Jam
+
+    // === PAGINATION ===
+    public static final int WISHLIST_PAGE_SIZE = 12;
+    public static final int WISHLIST_MAX_PAGE_SIZE = 50;
+
     // === MESSAGE FLASH ===
     public static final String FLASH_SUCCESS = "success";
     public static final String FLASH_ERROR = "error";
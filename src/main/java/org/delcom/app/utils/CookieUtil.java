@@ -0,0 +1,37 @@
+package org.delcom.app.utils;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+
+// Cookie JWT "token": dibuat saat login, dibaca JwtAuthenticationFilter (mode stateless)
+public class CookieUtil {
+
+    public static Cookie authCookie(String token) {
+        Cookie cookie = new Cookie(ConstUtil.AUTH_COOKIE_NAME, token);
+        cookie.setHttpOnly(true);
+        cookie.setPath("/");
+        cookie.setMaxAge(ConstUtil.AUTH_COOKIE_MAX_AGE);
+        return cookie;
+    }
+
+    public static Cookie clearAuthCookie() {
+        Cookie cookie = new Cookie(ConstUtil.AUTH_COOKIE_NAME, null);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(0);
+        return cookie;
+    }
+
+    // null kalau request tidak membawa cookie token
+    public static String readAuthToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+        for (Cookie cookie : cookies) {
+            if (ConstUtil.AUTH_COOKIE_NAME.equals(cookie.getName()) && cookie.getValue() != null
+                    && !cookie.getValue().isBlank()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package org.delcom.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+// Encode/decode cursor keyset pagination: posisi (createdAt, id) item terakhir di halaman
+public class CursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    public static class Position {
+        private final LocalDateTime createdAt;
+        private final UUID id;
+
+        public Position(LocalDateTime createdAt, UUID id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public UUID getId() { return id; }
+    }
+
+    public static String encode(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Lempar IllegalArgumentException kalau cursor rusak / dimanipulasi
+    public static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(SEPARATOR);
+            if (sep < 0) throw new IllegalArgumentException("Invalid cursor");
+            return new Position(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
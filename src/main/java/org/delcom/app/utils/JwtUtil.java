@@ -1,16 +1,20 @@
 package org.delcom.app.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -23,9 +27,37 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}")
     private Long expiration;
 
+    // Key & parser dibuat sekali lalu dipakai ulang (keduanya immutable & thread-safe).
+    // Dibuat lazy karena secret baru terisi setelah konstruktor (@Value / ReflectionTestUtils).
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+
     private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key key = signingKey;
+        if (key == null) {
+            synchronized (this) {
+                key = signingKey;
+                if (key == null) {
+                    key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+                    signingKey = key;
+                }
+            }
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser p = parser;
+        if (p == null) {
+            synchronized (this) {
+                p = parser;
+                if (p == null) {
+                    p = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+                    parser = p;
+                }
+            }
+        }
+        return p;
     }
 
     public String extractUsername(String token) {
@@ -45,16 +77,29 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Parsing sekaligus verifikasi tanda tangan & expiration (lempar JwtException kalau gagal)
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getParser().parseClaimsJws(token).getBody();
+    }
+
+    // --- VALIDASI + AMBIL CLAIM (SEKALI PARSE) ---
+    // Kosong kalau token rusak, tanda tangan salah, atau kedaluwarsa
+    public Optional<Claims> validateAndExtract(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        try {
+            return Optional.of(extractAllClaims(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Masa berlaku token baru (ms), dipakai juga untuk kolom auth_tokens.expires_at
+    public long getExpirationMillis() {
+        return expiration;
     }
 
     // Generate token dengan String username
@@ -95,16 +140,12 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return validateToken(token, username, true);
     }
 
     public Boolean validateToken(String token, String username, boolean checkExpiration) {
-        final String extractedUsername = extractUsername(token);
-        if (checkExpiration) {
-            return (extractedUsername.equals(username) && !isTokenExpired(token));
-        } else {
-            return extractedUsername.equals(username);
-        }
+        final Claims claims = extractAllClaims(token);
+        if (!claims.getSubject().equals(username)) return false;
+        return !checkExpiration || !isExpired(claims);
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package org.delcom.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+// SHA-256 token: dipakai sebagai key cache / tabel revoked_tokens supaya token mentah tidak disimpan
+public class TokenHashUtil {
+
+    private TokenHashUtil() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    // Base64url tanpa padding (43 karakter)
+    public static String encode(byte[] hash) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    public static String digest(String token) {
+        return encode(sha256(token));
+    }
+}
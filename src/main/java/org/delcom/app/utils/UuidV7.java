@@ -0,0 +1,55 @@
+package org.delcom.app.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * UUID versi 7 (RFC 9562): 48 bit waktu Unix (ms) + 12 bit counter + 62 bit acak.
+ * Nilainya naik terus sesuai waktu, jadi insert ke index B-tree selalu di ujung kanan
+ * (tidak tersebar acak seperti UUID v4). Dalam satu JVM hasilnya dijamin monoton naik.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+
+    private static long lastMillis = -1;
+    private static int counter;
+
+    private UuidV7() {}
+
+    public static UUID generate() {
+        long millis;
+        int seq;
+        synchronized (UuidV7.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // Mulai dari nilai acak kecil supaya masih ada ruang naik di ms yang sama
+                counter = RANDOM.nextInt(1 << (COUNTER_BITS - 1));
+            } else if (counter < COUNTER_MAX) {
+                // Jam sama / mundur: tetap pakai lastMillis, naikkan counter
+                counter++;
+            } else {
+                // Counter habis dalam 1 ms: pinjam milidetik berikutnya
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            seq = counter;
+        }
+
+        long msb = (millis << 16) | (0x7L << 12) | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    // Waktu pembuatan (ms sejak epoch) dari UUID v7
+    public static long timestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Bukan UUID v7: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,54 @@
+-- Skema awal, sama dengan yang dulu dibuat Hibernate (ddl-auto=update).
+-- Pakai IF NOT EXISTS supaya database lama yang tabelnya sudah ada ikut ter-baseline tanpa error.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          UUID         NOT NULL PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL UNIQUE,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(255),
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS auth_tokens (
+    id          UUID         NOT NULL PRIMARY KEY,
+    token       VARCHAR(255),
+    user_id     UUID,
+    created_at  TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS wishlist_items (
+    id            UUID          NOT NULL PRIMARY KEY,
+    user_id       UUID          NOT NULL REFERENCES users (id),
+    name          VARCHAR(255)  NOT NULL,
+    price         NUMERIC(38,2),
+    saved_amount  NUMERIC(38,2),
+    category      VARCHAR(255),
+    target_date   DATE,
+    shop_url      VARCHAR(2048),
+    description   TEXT,
+    image_url     VARCHAR(255),
+    status        VARCHAR(255),
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS wishlist_user_stats (
+    user_id        UUID          NOT NULL PRIMARY KEY,
+    pending_count  BIGINT        NOT NULL,
+    bought_count   BIGINT        NOT NULL,
+    pending_total  NUMERIC(38,2) NOT NULL,
+    bought_total   NUMERIC(38,2) NOT NULL,
+    updated_at     TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS wishlist_category_stats (
+    id            UUID          NOT NULL PRIMARY KEY,
+    user_id       UUID          NOT NULL,
+    category      VARCHAR(255)  NOT NULL,
+    item_count    BIGINT        NOT NULL,
+    priced_count  BIGINT        NOT NULL,
+    total_price   NUMERIC(38,2) NOT NULL,
+    UNIQUE (user_id, category)
+);
@@ -0,0 +1,23 @@
+-- Index untuk query utama (lihat WishlistItemRepository, AuthTokenRepository, UserRepository).
+
+-- Dashboard & keyset pagination: WHERE user_id = ? ORDER BY created_at DESC, id DESC
+CREATE INDEX IF NOT EXISTS idx_wishlist_items_user_created
+    ON wishlist_items (user_id, created_at DESC, id DESC);
+
+-- countByUserAndStatus & agregasi statistik
+CREATE INDEX IF NOT EXISTS idx_wishlist_items_user_status
+    ON wishlist_items (user_id, status);
+
+-- Filter / grouping per kategori
+CREATE INDEX IF NOT EXISTS idx_wishlist_items_user_category
+    ON wishlist_items (user_id, category);
+
+-- findByToken / deleteByToken. Buang duplikat lama dulu supaya unique index bisa dibuat.
+DELETE FROM auth_tokens a
+ WHERE EXISTS (SELECT 1 FROM auth_tokens b WHERE b.token = a.token AND b.id < a.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_auth_tokens_token
+    ON auth_tokens (token);
+
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_user
+    ON auth_tokens (user_id);
@@ -0,0 +1,12 @@
+-- Masa berlaku token disimpan di tabel supaya baris kedaluwarsa bisa dibersihkan (lihat AuthTokenService.purgeExpired).
+
+ALTER TABLE auth_tokens ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP(6);
+
+-- Baris lama: anggap berlaku 1 hari sejak dibuat (default jwt.expiration)
+UPDATE auth_tokens
+   SET expires_at = COALESCE(created_at, CURRENT_TIMESTAMP) + INTERVAL '1' DAY
+ WHERE expires_at IS NULL;
+
+-- Purge: WHERE expires_at < ? ORDER BY expires_at
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_expires
+    ON auth_tokens (expires_at);
@@ -0,0 +1,11 @@
+-- Token yang dicabut saat logout (SHA-256 base64url, bukan token mentah), sumber RevokedTokenFilter.
+-- Baris boleh dihapus setelah expires_at karena JWT-nya sendiri sudah tidak berlaku.
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_hash  VARCHAR(64)   NOT NULL PRIMARY KEY,
+    expires_at  TIMESTAMP(6)  NOT NULL,
+    revoked_at  TIMESTAMP(6)  NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires
+    ON revoked_tokens (expires_at);
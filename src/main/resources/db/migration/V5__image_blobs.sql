@@ -0,0 +1,10 @@
+-- Blob gambar content-addressed (nama file = SHA-256 isi + ekstensi), lihat FileStorageService.
+-- ref_count = jumlah wishlist_items.image_url yang menunjuk ke blob ini; baris dan file dihapus saat 0.
+-- File lama item_<uuid><ext> tidak punya baris di sini dan dihapus langsung seperti sebelumnya.
+
+CREATE TABLE IF NOT EXISTS image_blobs (
+    filename    VARCHAR(80)   NOT NULL PRIMARY KEY,
+    size_bytes  BIGINT        NOT NULL,
+    ref_count   INTEGER       NOT NULL,
+    created_at  TIMESTAMP(6)  NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Upload gambar yang masih diproses di background (nama file di folder spool, lihat ImageUploadProcessor).
+-- NULL = tidak ada upload yang sedang diproses; image_url tetap gambar lama sampai proses selesai.
+
+ALTER TABLE wishlist_items ADD COLUMN IF NOT EXISTS pending_image VARCHAR(80);
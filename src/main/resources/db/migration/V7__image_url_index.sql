@@ -0,0 +1,3 @@
+-- Pengecekan referensi gambar per batch oleh OrphanUploadCollector: WHERE image_url IN (...)
+CREATE INDEX IF NOT EXISTS idx_wishlist_items_image_url
+    ON wishlist_items (image_url);
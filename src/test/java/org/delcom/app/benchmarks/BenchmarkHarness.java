@@ -0,0 +1,135 @@
+package org.delcom.app.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.delcom.app.utils.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Pengganti kecil JMH (tidak tersedia di build ini) untuk benchmark bertag "benchmark":
+ * pemanasan lalu pengukuran berbasis waktu, latensi tiap operasi masuk LatencyHistogram,
+ * hasil ditulis ke target/benchmark-results/&lt;nama&gt;.json supaya bisa dibandingkan antar rilis.
+ *
+ * Opsi (system property):
+ *   benchmark.warmup-ms / benchmark.measure-ms  lama pemanasan & pengukuran per benchmark (default 1000 / 3000)
+ *   benchmark.baseline                          file JSON hasil sebelumnya; throughput dibandingkan per benchmark
+ *   benchmark.max-regression                    gagal kalau throughput turun lebih dari ini (default 0.25 = 25%)
+ */
+final class BenchmarkHarness {
+
+    @FunctionalInterface
+    interface Op {
+        Object run() throws Exception;
+    }
+
+    // Satu baris hasil; params = ukuran dataset dsb, ikut jadi kunci saat dibandingkan dengan baseline
+    record Result(String benchmark, Map<String, Object> params, long operations,
+                  double opsPerSecond, double meanMicros, double p50Micros, double p99Micros, double maxMicros) {
+
+        String key() {
+            return benchmark + params;
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String suite;
+    private final long warmupNanos = Long.getLong("benchmark.warmup-ms", 1000) * 1_000_000;
+    private final long measureNanos = Long.getLong("benchmark.measure-ms", 3000) * 1_000_000;
+    private final List<Result> results = new ArrayList<>();
+    private int sink;
+
+    BenchmarkHarness(String suite) {
+        this.suite = suite;
+    }
+
+    Result run(String benchmark, Map<String, Object> params, Op op) throws Exception {
+        runFor(warmupNanos, op, null);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        long elapsed = runFor(measureNanos, op, histogram);
+
+        long operations = histogram.getCount();
+        Result result = new Result(benchmark, new LinkedHashMap<>(params), operations,
+                operations / (elapsed / 1_000_000_000.0),
+                histogram.getSum() / 1000.0 / Math.max(1, operations),
+                histogram.valueAtPercentile(50) / 1000.0,
+                histogram.valueAtPercentile(99) / 1000.0,
+                histogram.getMax() / 1000.0);
+        results.add(result);
+        return result;
+    }
+
+    private long runFor(long budgetNanos, Op op, LatencyHistogram histogram) throws Exception {
+        long start = System.nanoTime();
+        long now = start;
+        do {
+            long before = now;
+            Object value = op.run();
+            now = System.nanoTime();
+            if (histogram != null) histogram.record(now - before);
+            sink += value == null ? 0 : value.hashCode(); // supaya hasil tidak dibuang JIT
+        } while (now - start < budgetNanos);
+        return now - start;
+    }
+
+    // Cetak tabel, tulis JSON, lalu bandingkan dengan baseline kalau ada
+    void report() throws IOException {
+        System.out.println();
+        System.out.printf("%-34s %-22s %12s %12s %12s %12s%n", "benchmark", "params", "ops/s", "mean (us)", "p50 (us)", "p99 (us)");
+        for (Result r : results) {
+            System.out.printf("%-34s %-22s %12.1f %12.1f %12.1f %12.1f%n",
+                    r.benchmark(), r.params(), r.opsPerSecond(), r.meanMicros(), r.p50Micros(), r.p99Micros());
+        }
+
+        Path output = Paths.get("target", "benchmark-results", suite + ".json");
+        Files.createDirectories(output.getParent());
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("suite", suite);
+        document.put("timestamp", Instant.now().toString());
+        document.put("java", System.getProperty("java.version"));
+        document.put("results", results);
+        JSON.writeValue(output.toFile(), document);
+        System.out.println("Hasil: " + output.toAbsolutePath() + " (sink " + sink + ")");
+
+        String baseline = System.getProperty("benchmark.baseline");
+        if (baseline != null && !baseline.isBlank()) {
+            compare(Paths.get(baseline), Double.parseDouble(System.getProperty("benchmark.max-regression", "0.25")));
+        }
+        System.out.println();
+    }
+
+    private void compare(Path baselineFile, double maxRegression) throws IOException {
+        Map<String, Object> document = JSON.readValue(baselineFile.toFile(), new TypeReference<>() { });
+        List<Result> previous = JSON.convertValue(document.get("results"), new TypeReference<List<Result>>() { });
+        Map<String, Result> byKey = new LinkedHashMap<>();
+        previous.forEach(r -> byKey.put(r.key(), r));
+
+        List<String> regressions = new ArrayList<>();
+        System.out.println("Dibandingkan dengan " + baselineFile + ":");
+        for (Result r : results) {
+            Result old = byKey.get(r.key());
+            if (old == null) continue;
+            double change = r.opsPerSecond() / old.opsPerSecond() - 1;
+            System.out.printf("  %-34s %-22s %+7.1f%%%n", r.benchmark(), r.params(), change * 100);
+            if (change < -maxRegression) {
+                regressions.add(String.format("%s %s: %.1f -> %.1f ops/s", r.benchmark(), r.params(), old.opsPerSecond(), r.opsPerSecond()));
+            }
+        }
+        if (!regressions.isEmpty()) {
+            fail("Throughput turun lebih dari " + Math.round(maxRegression * 100) + "%:\n  " + String.join("\n  ", regressions));
+        }
+    }
+}
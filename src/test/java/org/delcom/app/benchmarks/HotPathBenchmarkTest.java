@@ -0,0 +1,155 @@
+package org.delcom.app.benchmarks;
+
+import jakarta.servlet.FilterChain;
+import org.delcom.app.configs.RequestLoggingFilter;
+import org.delcom.app.dto.WishlistPage;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.WishlistService;
+import org.delcom.app.services.WishlistStatsService;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark jalur panas service & util: WishlistService.getStats, JwtUtil generate/validate,
+ * FileStorageService.storeFile, RequestLoggingFilter dan render Thymeleaf wishlist/dashboard.
+ * Hasil (ops/s, mean, p50, p99) ditulis ke target/benchmark-results/HotPathBenchmarkTest.json.
+ * Jalankan dengan: mvn test -Pbenchmark -Dtest=HotPathBenchmarkTest
+ * Opsi: -Dbenchmark.hotpath.sizes=100,10000 (jumlah item user), -Dbenchmark.upload.bytes=65536,
+ *       -Dbenchmark.baseline=path/hasil-rilis-lama.json (lihat BenchmarkHarness)
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "app.password-hash.cost=4")
+class HotPathBenchmarkTest {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Fashion", "Gaming", "Home", null};
+    private static final FilterChain NOOP = (req, res) -> { };
+
+    @Autowired private WishlistService wishlistService;
+    @Autowired private WishlistStatsService statsService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private JwtUtil jwtUtil;
+    @Autowired private FileStorageService fileStorageService;
+    @Autowired private RequestLoggingFilter requestLoggingFilter;
+    @Autowired private SpringTemplateEngine templateEngine;
+    @Autowired private ApplicationContext applicationContext;
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    void hotPaths() throws Exception {
+        List<Integer> sizes = Arrays.stream(System.getProperty("benchmark.hotpath.sizes", "100,10000").split(","))
+                .map(String::trim).map(Integer::parseInt).collect(Collectors.toList());
+        BenchmarkHarness harness = new BenchmarkHarness(getClass().getSimpleName());
+
+        for (int size : sizes) {
+            User user = seed(size);
+            harness.run("WishlistService.getStats", Map.of("items", size), () -> wishlistService.getStats(user));
+            harness.run("thymeleaf wishlist/dashboard", Map.of("items", size), () -> renderDashboard(user));
+        }
+
+        String token = jwtUtil.generateToken("bench@bench.local");
+        harness.run("JwtUtil.generateToken", Map.of(), () -> jwtUtil.generateToken("bench@bench.local"));
+        harness.run("JwtUtil.validateToken", Map.of(), () -> jwtUtil.validateToken(token, "bench@bench.local"));
+
+        int uploadBytes = Integer.getInteger("benchmark.upload.bytes", 64 * 1024);
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        MockMultipartFile file = new MockMultipartFile("imageFile", "bench.jpg", "image/jpeg", new byte[uploadBytes]);
+        harness.run("FileStorageService.storeFile", Map.of("bytes", uploadBytes),
+                () -> fileStorageService.storeFile(file, UuidV7.generate()));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/wishlist");
+        request.setRemoteAddr("127.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        PrintStream originalOut = System.out;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            harness.run("RequestLoggingFilter", Map.of(), () -> {
+                requestLoggingFilter.doFilter(request, response, NOOP);
+                return response;
+            });
+            requestLoggingFilter.flush();
+        } finally {
+            System.setOut(originalOut);
+        }
+
+        harness.report();
+    }
+
+    // Halaman pertama dashboard, sama seperti WishlistController.dashboard
+    private String renderDashboard(User user) {
+        WishlistPage page = wishlistService.getItemsPage(user, null, ConstUtil.WISHLIST_PAGE_SIZE);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/wishlist");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        WebContext context = new WebContext(
+                JakartaServletWebApplication.buildApplication(new MockServletContext()).buildExchange(request, response),
+                Locale.getDefault());
+        // Supaya ekspresi @bean di template (srcset) bisa di-resolve, seperti di ThymeleafView
+        context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+        context.setVariable("user", user);
+        context.setVariable("items", page.getItems());
+        context.setVariable("nextCursor", page.getNextCursor());
+        context.setVariable("totalPending", wishlistService.countPending(user));
+        context.setVariable("totalBought", wishlistService.countBought(user));
+        return templateEngine.process("wishlist/dashboard", context);
+    }
+
+    // Data sintetis lewat JDBC batch (cepat), lalu tabel statistik dihitung ulang sekali
+    private User seed(int size) {
+        User user = new User();
+        user.setName("bench-" + size + "-" + UUID.randomUUID());
+        user.setEmail("bench-" + UUID.randomUUID() + "@bench.local");
+        user.setPassword("password");
+        user.setRole("USER");
+        User saved = userRepository.save(user);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            batch.add(new Object[] {UuidV7.generate(), saved.getId(), "Item " + i, i % 3 == 0 ? "BOUGHT" : "PENDING",
+                    CATEGORIES[i % CATEGORIES.length], i % 7 == 0 ? null : BigDecimal.valueOf(10_000 + i), BigDecimal.ZERO, now});
+            if (batch.size() == 1000 || i == size - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO wishlist_items (id, user_id, name, status, category, price, saved_amount, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        statsService.rebuild(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,104 @@
+package org.delcom.app.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput generate & validate JWT: cara lama (key + parser dibuat ulang tiap panggilan,
+ * validateToken parse token 2-3 kali) vs JwtUtil sekarang (key + parser dipakai ulang, sekali parse).
+ * Jalankan dengan: mvn test -Pbenchmark -Dtest=JwtBenchmarkTest
+ * Jumlah iterasi bisa diganti: -Dbenchmark.jwt.iterations=200000
+ */
+@Tag("benchmark")
+class JwtBenchmarkTest {
+
+    private static final String SECRET = "mySecretKeyForJWTTokenGenerationAndValidation12345678901234567890";
+    private static final long EXPIRATION = 3_600_000L;
+
+    @Test
+    void compareLegacyAndReusedParser() {
+        int iterations = Integer.getInteger("benchmark.jwt.iterations", 50_000);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", EXPIRATION);
+        LegacyJwt legacy = new LegacyJwt();
+
+        String token = jwtUtil.generateToken("bench@bench.local");
+
+        // Pemanasan JIT, hasilnya dibuang
+        run(iterations / 5, () -> legacy.generate("bench@bench.local"));
+        run(iterations / 5, () -> jwtUtil.generateToken("bench@bench.local"));
+        run(iterations / 5, () -> legacy.validate(token, "bench@bench.local"));
+        run(iterations / 5, () -> jwtUtil.validateToken(token, "bench@bench.local"));
+
+        double legacyGenerate = run(iterations, () -> legacy.generate("bench@bench.local"));
+        double newGenerate = run(iterations, () -> jwtUtil.generateToken("bench@bench.local"));
+        double legacyValidate = run(iterations, () -> legacy.validate(token, "bench@bench.local"));
+        double newValidate = run(iterations, () -> jwtUtil.validateToken(token, "bench@bench.local"));
+        double newExtract = run(iterations, () -> jwtUtil.validateAndExtract(token).isPresent());
+
+        System.out.println();
+        System.out.printf("%-22s %18s %18s%n", "operation", "before (ops/s)", "after (ops/s)");
+        System.out.printf("%-22s %18.0f %18.0f%n", "generate", legacyGenerate, newGenerate);
+        System.out.printf("%-22s %18.0f %18.0f%n", "validateToken", legacyValidate, newValidate);
+        System.out.printf("%-22s %18s %18.0f%n", "validateAndExtract", "-", newExtract);
+        System.out.println();
+    }
+
+    private double run(int iterations, Supplier<Object> op) {
+        int sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += op.get().hashCode();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        assertTrue(sink != 1); // supaya hasil tidak dibuang JIT
+        return iterations / seconds;
+    }
+
+    // Salinan implementasi JwtUtil sebelum key & parser di-cache
+    private static final class LegacyJwt {
+
+        private Key getSigningKey() {
+            return Keys.hmacShaKeyFor(SECRET.getBytes());
+        }
+
+        String generate(String subject) {
+            Map<String, Object> claims = new HashMap<>();
+            return Jwts.builder()
+                    .setClaims(claims)
+                    .setSubject(subject)
+                    .setIssuedAt(new Date(System.currentTimeMillis()))
+                    .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                    .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                    .compact();
+        }
+
+        <T> T extractClaim(String token, Function<Claims, T> resolver) {
+            Claims claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
+                    .parseClaimsJws(token).getBody();
+            return resolver.apply(claims);
+        }
+
+        Boolean validate(String token, String username) {
+            final String extracted = extractClaim(token, Claims::getSubject);
+            return extracted.equals(username) && !extractClaim(token, Claims::getExpiration).before(new Date());
+        }
+    }
+}
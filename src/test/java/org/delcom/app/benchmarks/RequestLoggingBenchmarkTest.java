@@ -0,0 +1,132 @@
+package org.delcom.app.benchmarks;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.configs.AsyncRequestLogger;
+import org.delcom.app.configs.RequestLoggingFilter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overhead log per request di thread request: RequestLoggingFilter lama (stack walk + String.format
+ * + System.out.println sinkron) vs sekarang (isi slot ring buffer, ditulis thread "request-log").
+ * Output dibuang ke stream kosong, jadi yang terukur murni biaya di sisi filter. Baris DROP membuang log
+ * kalau buffer penuh (request loop di sini jauh lebih cepat dari penulis), baris BLOCK menunggu penulis.
+ * Jalankan dengan: mvn test -Pbenchmark -Dtest=RequestLoggingBenchmarkTest
+ * Jumlah iterasi bisa diganti: -Dbenchmark.log.iterations=500000
+ */
+@Tag("benchmark")
+class RequestLoggingBenchmarkTest {
+
+    private static final FilterChain NOOP = (req, res) -> { };
+
+    private interface Op {
+        void run() throws Exception;
+    }
+
+    @Test
+    void compareSynchronousAndRingBufferLogging() throws Exception {
+        int iterations = Integer.getInteger("benchmark.log.iterations", 200_000);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/wishlist");
+        request.setRemoteAddr("127.0.0.1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        PrintStream originalOut = System.out;
+        PrintStream nullOut = new PrintStream(OutputStream.nullOutputStream());
+        LegacyFilter legacy = new LegacyFilter();
+        BenchFilter current = new BenchFilter();
+        BenchFilter blocking = new BenchFilter();
+        ReflectionTestUtils.setField(blocking, "onFull", AsyncRequestLogger.OverflowPolicy.BLOCK);
+        double[] legacyResult;
+        double[] currentResult;
+        double[] blockingResult;
+        try {
+            System.setOut(nullOut);
+            // Pemanasan JIT, hasilnya dibuang
+            measure(iterations / 5, () -> legacy.doFilterInternal(request, response, NOOP));
+            measure(iterations / 5, () -> current.filter(request, response));
+            current.flush();
+
+            legacyResult = measure(iterations, () -> legacy.doFilterInternal(request, response, NOOP));
+            currentResult = measure(iterations, () -> current.filter(request, response));
+            current.flush();
+            measure(iterations / 5, () -> blocking.filter(request, response));
+            blocking.flush();
+            blockingResult = measure(iterations, () -> blocking.filter(request, response));
+            blocking.flush();
+        } finally {
+            System.setOut(originalOut);
+            current.destroy();
+            blocking.destroy();
+        }
+
+        System.out.println();
+        System.out.printf("%-16s %14s %18s%n", "filter", "ns/request", "bytes/request");
+        System.out.printf("%-16s %14.0f %18.0f%n", "before (sync)", legacyResult[0], legacyResult[1]);
+        System.out.printf("%-16s %14.0f %18.0f%n", "after (DROP)", currentResult[0], currentResult[1]);
+        System.out.printf("%-16s %14.0f %18.0f%n", "after (BLOCK)", blockingResult[0], blockingResult[1]);
+        System.out.printf("DROP: written=%d dropped=%d batches=%d%n",
+                current.logger().getWritten(), current.logger().getDropped(), current.logger().getBatches());
+        System.out.println();
+        assertTrue(currentResult[0] > 0);
+    }
+
+    // [ns per operasi, byte yang dialokasikan thread ini per operasi]
+    private double[] measure(int iterations, Op op) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            op.run();
+        }
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        return new double[] {(double) nanos / iterations, (double) bytes / iterations};
+    }
+
+    // Membuka doFilterInternal (protected) untuk dipanggil langsung
+    private static final class BenchFilter extends RequestLoggingFilter {
+        void filter(HttpServletRequest request, HttpServletResponse response) throws Exception {
+            doFilterInternal(request, response, NOOP);
+        }
+    }
+
+    // Salinan RequestLoggingFilter.doFilterInternal sebelum memakai ring buffer
+    private static final class LegacyFilter {
+        void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws Exception {
+            long start = System.currentTimeMillis();
+            filterChain.doFilter(request, response);
+            long duration = System.currentTimeMillis() - start;
+
+            int status = response.getStatus();
+            String color = status >= 500 ? "\u001B[31m" : status >= 400 ? "\u001B[33m" : status >= 200 ? "\u001B[32m" : "\u001B[36m";
+
+            StackTraceElement[] stack = Thread.currentThread().getStackTrace();
+            StackTraceElement origin = Arrays.stream(stack)
+                    .filter(s -> s.getClassName().startsWith("org.delcom"))
+                    .findFirst()
+                    .orElse(stack[stack.length - 1]);
+            String originInfo = origin.getClassName() + "." + origin.getMethodName() + ":" + origin.getLineNumber();
+
+            String log = String.format("%s%-6s %s %d %dms%s [%s] from %s",
+                    color, request.getMethod(), request.getRequestURI(), status, duration, "\u001B[0m",
+                    originInfo, request.getRemoteAddr());
+            if (!request.getRequestURI().startsWith("/.well-known")) {
+                System.out.println(log);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.delcom.app.benchmarks;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.utils.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput insert wishlist_items dengan id UUID acak (v4, generator lama) vs UUID v7.
+ * Tabel sudah diisi dulu supaya index primary key cukup besar, lalu batch berikutnya diukur.
+ * Jalankan dengan: mvn test -Pbenchmark -Dtest=UuidInsertBenchmarkTest
+ * Ukuran data bisa diganti: -Dbenchmark.insert.sizes=10000,100000
+ * Catatan: H2 in-memory tidak punya I/O disk, jadi selisih di PostgreSQL biasanya lebih besar.
+ */
+@Tag("benchmark")
+@DataJpaTest
+class UuidInsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MEASURED_ROWS = 20_000;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareRandomAndTimeOrderedIds() {
+        List<Integer> sizes = Arrays.stream(System.getProperty("benchmark.insert.sizes", "10000,100000").split(","))
+                .map(String::trim).map(Integer::parseInt).collect(Collectors.toList());
+
+        User user = new User();
+        user.setName("bench-uuid");
+        user.setEmail("bench-uuid@bench.local");
+        user.setPassword("password");
+        entityManager.persist(user);
+        entityManager.flush();
+
+        // Pemanasan JIT, hasilnya dibuang
+        measure(user.getId(), BATCH_SIZE, UUID::randomUUID);
+        measure(user.getId(), BATCH_SIZE, UuidV7::generate);
+
+        System.out.println();
+        System.out.printf("%-12s %18s %18s%n", "existing", "v4 (rows/s)", "v7 (rows/s)");
+        for (int size : sizes) {
+            double v4 = measure(user.getId(), size, UUID::randomUUID);
+            double v7 = measure(user.getId(), size, UuidV7::generate);
+            System.out.printf("%-12d %18.0f %18.0f%n", size, v4, v7);
+        }
+        System.out.println();
+    }
+
+    // Isi tabel sampai "existing" baris, lalu ukur insert MEASURED_ROWS baris berikutnya
+    private double measure(UUID userId, int existing, Supplier<UUID> ids) {
+        jdbcTemplate.update("DELETE FROM wishlist_items");
+        insert(userId, existing, ids);
+
+        long start = System.nanoTime();
+        insert(userId, MEASURED_ROWS, ids);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Integer total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM wishlist_items", Integer.class);
+        assertEquals(existing + MEASURED_ROWS, total);
+        return MEASURED_ROWS / seconds;
+    }
+
+    private void insert(UUID userId, int rows, Supplier<UUID> ids) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < rows; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(rows, from + BATCH_SIZE); i++) {
+                batch.add(new Object[] {ids.get(), userId, "Item " + i, now});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO wishlist_items (id, user_id, name, status, created_at) VALUES (?, ?, ?, 'PENDING', ?)",
+                    batch);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.delcom.app.benchmarks;
+
+import org.delcom.app.dto.WishlistStats;
+import org.delcom.app.entities.Status;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.WishlistItem;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.ImageUploadProcessor;
+import org.delcom.app.services.WishlistService;
+import org.delcom.app.services.WishlistStatsService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Membandingkan tiga cara menghitung statistik: versi lama (load semua entity + stream),
+ * agregasi SQL (GROUP BY), dan tabel statistik yang di-update pakai delta (getStats sekarang).
+ * Tidak ikut `mvn test` biasa, jalankan dengan: mvn test -Pbenchmark
+ * Ukuran data bisa diganti: -Dbenchmark.sizes=10,1000,100000
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Import({WishlistService.class, WishlistStatsService.class})
+class WishlistStatsBenchmarkTest {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Fashion", "Gaming", "Home", null};
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private WishlistItemRepository repository;
+    @Autowired private WishlistService wishlistService;
+    @Autowired private WishlistStatsService statsService;
+    @MockBean private FileStorageService fileStorageService;
+    @MockBean private ImageUploadProcessor imageUploadProcessor;
+
+    @Test
+    void compareSqlAggregationWithStream() {
+        List<Integer> sizes = Arrays.stream(System.getProperty("benchmark.sizes", "10,1000,100000").split(","))
+                .map(String::trim).map(Integer::parseInt).collect(Collectors.toList());
+
+        System.out.println();
+        System.out.printf("%-10s %16s %16s %16s%n", "items", "stream (ms/op)", "sql (ms/op)", "table (ms/op)");
+        for (int size : sizes) {
+            User user = seed(size);
+
+            // Hasil dua implementasi harus sama sebelum waktunya dibandingkan
+            WishlistStats expected = streamStats(repository.findByUserOrderByCreatedAtDesc(user));
+            for (WishlistStats actual : new WishlistStats[] {statsService.computeFromItems(user), wishlistService.getStats(user)}) {
+                assertEquals(expected.getTotalWishlist(), actual.getTotalWishlist());
+                assertEquals(expected.getTotalPurchased(), actual.getTotalPurchased());
+                assertEquals(0, expected.getTotalPriceWishlist().compareTo(actual.getTotalPriceWishlist()));
+                assertEquals(expected.getCountByCategory(), actual.getCountByCategory());
+            }
+
+            double streamMs = measure(() -> {
+                entityManager.clear(); // tanpa cache L1, sama seperti request baru
+                streamStats(repository.findByUserOrderByCreatedAtDesc(user));
+            });
+            double sqlMs = measure(() -> {
+                entityManager.clear();
+                statsService.computeFromItems(user);
+            });
+            double tableMs = measure(() -> {
+                entityManager.clear();
+                wishlistService.getStats(user);
+            });
+            System.out.printf("%-10d %16.3f %16.3f %16.3f%n", size, streamMs, sqlMs, tableMs);
+        }
+        System.out.println();
+    }
+
+    private double measure(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) op.run();
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+
+    private User seed(int size) {
+        User user = new User();
+        user.setName("bench-" + size);
+        user.setEmail("bench-" + size + "@bench.local");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        for (int i = 0; i < size; i++) {
+            WishlistItem item = new WishlistItem();
+            item.setUser(user);
+            item.setName("Item " + i);
+            item.setPrice(i % 7 == 0 ? null : BigDecimal.valueOf(1000 + i, 2));
+            item.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            item.setStatus(i % 3 == 0 ? Status.BOUGHT : Status.PENDING);
+            entityManager.persist(item);
+            if (i % 1000 == 999) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(User.class, user.getId());
+    }
+
+    // Implementasi lama WishlistService.getStats, disimpan sebagai pembanding
+    private WishlistStats streamStats(List<WishlistItem> allItems) {
+        WishlistStats stats = new WishlistStats();
+        stats.setTotalWishlist(allItems.stream().filter(i -> i.getStatus() == Status.PENDING).count());
+        stats.setTotalPurchased(allItems.stream().filter(i -> i.getStatus() == Status.BOUGHT).count());
+        stats.setTotalPriceWishlist(allItems.stream()
+                .filter(i -> i.getStatus() == Status.PENDING && i.getPrice() != null)
+                .map(WishlistItem::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        stats.setTotalPricePurchased(allItems.stream()
+                .filter(i -> i.getStatus() == Status.BOUGHT && i.getPrice() != null)
+                .map(WishlistItem::getPrice)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        Map<String, Long> catCount = allItems.stream()
+                .filter(i -> i.getCategory() != null)
+                .collect(Collectors.groupingBy(WishlistItem::getCategory, Collectors.counting()));
+        stats.setCountByCategory(catCount);
+        Map<String, BigDecimal> catPrice = allItems.stream()
+                .filter(i -> i.getCategory() != null && i.getPrice() != null)
+                .collect(Collectors.groupingBy(
+                        WishlistItem::getCategory,
+                        Collectors.reducing(BigDecimal.ZERO, WishlistItem::getPrice, BigDecimal::add)
+                ));
+        stats.setPriceByCategory(catPrice);
+        return stats;
+    }
+}
@@ -0,0 +1,58 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    @Test
+    void testCostRecordedInHash() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        String hash = encoder.encode("secret");
+
+        assertEquals(5, AdaptiveBCryptPasswordEncoder.costOf(hash));
+        assertEquals(5, encoder.getStrength());
+        assertTrue(encoder.matches("secret", hash));
+    }
+
+    @Test
+    void testUpgradeEncodingBothDirections() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));  // naik
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));  // turun
+    }
+
+    @Test
+    void testNonBcryptHashIsLeftAlone() {
+        AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+        assertEquals(-1, AdaptiveBCryptPasswordEncoder.costOf("plain-text"));
+        assertEquals(-1, AdaptiveBCryptPasswordEncoder.costOf(null));
+        assertFalse(encoder.upgradeEncoding("plain-text"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    void testCostForDoublesPerStep() {
+        long probe = 4_000_000; // cost 8 = 4 ms
+
+        assertEquals(8, AdaptiveBCryptPasswordEncoder.costFor(probe, 4, 4, 31));
+        assertEquals(12, AdaptiveBCryptPasswordEncoder.costFor(probe, 64, 4, 31));
+        assertEquals(12, AdaptiveBCryptPasswordEncoder.costFor(probe, 100, 4, 31)); // 13 = 128 ms > target
+        assertEquals(10, AdaptiveBCryptPasswordEncoder.costFor(probe, 1, 10, 31));  // batas bawah
+        assertEquals(14, AdaptiveBCryptPasswordEncoder.costFor(probe, 100_000, 4, 14)); // batas atas
+    }
+
+    @Test
+    void testCalibrateStaysWithinBounds() {
+        int cost = AdaptiveBCryptPasswordEncoder.calibrate(50, 4, 12);
+        assertTrue(cost >= 4 && cost <= 12, "cost " + cost);
+
+        assertEquals(6, AdaptiveBCryptPasswordEncoder.calibrate(1, 6, 6));
+    }
+}
@@ -0,0 +1,119 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncRequestLoggerTest {
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private final PrintStream stream = new PrintStream(output, true);
+    private AsyncRequestLogger logger;
+
+    @AfterEach
+    void tearDown() {
+        if (logger != null) logger.close();
+    }
+
+    private String[] lines() {
+        String text = output.toString();
+        return text.isEmpty() ? new String[0] : text.split(System.lineSeparator());
+    }
+
+    @Test
+    void testFormatsLinesInOrder() {
+        logger = new AsyncRequestLogger(16, 4, AsyncRequestLogger.OverflowPolicy.DROP, () -> stream);
+
+        logger.log("GET", "/a", 200, 3, 0, "127.0.0.1");
+        logger.log("DELETE", "/b", 404, 12, 2, "10.0.0.1");
+        logger.log("POST", "/c", 500, 0, 15, "10.0.0.2");
+        logger.flush(1000);
+
+        String[] lines = lines();
+        assertEquals(3, lines.length);
+        assertEquals("\u001B[32mGET    /a 200 3ms\u001B[0m from 127.0.0.1", lines[0]);
+        assertEquals("\u001B[33mDELETE /b 404 12ms 2q\u001B[0m from 10.0.0.1", lines[1]);
+        assertEquals("\u001B[31mPOST   /c 500 0ms 15q\u001B[0m from 10.0.0.2", lines[2]);
+        assertEquals(3, logger.getWritten());
+        assertEquals(0, logger.getPending());
+    }
+
+    @Test
+    void testCapacityRoundedToPowerOfTwo() {
+        logger = new AsyncRequestLogger(100, 8, AsyncRequestLogger.OverflowPolicy.DROP, () -> stream);
+        assertEquals(128, logger.getCapacity());
+    }
+
+    @Test
+    void testDropPolicyWhenWriterStalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PrintStream slow = new PrintStream(output, true) {
+            @Override
+            public void print(Object obj) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.print(obj);
+            }
+        };
+        logger = new AsyncRequestLogger(4, 1, AsyncRequestLogger.OverflowPolicy.DROP, () -> slow);
+
+        int accepted = 0;
+        for (int i = 0; i < 50; i++) {
+            if (logger.log("GET", "/x" + i, 200, 1, 0, "127.0.0.1")) accepted++;
+        }
+        release.countDown();
+        logger.flush(2000);
+
+        assertTrue(accepted <= 5, "accepted=" + accepted); // 4 slot + 1 yang sedang ditulis
+        assertEquals(50 - accepted, logger.getDropped());
+        assertEquals(accepted, logger.getWritten());
+    }
+
+    @Test
+    void testBlockPolicyNeverDrops() throws Exception {
+        logger = new AsyncRequestLogger(8, 4, AsyncRequestLogger.OverflowPolicy.BLOCK, () -> stream);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) logger.log("GET", "/t" + thread, 200, i, 0, "127.0.0.1");
+                }));
+            }
+            for (Future<?> f : futures) f.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        logger.flush(2000);
+
+        assertEquals(0, logger.getDropped());
+        assertEquals(2000, logger.getWritten());
+        assertEquals(2000, lines().length);
+        assertTrue(logger.getBatches() <= 2000);
+    }
+
+    @Test
+    void testCloseDrainsPendingAndRejectsLater() {
+        logger = new AsyncRequestLogger(16, 16, AsyncRequestLogger.OverflowPolicy.BLOCK, () -> stream);
+        for (int i = 0; i < 10; i++) logger.log("GET", "/a", 200, 1, 0, "127.0.0.1");
+
+        logger.close();
+
+        assertEquals(10, lines().length);
+    }
+}
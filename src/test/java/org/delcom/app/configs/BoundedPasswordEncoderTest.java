@@ -0,0 +1,114 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        if (encoder != null) encoder.destroy();
+    }
+
+    // Encoder palsu yang menahan thread hashing sampai latch dibuka
+    private static PasswordEncoder blocking(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals("hash:" + rawPassword);
+            }
+        };
+    }
+
+    @Test
+    void testEncodeAndMatchesDelegateToBcrypt() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, 5000);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3, encoder.getHashCount());
+        assertTrue(encoder.getAverageHashMillis() > 0);
+        assertTrue(encoder.getMaxHashMillis() >= encoder.getAverageHashMillis());
+    }
+
+    @Test
+    void testRunsOffCallerThread() {
+        encoder = new BoundedPasswordEncoder(new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return Thread.currentThread().getName();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        }, 1, 1, 5000);
+
+        assertTrue(encoder.encode("x").startsWith("password-hash-"));
+    }
+
+    @Test
+    void testFullQueueRejectedImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blocking(started, release), 1, 1, 5000);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        while (encoder.getQueueDepth() < 1) Thread.sleep(1);
+
+        assertEquals(1, encoder.getQueueDepth());
+        assertEquals(1, encoder.getActiveCount());
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+        assertEquals(1, encoder.getRejectedCount());
+
+        release.countDown();
+        assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSlowHashTimesOut() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        encoder = new BoundedPasswordEncoder(blocking(started, release), 1, 1, 50);
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("a"));
+        assertEquals(1, encoder.getRejectedCount());
+        release.countDown();
+    }
+
+    @Test
+    void testDelegateExceptionPropagates() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, 5000);
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+    }
+}
@@ -0,0 +1,104 @@
+package org.delcom.app.configs;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.delcom.app.services.VerifiedTokenCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtAuthenticationFilter filter;
+    private FilterChain chain;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = mock(VerifiedTokenCache.class);
+        filter = new JwtAuthenticationFilter(verifiedTokenCache);
+        chain = mock(FilterChain.class);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testValidTokenAuthenticatesFromClaims() throws Exception {
+        request.setCookies(new Cookie("token", "valid-token"));
+        Claims claims = Jwts.claims().setSubject("jwt@example.com");
+        when(verifiedTokenCache.verify("valid-token")).thenReturn(Optional.of(claims));
+
+        filter.doFilter(request, response, chain);
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertTrue(auth.isAuthenticated());
+        assertEquals("jwt@example.com", ((UserDetails) auth.getPrincipal()).getUsername());
+        assertNull(request.getSession(false)); // tidak bikin HttpSession
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void testMissingCookieStaysAnonymous() throws Exception {
+        request.setCookies(new Cookie("other", "x"));
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(verifiedTokenCache);
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void testBlankCookieIgnored() throws Exception {
+        request.setCookies(new Cookie("token", " "));
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(verifiedTokenCache);
+    }
+
+    @Test
+    void testInvalidTokenStaysAnonymous() throws Exception {
+        request.setCookies(new Cookie("token", "expired-token"));
+        when(verifiedTokenCache.verify(anyString())).thenReturn(Optional.empty());
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain).doFilter(request, response);
+    }
+
+    @Test
+    void testTokenWithoutSubjectStaysAnonymous() throws Exception {
+        request.setCookies(new Cookie("token", "no-subject"));
+        when(verifiedTokenCache.verify(anyString())).thenReturn(Optional.of(Jwts.claims()));
+
+        filter.doFilter(request, response, chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(chain).doFilter(request, response);
+    }
+}
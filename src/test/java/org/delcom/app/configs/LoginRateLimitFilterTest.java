@@ -0,0 +1,91 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.services.LoginRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Percobaan login ke-4 untuk email yang sama ditolak 429 tanpa menyentuh tabel users maupun BCrypt
+@SpringBootTest(properties = {
+        "app.password-hash.cost=4",
+        "app.login-limit.email.capacity=3",
+        "app.login-limit.email.refill-per-minute=0.001"
+})
+@AutoConfigureMockMvc
+class LoginRateLimitFilterTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private LoginRateLimiter limiter;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @SpyBean private UserRepository userRepository;
+
+    private String register() {
+        String email = "limit-" + UUID.randomUUID() + "@example.com";
+        User user = new User();
+        user.setName("Limit " + UUID.randomUUID());
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user.setRole("USER");
+        userRepository.save(user);
+        return email;
+    }
+
+    @Test
+    void testFormLoginOverLimitRejectedBeforeLookup() throws Exception {
+        String email = register();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/auth/login/post").param("email", email).param("password", "wrong"))
+                    .andExpect(redirectedUrl("/auth/login?error"));
+        }
+        clearInvocations(userRepository);
+        long rejected = limiter.getRejected();
+
+        // Password benar pun ditolak sampai bucket terisi lagi
+        mockMvc.perform(post("/auth/login/post").param("email", email).param("password", "secret123"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        verify(userRepository, never()).findByEmail(anyString());
+        assertEquals(rejected + 1, limiter.getRejected());
+    }
+
+    @Test
+    void testControllerLoginOverLimitRejected() throws Exception {
+        String email = register();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/auth/login").param("email", email).param("password", "wrong"));
+        }
+        clearInvocations(userRepository);
+
+        mockMvc.perform(post("/auth/login").param("email", email).param("password", "secret123"))
+                .andExpect(status().isTooManyRequests());
+
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void testLoginPageIsNotLimited() throws Exception {
+        long allowed = limiter.getAllowed();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/auth/login")).andExpect(status().isOk());
+        }
+        assertEquals(allowed, limiter.getAllowed());
+    }
+}
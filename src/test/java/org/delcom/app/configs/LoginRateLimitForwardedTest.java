@@ -0,0 +1,55 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Di belakang reverse proxy (di sini: klien 127.0.0.1 = proxy internal) bucket IP memakai IP dari X-Forwarded-For,
+// bukan IP proxy yang sama untuk semua klien. Butuh Tomcat sungguhan karena RemoteIpValve tidak jalan di MockMvc.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.password-hash.cost=4",
+        "server.forward-headers-strategy=native",
+        "app.login-limit.ip.capacity=2",
+        "app.login-limit.ip.refill-per-minute=0.001"
+})
+class LoginRateLimitForwardedTest {
+
+    @LocalServerPort private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    // Email acak tiap percobaan supaya yang terpakai hanya bucket IP
+    private int login(String forwardedFor) throws Exception {
+        String body = "email=" + URLEncoder.encode("xff-" + UUID.randomUUID() + "@example.com", StandardCharsets.UTF_8)
+                + "&password=wrong";
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login/post"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (forwardedFor != null) request.header("X-Forwarded-For", forwardedFor);
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    void testEachForwardedClientHasOwnBucket() throws Exception {
+        assertEquals(302, login("203.0.113.10"));
+        assertEquals(302, login("203.0.113.10"));
+        assertEquals(429, login("203.0.113.10"));
+
+        // Klien lain lewat proxy yang sama tidak ikut terkunci
+        assertEquals(302, login("203.0.113.20"));
+        // IP asli paling kanan yang tidak dipercaya yang dipakai, bukan nilai palsu dari klien di kiri
+        assertEquals(302, login("198.51.100.1, 203.0.113.30"));
+        assertEquals(302, login("198.51.100.1, 203.0.113.30"));
+        assertEquals(429, login("198.51.100.2, 203.0.113.30"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingBusyFilterTest {
+
+    private final PasswordHashingBusyFilter filter = new PasswordHashingBusyFilter();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login/post");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void testBusyFromSecurityFilterBecomes503() throws Exception {
+        FilterChain chain = (req, res) -> {
+            throw new PasswordHashingBusyException("full");
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void testBusyWrappedByDispatcherBecomes503() throws Exception {
+        FilterChain chain = (req, res) -> {
+            throw new ServletException("Request processing failed", new PasswordHashingBusyException("full"));
+        };
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    void testOtherExceptionsPassThrough() {
+        FilterChain chain = (req, res) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, response, chain));
+        assertEquals(200, response.getStatus());
+    }
+}
@@ -0,0 +1,69 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+// Hash lama dengan cost berbeda di-rehash ke cost mesin ini setelah login sukses
+@SpringBootTest(properties = "app.password-hash.cost=5")
+@AutoConfigureMockMvc
+class PasswordRehashIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        email = "rehash-" + UUID.randomUUID() + "@example.com";
+        User user = new User();
+        user.setName("Rehash " + UUID.randomUUID());
+        user.setEmail(email);
+        user.setPassword(new BCryptPasswordEncoder(4).encode("secret123")); // dibuat di mesin lain
+        user.setRole("USER");
+        userRepository.save(user);
+    }
+
+    private String storedHash() {
+        return userRepository.findByEmail(email).orElseThrow().getPassword();
+    }
+
+    @Test
+    void testFormLoginRehashesToCurrentCost() throws Exception {
+        mockMvc.perform(post("/auth/login/post").param("email", email).param("password", "secret123"))
+                .andExpect(redirectedUrl("/wishlist"));
+
+        assertEquals(5, AdaptiveBCryptPasswordEncoder.costOf(storedHash()));
+    }
+
+    @Test
+    void testControllerLoginRehashesToCurrentCost() throws Exception {
+        mockMvc.perform(post("/auth/login").param("email", email).param("password", "secret123"))
+                .andExpect(redirectedUrl("/wishlist"));
+
+        assertEquals(5, AdaptiveBCryptPasswordEncoder.costOf(storedHash()));
+    }
+
+    @Test
+    void testFailedLoginKeepsOldHash() throws Exception {
+        String before = storedHash();
+
+        mockMvc.perform(post("/auth/login/post").param("email", email).param("password", "wrong"))
+                .andExpect(redirectedUrl("/auth/login?error"));
+
+        assertEquals(before, storedHash());
+    }
+}
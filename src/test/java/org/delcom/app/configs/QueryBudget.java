@@ -0,0 +1,54 @@
+package org.delcom.app.configs;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Helper test untuk membatasi jumlah query SQL sebuah aksi (mis. satu request MockMvc atau panggilan service).
+ * Contoh: QueryBudget.assertAtMost(4, () -> mockMvc.perform(get("/wishlist").session(session)));
+ * Hanya menghitung statement lewat Hibernate (JdbcTemplate tidak ikut), dan harus satu thread dengan aksinya.
+ */
+public final class QueryBudget {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private QueryBudget() {
+    }
+
+    public static QueryContext measure(Action action) throws Exception {
+        try (QueryContext context = QueryContext.begin()) {
+            action.run();
+            return context;
+        }
+    }
+
+    // Gagal kalau aksi menjalankan lebih dari maxQueries statement; daftar statement ikut di pesan error
+    public static QueryContext assertAtMost(int maxQueries, Action action) throws Exception {
+        QueryContext context = measure(action);
+        if (context.getCount() > maxQueries) {
+            fail("Query budget " + maxQueries + " terlampaui: " + context.getCount() + " query\n" + describe(context.getStatements()));
+        }
+        return context;
+    }
+
+    // Gagal kalau ada statement identik yang dijalankan minimal threshold kali (pola N+1)
+    public static QueryContext assertNoRepeatedStatements(int threshold, Action action) throws Exception {
+        QueryContext context = measure(action);
+        Map<String, Integer> repeated = context.getRepeated(threshold);
+        if (!repeated.isEmpty()) {
+            fail("Statement berulang (kemungkinan N+1):\n" + describe(repeated));
+        }
+        return context;
+    }
+
+    private static String describe(Map<String, Integer> statements) {
+        return statements.entrySet().stream()
+                .map(e -> "  " + e.getValue() + "x " + e.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,71 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryContextTest {
+
+    private final QueryCountingInspector inspector = new QueryCountingInspector();
+
+    @AfterEach
+    void tearDown() {
+        while (QueryContext.current() != null) QueryContext.current().close();
+    }
+
+    @Test
+    void testCountsStatementsInsideContextOnly() {
+        inspector.inspect("select 1");
+
+        try (QueryContext context = QueryContext.begin()) {
+            assertEquals("select a from t where id=?", inspector.inspect("select a from t where id=?"));
+            inspector.inspect("select a from t where id=?");
+            inspector.inspect("select b from u");
+            QueryContext.recordTime(1_500);
+
+            assertEquals(3, context.getCount());
+            assertEquals(1_500, context.getNanos());
+            assertEquals(Map.of("select a from t where id=?", 2, "select b from u", 1), context.getStatements());
+            assertEquals(Map.of("select a from t where id=?", 2), context.getRepeated(2));
+        }
+        assertNull(QueryContext.current());
+    }
+
+    @Test
+    void testNestedContextsBothCount() {
+        QueryContext outer = QueryContext.begin();
+        inspector.inspect("select 1");
+        try (QueryContext inner = QueryContext.begin()) {
+            inspector.inspect("select 2");
+            assertEquals(1, inner.getCount());
+        }
+        assertSame(outer, QueryContext.current());
+        outer.close();
+
+        assertEquals(2, outer.getCount());
+        assertNull(QueryContext.current());
+    }
+
+    @Test
+    void testCloseTwiceIsSafe() {
+        QueryContext context = QueryContext.begin();
+        context.close();
+        context.close();
+        assertNull(QueryContext.current());
+    }
+
+    @Test
+    void testTimingListenerRecordsExecution() {
+        QueryTimingListener listener = new QueryTimingListener();
+        try (QueryContext context = QueryContext.begin()) {
+            listener.jdbcExecuteStatementStart();
+            listener.jdbcExecuteStatementEnd();
+            listener.jdbcExecuteBatchStart();
+            listener.jdbcExecuteBatchEnd();
+            assertTrue(context.getNanos() >= 0);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.delcom.app.configs;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Schema dibuat murni dari db/migration, lalu Hibernate memvalidasinya (ddl-auto=validate)
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@Import(SchemaMigrationConfig.class)
+class SchemaMigratorTest {
+
+    private static final String USER_ID = "'00000000-0000-0000-0000-000000000001'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaMigrator schemaMigrator;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testMigrationsRecordedAndIdempotent() {
+        List<Integer> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM " + SchemaMigrator.VERSION_TABLE + " ORDER BY version", Integer.class);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), versions);
+        assertEquals(0, schemaMigrator.migrate()); // dijalankan ulang tidak mengubah apa-apa
+    }
+
+    // --- QUERY UTAMA HARUS MEMAKAI INDEX ---
+    @Test
+    void testUserCreatedIndexColumns() {
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT c.COLUMN_NAME || ' ' || c.ORDERING_SPECIFICATION"
+                        + " FROM INFORMATION_SCHEMA.INDEX_COLUMNS c"
+                        + " WHERE c.INDEX_NAME = 'IDX_WISHLIST_ITEMS_USER_CREATED' ORDER BY c.ORDINAL_POSITION",
+                String.class);
+        assertEquals(List.of("USER_ID ASC", "CREATED_AT DESC", "ID DESC"), columns);
+    }
+
+    // H2 tidak membedakan index (user_id, ...) dengan index FK user_id pada tabel kosong,
+    // jadi untuk query dashboard cukup dipastikan tidak full scan
+    @Test
+    void testDashboardQueryDoesNotScanTable() {
+        String plan = explain("SELECT * FROM wishlist_items WHERE user_id = " + USER_ID
+                + " ORDER BY created_at DESC, id DESC");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void testKeysetQueryDoesNotScanTable() {
+        String plan = explain("SELECT * FROM wishlist_items WHERE user_id = " + USER_ID
+                + " AND (created_at < TIMESTAMP '2024-01-01 00:00:00'"
+                + " OR (created_at = TIMESTAMP '2024-01-01 00:00:00' AND id < " + USER_ID + "))"
+                + " ORDER BY created_at DESC, id DESC");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    @Test
+    void testCountByStatusUsesUserStatusIndex() {
+        String plan = explain("SELECT COUNT(*) FROM wishlist_items WHERE user_id = " + USER_ID
+                + " AND status = 'PENDING'");
+        assertTrue(plan.contains("IDX_WISHLIST_ITEMS_USER_STATUS"), plan);
+    }
+
+    @Test
+    void testFindByTokenUsesUniqueIndex() {
+        String plan = explain("SELECT * FROM auth_tokens WHERE token = 'abc'");
+        assertTrue(plan.contains("UX_AUTH_TOKENS_TOKEN"), plan);
+    }
+
+    @Test
+    void testPurgeQueryUsesExpiryIndex() {
+        String plan = explain("SELECT id FROM auth_tokens WHERE expires_at < TIMESTAMP '2024-01-01 00:00:00'"
+                + " ORDER BY expires_at");
+        assertTrue(plan.contains("IDX_AUTH_TOKENS_EXPIRES"), plan);
+    }
+
+    @Test
+    void testFindByEmailDoesNotScanTable() {
+        String plan = explain("SELECT * FROM users WHERE email = 'a@b.c'");
+        assertFalse(plan.contains("tableScan"), plan);
+    }
+
+    // --- VALIDASI SCRIPT ---
+    @Test
+    void testChangedScriptIsRejected() throws Exception {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        try {
+            Path script = tempDir.resolve("V1__create_sample.sql");
+            Files.writeString(script, "CREATE TABLE sample (id INT PRIMARY KEY);");
+            SchemaMigrator migrator = new SchemaMigrator(db, "file:" + tempDir);
+
+            assertEquals(1, migrator.migrate());
+
+            Files.writeString(script, "CREATE TABLE sample (id BIGINT PRIMARY KEY);");
+            assertThrows(IllegalStateException.class, migrator::migrate);
+        } finally {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    void testFailedScriptIsNotRecorded() throws Exception {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        try {
+            Files.writeString(tempDir.resolve("V1__ok.sql"), "CREATE TABLE ok_table (id INT PRIMARY KEY);");
+            Files.writeString(tempDir.resolve("V2__broken.sql"), "CREATE TABL broken (id INT);");
+            SchemaMigrator migrator = new SchemaMigrator(db, "file:" + tempDir);
+
+            assertThrows(IllegalStateException.class, migrator::migrate);
+
+            List<Integer> versions = new JdbcTemplate(db).queryForList(
+                    "SELECT version FROM " + SchemaMigrator.VERSION_TABLE, Integer.class);
+            assertEquals(List.of(1), versions);
+        } finally {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    void testChecksumIgnoresLineEndings() {
+        assertEquals(SchemaMigrator.checksum("a\nb"), SchemaMigrator.checksum("a\r\nb"));
+        assertNotEquals(SchemaMigrator.checksum("a\nb"), SchemaMigrator.checksum("a\nc"));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
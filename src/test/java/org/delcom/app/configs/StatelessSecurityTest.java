@@ -0,0 +1,123 @@
+package org.delcom.app.configs;
+
+import jakarta.servlet.http.Cookie;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.UserService;
+import org.delcom.app.services.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Mode stateless: login menerbitkan cookie JWT, request berikutnya tanpa HttpSession
+@SpringBootTest(properties = "app.auth.stateless=true")
+@AutoConfigureMockMvc
+class StatelessSecurityTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserService userService;
+    @Autowired private VerifiedTokenCache verifiedTokenCache;
+
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        email = "stateless-" + UUID.randomUUID() + "@example.com";
+        User user = new User();
+        user.setName("Stateless " + UUID.randomUUID());
+        user.setEmail(email);
+        user.setPassword("secret123");
+        user.setRole("USER");
+        userService.registerNewUser(user);
+    }
+
+    @Test
+    void testLoginIssuesTokenCookieWithoutSession() throws Exception {
+        MvcResult result = mockMvc.perform(post("/auth/login/post")
+                        .param("email", email)
+                        .param("password", "secret123"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/wishlist"))
+                .andExpect(cookie().exists("token"))
+                .andExpect(cookie().httpOnly("token", true))
+                .andReturn();
+
+        assertNull(result.getRequest().getSession(false));
+        assertFalse(result.getResponse().getCookie("token").getValue().isBlank());
+    }
+
+    @Test
+    void testTokenCookieAuthenticatesEachRequest() throws Exception {
+        Cookie token = mockMvc.perform(post("/auth/login/post")
+                        .param("email", email)
+                        .param("password", "secret123"))
+                .andReturn().getResponse().getCookie("token");
+
+        // Request baru (tanpa session) cukup membawa cookie
+        MvcResult result = mockMvc.perform(get("/user/profile").cookie(token))
+                .andExpect(status().isOk())
+                .andExpect(view().name("user/profile"))
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    void testWrongPasswordGetsNoCookie() throws Exception {
+        mockMvc.perform(post("/auth/login/post")
+                        .param("email", email)
+                        .param("password", "wrong"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/auth/login?error"))
+                .andExpect(cookie().doesNotExist("token"));
+    }
+
+    @Test
+    void testNoOrInvalidTokenRedirectsToLogin() throws Exception {
+        mockMvc.perform(get("/wishlist").accept(MediaType.TEXT_HTML))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/auth/login"));
+
+        mockMvc.perform(get("/wishlist").accept(MediaType.TEXT_HTML).cookie(new Cookie("token", "not-a-jwt")))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/auth/login"));
+    }
+
+    @Test
+    void testLogoutClearsTokenCookie() throws Exception {
+        mockMvc.perform(post("/logout"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(cookie().maxAge("token", 0));
+    }
+
+    @Test
+    void testLogoutRevokesTokenEvenIfCookieIsReplayed() throws Exception {
+        Cookie token = mockMvc.perform(post("/auth/login/post")
+                        .param("email", email)
+                        .param("password", "secret123"))
+                .andReturn().getResponse().getCookie("token");
+
+        mockMvc.perform(get("/user/profile").cookie(token)).andExpect(status().isOk());
+        mockMvc.perform(post("/logout").cookie(token)).andExpect(status().is3xxRedirection());
+
+        // Cookie lama yang dikirim ulang (mis. dicuri) sudah tidak berlaku
+        mockMvc.perform(get("/user/profile").accept(MediaType.TEXT_HTML).cookie(token))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("**/auth/login"));
+
+        // Node lain (cache kosong) juga menolak: tercatat di revoked_tokens
+        verifiedTokenCache.clear();
+        mockMvc.perform(get("/user/profile").accept(MediaType.TEXT_HTML).cookie(token))
+                .andExpect(status().is3xxRedirection());
+    }
+}
@@ -0,0 +1,60 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.dto.StatsDriftReport;
+import org.delcom.app.services.WishlistStatsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatsMaintenanceRunnerTest {
+
+    @Mock
+    private WishlistStatsService statsService;
+
+    @InjectMocks
+    private StatsMaintenanceRunner runner;
+
+    @Test
+    void testNoOptionDoesNothing() {
+        runner.run(new DefaultApplicationArguments());
+        verify(statsService, never()).verifyAll(anyBoolean());
+    }
+
+    @Test
+    void testVerifyOption() {
+        when(statsService.verifyAll(false)).thenReturn(new StatsDriftReport());
+        runner.run(new DefaultApplicationArguments("--stats-verify"));
+        verify(statsService).verifyAll(false);
+    }
+
+    @Test
+    void testRebuildOption() {
+        when(statsService.verifyAll(true)).thenReturn(new StatsDriftReport());
+        runner.run(new DefaultApplicationArguments("--stats-rebuild"));
+        verify(statsService).verifyAll(true);
+    }
+
+    @Test
+    void testFormatListsDriftedUsers() {
+        StatsDriftReport report = new StatsDriftReport();
+        UUID userId = UUID.randomUUID();
+        report.recordChecked();
+        report.recordDrift(userId);
+
+        String output = runner.format(report);
+
+        assertTrue(output.contains("users checked: 1, with drift: 1"));
+        assertTrue(output.contains("--stats-rebuild"));
+        assertTrue(output.contains(userId.toString()));
+    }
+}
@@ -0,0 +1,60 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.dto.UploadGcReport;
+import org.delcom.app.services.OrphanUploadCollector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadGcRunnerTest {
+
+    @Mock
+    private OrphanUploadCollector collector;
+
+    @InjectMocks
+    private UploadGcRunner runner;
+
+    @Test
+    void testNoOptionDoesNothing() {
+        runner.run(new DefaultApplicationArguments());
+        verify(collector, never()).collect(anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void testDryRunOption() {
+        when(collector.collect(true, true)).thenReturn(new UploadGcReport(true));
+        runner.run(new DefaultApplicationArguments("--uploads-gc-dry-run"));
+        verify(collector).collect(true, true);
+    }
+
+    @Test
+    void testCollectOption() {
+        when(collector.collect(false, true)).thenReturn(new UploadGcReport(false));
+        runner.run(new DefaultApplicationArguments("--uploads-gc"));
+        verify(collector).collect(false, true);
+    }
+
+    @Test
+    void testFormatListsOrphans() {
+        UploadGcReport report = new UploadGcReport(true);
+        report.recordScanned();
+        report.recordScanned();
+        report.recordReferenced();
+        report.recordOrphan("item_lama.png", 2048, false);
+
+        String output = runner.format(report);
+
+        assertTrue(output.contains("files scanned: 2"));
+        assertTrue(output.contains("orphaned: 1 (2048 bytes)"));
+        assertTrue(output.contains("--uploads-gc to collect"));
+        assertTrue(output.contains("orphan: item_lama.png"));
+    }
+}
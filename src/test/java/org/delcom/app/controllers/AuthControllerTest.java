@@ -2,10 +2,12 @@ package org.delcom.app.controllers;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
+import org.delcom.app.configs.PasswordHashingBusyException;
 import org.delcom.app.dto.LoginForm;
 import org.delcom.app.dto.RegisterForm;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthService;
+import org.delcom.app.services.AuthTokenService;
 import org.delcom.app.services.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +34,9 @@ class AuthControllerTests {
     @Mock
     private UserService userService;
 
+    @Mock
+    private AuthTokenService authTokenService;
+
     @Mock
     private Model model;
 
@@ -115,6 +120,17 @@ class AuthControllerTests {
         verify(response, never()).addCookie(any());
     }
 
+    @Test
+    @DisplayName("Test processLogin() when password hashing pool is saturated - should propagate for 503")
+    void testProcessLoginHashingBusy() {
+        when(authService.authenticateUser(loginForm.getEmail(), loginForm.getPassword()))
+            .thenThrow(new PasswordHashingBusyException("full"));
+
+        assertThrows(PasswordHashingBusyException.class,
+            () -> authController.processLogin(loginForm, response, redirectAttributes));
+        verify(redirectAttributes, never()).addFlashAttribute(anyString(), any());
+    }
+
     @Test
     @DisplayName("Test processLogin() exception handling with different exceptions")
     void testProcessLoginWithVariousExceptions() {
@@ -210,7 +226,7 @@ class AuthControllerTests {
     @DisplayName("Test logout() - should clear cookie and redirect to login")
     void testLogout() {
         // Act
-        String result = authController.logout(response);
+        String result = authController.logout(null, response);
 
         // Assert
         assertEquals("redirect:/auth/login", result);
@@ -306,11 +322,32 @@ class AuthControllerTests {
         assertEquals("José María O'Brien", userCaptor.getValue().getName());
     }
 
+    @Test
+    @DisplayName("Test logout() revokes the token from the cookie")
+    void testLogoutRevokesToken() {
+        // Act
+        String result = authController.logout("jwt-token", response);
+
+        // Assert
+        assertEquals("redirect:/auth/login", result);
+        verify(authTokenService).removeTokenByToken("jwt-token");
+        verify(response).addCookie(any(Cookie.class));
+    }
+
+    @Test
+    @DisplayName("Test logout() without cookie does not touch tokens")
+    void testLogoutWithoutTokenSkipsRevocation() {
+        authController.logout(null, response);
+        authController.logout(" ", response);
+
+        verifyNoInteractions(authTokenService);
+    }
+
     @Test
     @DisplayName("Test logout() cookie deletion properties")
     void testLogoutCookieDeletionProperties() {
         // Act
-        authController.logout(response);
+        authController.logout(null, response);
 
         // Assert
         ArgumentCaptor<Cookie> cookieCaptor = ArgumentCaptor.forClass(Cookie.class);
@@ -385,7 +422,7 @@ class AuthControllerTests {
     @DisplayName("Test logout() redirect path is correct")
     void testLogoutRedirectPath() {
         // Act
-        String result = authController.logout(response);
+        String result = authController.logout(null, response);
 
         // Assert
         assertTrue(result.startsWith("redirect:"));
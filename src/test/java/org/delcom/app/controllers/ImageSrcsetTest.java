@@ -0,0 +1,114 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.WishlistItem;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.delcom.app.services.ImageVariantService;
+import org.delcom.app.services.WishlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Dashboard & detail memakai srcset begitu upload dan varian gambarnya selesai diproses di background
+// workers.threads=0 + executor langsung: upload & varian selesai sebelum addItem kembali, tanpa menunggu
+@SpringBootTest(properties = {"app.password-hash.cost=4", "app.upload.workers.threads=0"})
+@AutoConfigureMockMvc
+class ImageSrcsetTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WishlistItemRepository itemRepository;
+    @Autowired private WishlistService wishlistService;
+    @Autowired private ImageVariantService imageVariantService;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    private User user;
+    private MockHttpSession session;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) throws IOException {
+        String dir = Files.createTempDirectory("srcset-uploads").toString();
+        registry.add("app.upload.dir", () -> dir);
+        registry.add("app.upload.spool-dir", () -> dir + "/spool");
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(imageVariantService, "executor", (Executor) Runnable::run);
+
+        String email = "srcset-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setName("Srcset " + UUID.randomUUID());
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user.setRole("USER");
+        user = userRepository.save(user);
+
+        session = (MockHttpSession) mockMvc.perform(post("/auth/login/post").param("email", email).param("password", "secret123"))
+                .andReturn().getRequest().getSession();
+    }
+
+    @Test
+    void testDashboardAndDetailServeVariants() throws Exception {
+        WishlistForm form = new WishlistForm();
+        form.setName("Kamera");
+        form.setCategory("Gadget");
+        form.setPrice(BigDecimal.valueOf(5000));
+        form.setImageFile(new MockMultipartFile("imageFile", "kamera.png", "image/png", png(1600, 1200)));
+        wishlistService.addItem(user, form);
+
+        // Upload selesai setelah commit (workers.threads=0) dan varian dibuat di thread yang sama (executor langsung)
+        WishlistItem item = itemRepository.findByUserOrderByCreatedAtDesc(user).get(0);
+        assertNotNull(item.getImageUrl());
+        assertNotNull(imageVariantService.srcset(item.getImageUrl()));
+        assertFalse(item.isImageProcessing());
+        String base = item.getImageUrl().substring(0, item.getImageUrl().lastIndexOf('.'));
+
+        String dashboard = mockMvc.perform(get("/wishlist").session(session))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertTrue(dashboard.contains("srcset=\"/uploads/" + base + "-400w.png 400w, /uploads/" + base + "-960w.png 960w, "
+                + "/uploads/" + item.getImageUrl() + " 1600w\""), dashboard);
+
+        String detail = mockMvc.perform(get("/wishlist/" + item.getId()).session(session))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+        assertTrue(detail.contains("/uploads/" + base + "-960w.png 960w"));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.ORANGE);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
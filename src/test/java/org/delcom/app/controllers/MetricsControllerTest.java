@@ -0,0 +1,84 @@
+package org.delcom.app.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.metrics.enabled=true", "app.metrics.token=" + MetricsControllerTest.TOKEN})
+@AutoConfigureMockMvc
+class MetricsControllerTest {
+
+    static final String TOKEN = "scrape-secret";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private MetricsController metricsController;
+
+    @Test
+    void testScrapeWithoutLoginIncludesRouteLatency() throws Exception {
+        mockMvc.perform(get("/auth/login")).andExpect(status().isOk());
+
+        String body = mockMvc.perform(scrape())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("http_server_requests_seconds_count{method=\"GET\",uri=\"/auth/login\",status=\"2xx\"}"), body);
+        assertTrue(body.contains("http_server_requests_seconds{method=\"GET\",uri=\"/auth/login\",status=\"2xx\",quantile=\"0.99\"}"));
+        assertTrue(body.contains("app_user_cache_hits_total"));
+        assertTrue(body.contains("app_password_hash_total"));
+    }
+
+    @Test
+    void testFormLoginAnsweredBySecurityIsMeasured() throws Exception {
+        // Dijawab UsernamePasswordAuthenticationFilter (redirect ?error), tidak pernah sampai ke MVC
+        mockMvc.perform(post("/auth/login/post").param("email", "nobody@example.com").param("password", "wrong"))
+                .andExpect(status().is3xxRedirection());
+        // Halaman terproteksi tanpa sesi: redirect ke login dari security
+        mockMvc.perform(get("/wishlist")).andExpect(status().is3xxRedirection());
+
+        String body = mockMvc.perform(scrape()).andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("http_server_requests_seconds_count{method=\"POST\",uri=\"/auth/login/post\",status=\"3xx\"}"), body);
+        assertTrue(body.contains("http_server_requests_seconds_count{method=\"GET\",uri=\"UNMATCHED\",status=\"3xx\"}"), body);
+    }
+
+    @Test
+    void testScrapeWithoutValidTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string("WWW-Authenticate", "Bearer"))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/metrics").header("Authorization", "Bearer wrong"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        assertFalse((Boolean) ReflectionTestUtils.getField(new MetricsController(), "enabled"));
+    }
+
+    @Test
+    void testDisabledEndpointReturns404() throws Exception {
+        ReflectionTestUtils.setField(metricsController, "enabled", false);
+        try {
+            mockMvc.perform(scrape()).andExpect(status().isNotFound());
+        } finally {
+            ReflectionTestUtils.setField(metricsController, "enabled", true);
+        }
+    }
+
+    private static MockHttpServletRequestBuilder scrape() {
+        return get("/metrics").header("Authorization", "Bearer " + TOKEN);
+    }
+}
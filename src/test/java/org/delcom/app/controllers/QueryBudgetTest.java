@@ -0,0 +1,101 @@
+package org.delcom.app.controllers;
+
+import org.delcom.app.configs.QueryBudget;
+import org.delcom.app.configs.QueryContext;
+import org.delcom.app.entities.User;
+import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.services.WishlistService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Batas jumlah query per halaman: regresi yang diam-diam menambah query langsung ketahuan di sini
+@SpringBootTest(properties = "app.password-hash.cost=4")
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WishlistService wishlistService;
+    @Autowired private PasswordEncoder passwordEncoder;
+
+    private User user;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String email = "budget-" + UUID.randomUUID() + "@example.com";
+        user = new User();
+        user.setName("Budget " + UUID.randomUUID());
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user.setRole("USER");
+        user = userRepository.save(user);
+        for (int i = 0; i < 30; i++) {
+            WishlistForm form = new WishlistForm();
+            form.setName("Item " + i);
+            form.setCategory(i % 2 == 0 ? "Buku" : "Gadget");
+            form.setPrice(BigDecimal.valueOf(1000 + i));
+            wishlistService.addItem(user, form);
+        }
+
+        session = (MockHttpSession) mockMvc.perform(post("/auth/login/post").param("email", email).param("password", "secret123"))
+                .andReturn().getRequest().getSession();
+        // Login tidak mengisi CurrentUserCache (hanya setelah ter-autentikasi): request pertama yang mengisinya,
+        // budget di bawah untuk request berikutnya
+        mockMvc.perform(get("/user/profile").session(session)).andExpect(status().isOk());
+    }
+
+    @Test
+    void testDashboardQueryBudget() throws Exception {
+        // halaman pertama item + ringkasan wishlist_user_stats
+        QueryBudget.assertAtMost(2, () -> mockMvc.perform(get("/wishlist").session(session)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void testLoadMoreQueryBudget() throws Exception {
+        QueryBudget.assertAtMost(1, () -> mockMvc.perform(get("/wishlist/items").session(session)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void testStatisticsQueryBudget() throws Exception {
+        // ringkasan + per kategori + daftar item untuk grafik, tidak lagi menghitung ulang dari semua item
+        QueryContext queries = QueryBudget.assertAtMost(3,
+                () -> mockMvc.perform(get("/wishlist/stats").session(session)).andExpect(status().isOk()));
+        assertEquals(1, queries.getStatements().keySet().stream().filter(sql -> sql.contains("from wishlist_items")).count());
+    }
+
+    @Test
+    void testProfileServedFromUserCache() throws Exception {
+        QueryBudget.assertAtMost(1, () -> mockMvc.perform(get("/user/profile").session(session)).andExpect(status().isOk()));
+    }
+
+    @Test
+    void testRepeatedLookupsAreDetected() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        wishlistService.getAllItems(user).forEach(item -> ids.add(item.getId()));
+
+        // Pola N+1: satu query per item
+        AssertionError error = assertThrows(AssertionError.class, () -> QueryBudget.assertNoRepeatedStatements(5,
+                () -> ids.forEach(id -> wishlistService.findByIdForUser(id, user))));
+        assertTrue(error.getMessage().contains("30x select"), error.getMessage());
+
+        QueryBudget.assertNoRepeatedStatements(2, () -> wishlistService.getAllItems(user));
+    }
+}
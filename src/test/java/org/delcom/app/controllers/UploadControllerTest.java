@@ -0,0 +1,192 @@
+package org.delcom.app.controllers;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UploadControllerTest {
+
+    private static final String HASH = "ab".repeat(32);
+    private static final String BLOB = HASH + ".png";
+    private static final String VARIANT = HASH + "-400w.png";
+    private static final String LEGACY = "item_3f2a7c1e-0000-4000-8000-000000000001.jpg";
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    private static Path dir;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UploadController uploadController;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) throws IOException {
+        dir = Files.createTempDirectory("serve-uploads");
+        registry.add("app.upload.dir", () -> dir.toString());
+    }
+
+    @BeforeEach
+    void files() throws IOException {
+        Files.writeString(dir.resolve(BLOB), CONTENT);
+        Files.writeString(dir.resolve(VARIANT), "variant");
+        Files.writeString(dir.resolve(LEGACY), CONTENT);
+        Files.setLastModifiedTime(dir.resolve(LEGACY), FileTime.from(Instant.parse("2025-11-04T10:00:00Z")));
+        Files.writeString(dir.resolve(".upload-123.tmp"), "partial");
+    }
+
+    @Test
+    void testContentAddressedIsImmutable() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/uploads/" + BLOB))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+        assertEquals(UploadController.IMMUTABLE, response.getHeader("Cache-Control"));
+        assertNotNull(response.getHeader("Last-Modified"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals("image/png", response.getContentType());
+        assertEquals(CONTENT.length(), response.getContentLength());
+    }
+
+    @Test
+    void testVariantKeepsWidthInEtag() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/uploads/" + VARIANT))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals("\"" + HASH + "-400w\"", response.getHeader("ETag"));
+        assertEquals(UploadController.IMMUTABLE, response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void testIfNoneMatchReturns304WithoutBody() throws Exception {
+        long before = uploadController.getNotModified();
+
+        MockHttpServletResponse response = mockMvc.perform(get("/uploads/" + BLOB).header("If-None-Match", "\"" + HASH + "\""))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(UploadController.IMMUTABLE, response.getHeader("Cache-Control"));
+        assertEquals(before + 1, uploadController.getNotModified());
+    }
+
+    @Test
+    void testLegacyNameRevalidatesWithWeakEtag() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/uploads/" + LEGACY))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals(UploadController.REVALIDATE, response.getHeader("Cache-Control"));
+        String etag = response.getHeader("ETag");
+        assertTrue(etag.startsWith("W/\""), etag);
+        assertEquals("image/jpeg", response.getContentType());
+
+        mockMvc.perform(get("/uploads/" + LEGACY).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/uploads/" + LEGACY).header("If-Modified-Since", "Tue, 04 Nov 2025 10:00:00 GMT"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/uploads/" + LEGACY).header("If-Modified-Since", "Mon, 03 Nov 2025 10:00:00 GMT"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testSingleRangeReturns206() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/uploads/" + BLOB).header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/20", response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLength());
+
+        response = mockMvc.perform(get("/uploads/" + BLOB).header("Range", "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+        assertEquals("hij", response.getContentAsString());
+        assertEquals("bytes 17-19/20", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void testUnsatisfiableRangeReturns416() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/uploads/" + BLOB).header("Range", "bytes=50-60"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andReturn().getResponse();
+
+        assertEquals("bytes */20", response.getHeader("Content-Range"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testMultipleRangesOrStaleIfRangeSendWholeFile() throws Exception {
+        mockMvc.perform(get("/uploads/" + BLOB).header("Range", "bytes=0-1,4-5"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/uploads/" + BLOB).header("Range", "bytes=0-1").header("If-Range", "\"other\""))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/uploads/" + BLOB).header("Range", "bytes=0-1").header("If-Range", "\"" + HASH + "\""))
+                .andExpect(status().isPartialContent());
+        // ETag lemah tidak pernah memenuhi If-Range
+        String weak = mockMvc.perform(get("/uploads/" + LEGACY)).andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/uploads/" + LEGACY).header("Range", "bytes=0-1").header("If-Range", weak))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testHeadSendsHeadersOnly() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(head("/uploads/" + BLOB))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals(CONTENT.length(), response.getContentLength());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void testSendfileHandedToConnector() throws Exception {
+        uploadController.setSendfileThreshold(1);
+        try {
+            MvcResult result = mockMvc.perform(get("/uploads/" + BLOB).header("Range", "bytes=5-")
+                            .requestAttr(UploadController.SENDFILE_SUPPORT, Boolean.TRUE))
+                    .andExpect(status().isPartialContent())
+                    .andReturn();
+
+            assertEquals(dir.resolve(BLOB).toAbsolutePath().toString(),
+                    result.getRequest().getAttribute(UploadController.SENDFILE_FILENAME));
+            assertEquals(5L, result.getRequest().getAttribute(UploadController.SENDFILE_START));
+            assertEquals(20L, result.getRequest().getAttribute(UploadController.SENDFILE_END));
+            assertEquals(0, result.getResponse().getContentAsByteArray().length);
+            assertEquals(15, result.getResponse().getContentLength());
+        } finally {
+            uploadController.setSendfileThreshold(49152);
+        }
+    }
+
+    @Test
+    void testMissingTemporaryAndTraversalAre404() throws Exception {
+        mockMvc.perform(get("/uploads/" + "cd".repeat(32) + ".png")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/.upload-123.tmp")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/uploads/..%2Fsecret.txt")).andExpect(status().is4xxClientError());
+        assertNull(uploadController.resolve(".."));
+        assertNull(uploadController.resolve("a/../../etc/passwd"));
+        assertEquals(dir.resolve(BLOB).toAbsolutePath().normalize(), uploadController.resolve(BLOB));
+    }
+}
@@ -1,11 +1,14 @@
 package org.delcom.app.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.dto.WishlistPage;
 import org.delcom.app.dto.WishlistStats;
 import org.delcom.app.entities.User;
 import org.delcom.app.entities.WishlistItem;
 import org.delcom.app.services.AuthService;
 import org.delcom.app.services.WishlistService;
+import org.delcom.app.utils.ConstUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -90,7 +93,7 @@ class WishlistControllerTests {
         // Arrange
         UUID itemId = testItem.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
-        when(wishlistService.getAllItems(testUser)).thenReturn(testItems);
+        when(wishlistService.findByIdForUser(itemId, testUser)).thenReturn(testItem);
 
         // Act
         String result = wishlistController.viewDetail(itemId, model);
@@ -98,7 +101,8 @@ class WishlistControllerTests {
         // Assert
         assertEquals("wishlist/detail", result);
         verify(authService).getCurrentUser();
-        verify(wishlistService).getAllItems(testUser);
+        verify(wishlistService).findByIdForUser(itemId, testUser);
+        verify(wishlistService, never()).getAllItems(any());
         verify(model).addAttribute("item", testItem);
     }
 
@@ -115,7 +119,7 @@ class WishlistControllerTests {
         // Assert
         assertEquals("redirect:/auth/login", result);
         verify(authService).getCurrentUser();
-        verify(wishlistService, never()).getAllItems(any());
+        verify(wishlistService, never()).findByIdForUser(any(), any());
     }
 
     @Test
@@ -124,7 +128,7 @@ class WishlistControllerTests {
         // Arrange
         UUID nonExistentId = UUID.randomUUID();
         when(authService.getCurrentUser()).thenReturn(testUser);
-        when(wishlistService.getAllItems(testUser)).thenReturn(testItems);
+        when(wishlistService.findByIdForUser(nonExistentId, testUser)).thenReturn(null);
 
         // Act
         String result = wishlistController.viewDetail(nonExistentId, model);
@@ -132,7 +136,7 @@ class WishlistControllerTests {
         // Assert
         assertEquals("redirect:/wishlist", result);
         verify(authService).getCurrentUser();
-        verify(wishlistService).getAllItems(testUser);
+        verify(wishlistService).findByIdForUser(nonExistentId, testUser);
         verify(model, never()).addAttribute(eq("item"), any());
     }
 
@@ -182,7 +186,8 @@ class WishlistControllerTests {
     void testDashboardSuccess() {
         // Arrange
         when(authService.getCurrentUser()).thenReturn(testUser);
-        when(wishlistService.getAllItems(testUser)).thenReturn(testItems);
+        when(wishlistService.getItemsPage(testUser, null, ConstUtil.WISHLIST_PAGE_SIZE))
+                .thenReturn(new WishlistPage(testItems, "next-cursor"));
         when(wishlistService.countPending(testUser)).thenReturn(5L);
         when(wishlistService.countBought(testUser)).thenReturn(3L);
 
@@ -192,11 +197,13 @@ class WishlistControllerTests {
         // Assert
         assertEquals("wishlist/dashboard", result);
         verify(authService).getCurrentUser();
-        verify(wishlistService).getAllItems(testUser);
+        verify(wishlistService).getItemsPage(testUser, null, ConstUtil.WISHLIST_PAGE_SIZE);
+        verify(wishlistService, never()).getAllItems(any());
         verify(wishlistService).countPending(testUser);
         verify(wishlistService).countBought(testUser);
         verify(model).addAttribute("user", testUser);
         verify(model).addAttribute("items", testItems);
+        verify(model).addAttribute("nextCursor", "next-cursor");
         verify(model).addAttribute("totalPending", 5L);
         verify(model).addAttribute("totalBought", 3L);
     }
@@ -213,7 +220,74 @@ class WishlistControllerTests {
         // Assert
         assertEquals("redirect:/auth/login", result);
         verify(authService).getCurrentUser();
-        verify(wishlistService, never()).getAllItems(any());
+        verify(wishlistService, never()).getItemsPage(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Test loadMoreItems() returns cards fragment and next cursor header")
+    void testLoadMoreItemsWithNextPage() {
+        // Arrange
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(wishlistService.getItemsPage(testUser, "cursor-1", 12))
+                .thenReturn(new WishlistPage(testItems, "cursor-2"));
+
+        // Act
+        String result = wishlistController.loadMoreItems("cursor-1", 12, model, response);
+
+        // Assert
+        assertEquals("wishlist/dashboard :: cards", result);
+        verify(model).addAttribute("items", testItems);
+        verify(response).setHeader(WishlistController.NEXT_CURSOR_HEADER, "cursor-2");
+    }
+
+    @Test
+    @DisplayName("Test loadMoreItems() on last page sends no cursor header")
+    void testLoadMoreItemsLastPage() {
+        // Arrange
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(wishlistService.getItemsPage(testUser, "cursor-1", 12))
+                .thenReturn(new WishlistPage(testItems, null));
+
+        // Act
+        String result = wishlistController.loadMoreItems("cursor-1", 12, model, response);
+
+        // Assert
+        assertEquals("wishlist/dashboard :: cards", result);
+        verify(response, never()).setHeader(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Test loadMoreItems() with invalid cursor returns empty fragment")
+    void testLoadMoreItemsInvalidCursor() {
+        // Arrange
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(wishlistService.getItemsPage(testUser, "rusak", 12))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // Act
+        String result = wishlistController.loadMoreItems("rusak", 12, model, response);
+
+        // Assert
+        assertEquals("wishlist/dashboard :: cards", result);
+        verify(model).addAttribute("items", List.of());
+        verify(response, never()).setHeader(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Test loadMoreItems() with no authenticated user - should redirect to login")
+    void testLoadMoreItemsNoUser() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(null);
+
+        // Act
+        String result = wishlistController.loadMoreItems(null, 12, model, mock(HttpServletResponse.class));
+
+        // Assert
+        assertEquals("redirect:/auth/login", result);
+        verify(wishlistService, never()).getItemsPage(any(), any(), anyInt());
     }
 
     @Test
@@ -264,14 +338,15 @@ class WishlistControllerTests {
     void testShowEditFormSuccess() {
         // Arrange
         UUID itemId = testItem.getId();
-        when(wishlistService.findById(itemId)).thenReturn(testItem);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(wishlistService.findByIdForUser(itemId, testUser)).thenReturn(testItem);
 
         // Act
         String result = wishlistController.showEditForm(itemId, model);
 
         // Assert
         assertEquals("wishlist/form", result);
-        verify(wishlistService).findById(itemId);
+        verify(wishlistService).findByIdForUser(itemId, testUser);
         verify(model).addAttribute(eq("wishlistForm"), any(WishlistForm.class));
         verify(model).addAttribute("isEdit", true);
     }
@@ -281,17 +356,32 @@ class WishlistControllerTests {
     void testShowEditFormItemNotFound() {
         // Arrange
         UUID itemId = UUID.randomUUID();
-        when(wishlistService.findById(itemId)).thenReturn(null);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(wishlistService.findByIdForUser(itemId, testUser)).thenReturn(null);
 
         // Act
         String result = wishlistController.showEditForm(itemId, model);
 
         // Assert
         assertEquals("redirect:/wishlist", result);
-        verify(wishlistService).findById(itemId);
+        verify(wishlistService).findByIdForUser(itemId, testUser);
         verify(model, never()).addAttribute(eq("wishlistForm"), any());
     }
 
+    @Test
+    @DisplayName("Test showEditForm() with no authenticated user - should redirect to login")
+    void testShowEditFormNoUser() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(null);
+
+        // Act
+        String result = wishlistController.showEditForm(testItem.getId(), model);
+
+        // Assert
+        assertEquals("redirect:/auth/login", result);
+        verify(wishlistService, never()).findByIdForUser(any(), any());
+    }
+
     @Test
     @DisplayName("Test processUpdate() with authenticated user")
     void testProcessUpdateSuccess() throws IOException {
@@ -329,14 +419,29 @@ class WishlistControllerTests {
     void testToggleStatus() {
         // Arrange
         UUID itemId = testItem.getId();
-        doNothing().when(wishlistService).changeStatus(itemId);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        doNothing().when(wishlistService).changeStatus(testUser, itemId);
 
         // Act
         String result = wishlistController.toggleStatus(itemId);
 
         // Assert
         assertEquals("redirect:/wishlist", result);
-        verify(wishlistService).changeStatus(itemId);
+        verify(wishlistService).changeStatus(testUser, itemId);
+    }
+
+    @Test
+    @DisplayName("Test toggleStatus() with no authenticated user - should redirect to login")
+    void testToggleStatusNoUser() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(null);
+
+        // Act
+        String result = wishlistController.toggleStatus(testItem.getId());
+
+        // Assert
+        assertEquals("redirect:/auth/login", result);
+        verify(wishlistService, never()).changeStatus(any(), any());
     }
 
     @Test
@@ -344,14 +449,29 @@ class WishlistControllerTests {
     void testDeleteItem() {
         // Arrange
         UUID itemId = testItem.getId();
-        doNothing().when(wishlistService).deleteItem(itemId);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        doNothing().when(wishlistService).deleteItem(testUser, itemId);
 
         // Act
         String result = wishlistController.deleteItem(itemId);
 
         // Assert
         assertEquals("redirect:/wishlist", result);
-        verify(wishlistService).deleteItem(itemId);
+        verify(wishlistService).deleteItem(testUser, itemId);
+    }
+
+    @Test
+    @DisplayName("Test deleteItem() with no authenticated user - should redirect to login")
+    void testDeleteItemNoUser() {
+        // Arrange
+        when(authService.getCurrentUser()).thenReturn(null);
+
+        // Act
+        String result = wishlistController.deleteItem(testItem.getId());
+
+        // Assert
+        assertEquals("redirect:/auth/login", result);
+        verify(wishlistService, never()).deleteItem(any(), any());
     }
 
     // ========== ADDITIONAL INTEGRATION & EDGE CASE TESTS ==========
@@ -361,7 +481,8 @@ class WishlistControllerTests {
     void testShowEditFormLoadsAllFields() {
         // Arrange
         UUID itemId = testItem.getId();
-        when(wishlistService.findById(itemId)).thenReturn(testItem);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        when(wishlistService.findByIdForUser(itemId, testUser)).thenReturn(testItem);
 
         // Act
         String result = wishlistController.showEditForm(itemId, model);
@@ -418,7 +539,8 @@ class WishlistControllerTests {
         // Arrange
         List<WishlistItem> emptyList = new ArrayList<>();
         when(authService.getCurrentUser()).thenReturn(testUser);
-        when(wishlistService.getAllItems(testUser)).thenReturn(emptyList);
+        when(wishlistService.getItemsPage(testUser, null, ConstUtil.WISHLIST_PAGE_SIZE))
+                .thenReturn(new WishlistPage(emptyList, null));
         when(wishlistService.countPending(testUser)).thenReturn(0L);
         when(wishlistService.countBought(testUser)).thenReturn(0L);
 
@@ -428,6 +550,7 @@ class WishlistControllerTests {
         // Assert
         assertEquals("wishlist/dashboard", result);
         verify(model).addAttribute("items", emptyList);
+        verify(model).addAttribute("nextCursor", null);
         verify(model).addAttribute("totalPending", 0L);
         verify(model).addAttribute("totalBought", 0L);
     }
@@ -450,12 +573,12 @@ class WishlistControllerTests {
     }
 
     @Test
-    @DisplayName("Test viewDetail() with empty wishlist - should redirect")
-    void testViewDetailWithEmptyWishlist() {
-        // Arrange
+    @DisplayName("Test viewDetail() with item owned by another user - should redirect")
+    void testViewDetailItemOfOtherUser() {
+        // Arrange - lookup (id, user) tidak menemukan item milik user lain
         UUID itemId = UUID.randomUUID();
         when(authService.getCurrentUser()).thenReturn(testUser);
-        when(wishlistService.getAllItems(testUser)).thenReturn(new ArrayList<>());
+        when(wishlistService.findByIdForUser(itemId, testUser)).thenReturn(null);
 
         // Act
         String result = wishlistController.viewDetail(itemId, model);
@@ -466,25 +589,12 @@ class WishlistControllerTests {
     }
 
     @Test
-    @DisplayName("Test lambda in viewDetail() filters correctly with multiple items")
-    void testViewDetailLambdaFilteringMultipleItems() {
+    @DisplayName("Test viewDetail() looks up a single item without loading the whole wishlist")
+    void testViewDetailSingleLookup() {
         // Arrange
-        WishlistItem item2 = new WishlistItem();
-        item2.setId(UUID.randomUUID());
-        item2.setName("Xbox Series X");
-        
-        WishlistItem item3 = new WishlistItem();
-        item3.setId(UUID.randomUUID());
-        item3.setName("Nintendo Switch");
-        
-        List<WishlistItem> multipleItems = new ArrayList<>();
-        multipleItems.add(testItem);
-        multipleItems.add(item2);
-        multipleItems.add(item3);
-
         UUID targetId = testItem.getId();
         when(authService.getCurrentUser()).thenReturn(testUser);
-        when(wishlistService.getAllItems(testUser)).thenReturn(multipleItems);
+        when(wishlistService.findByIdForUser(targetId, testUser)).thenReturn(testItem);
 
         // Act
         String result = wishlistController.viewDetail(targetId, model);
@@ -492,6 +602,7 @@ class WishlistControllerTests {
         // Assert
         assertEquals("wishlist/detail", result);
         verify(model).addAttribute("item", testItem);
+        verify(wishlistService, never()).getAllItems(any());
     }
 
     @Test
@@ -539,7 +650,8 @@ class WishlistControllerTests {
     void testToggleStatusRedirectPath() {
         // Arrange
         UUID itemId = UUID.randomUUID();
-        doNothing().when(wishlistService).changeStatus(itemId);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        doNothing().when(wishlistService).changeStatus(testUser, itemId);
 
         // Act
         String result = wishlistController.toggleStatus(itemId);
@@ -554,7 +666,8 @@ class WishlistControllerTests {
     void testDeleteItemRedirectPath() {
         // Arrange
         UUID itemId = UUID.randomUUID();
-        doNothing().when(wishlistService).deleteItem(itemId);
+        when(authService.getCurrentUser()).thenReturn(testUser);
+        doNothing().when(wishlistService).deleteItem(testUser, itemId);
 
         // Act
         String result = wishlistController.deleteItem(itemId);
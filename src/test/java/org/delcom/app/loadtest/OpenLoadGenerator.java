@@ -0,0 +1,110 @@
+package org.delcom.app.loadtest;
+
+import org.delcom.app.utils.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generator beban model terbuka: request datang sesuai jadwal (Poisson atau rata) pada rate target,
+ * tidak menunggu request sebelumnya selesai. Latensi dihitung dari waktu JADWAL kedatangan, bukan saat
+ * request benar-benar dikirim, jadi server yang melambat tidak menyembunyikan antrean (coordinated omission).
+ * Kedatangan yang terjadi saat maxConcurrency request masih berjalan dihitung "dropped".
+ */
+final class OpenLoadGenerator {
+
+    @FunctionalInterface
+    interface Operation {
+        // true = respons sesuai harapan
+        boolean execute(Random random) throws Exception;
+    }
+
+    // Nama endpoint + bobot dalam campuran beban
+    record Step(String name, int weight, Operation operation) { }
+
+    static final class EndpointStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+    }
+
+    private final double ratePerSecond;
+    private final long durationNanos;
+    private final int maxConcurrency;
+    private final boolean poisson;
+    private final Random random;
+
+    OpenLoadGenerator(double ratePerSecond, long durationSeconds, int maxConcurrency, boolean poisson, long seed) {
+        this.ratePerSecond = ratePerSecond;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.maxConcurrency = maxConcurrency;
+        this.poisson = poisson;
+        this.random = new Random(seed);
+    }
+
+    Map<String, EndpointStats> run(List<Step> steps) throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        List<Step> weighted = new ArrayList<>();
+        for (Step step : steps) {
+            stats.put(step.name(), new EndpointStats());
+            for (int i = 0; i < step.weight(); i++) weighted.add(step);
+        }
+
+        ExecutorService pool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger inFlight = new AtomicInteger();
+        long start = System.nanoTime();
+        long intended = start;
+        try {
+            while (intended - start < durationNanos) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) LockSupport.parkNanos(wait);
+
+                Step step = weighted.get(random.nextInt(weighted.size()));
+                EndpointStats endpoint = stats.get(step.name());
+                long scheduledAt = intended;
+                if (inFlight.incrementAndGet() > maxConcurrency) {
+                    inFlight.decrementAndGet();
+                    endpoint.dropped.incrementAndGet();
+                } else {
+                    long seed = random.nextLong();
+                    pool.execute(() -> {
+                        boolean ok;
+                        try {
+                            ok = step.operation().execute(new Random(seed));
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        endpoint.latency.record(System.nanoTime() - scheduledAt);
+                        if (!ok) endpoint.errors.incrementAndGet();
+                        inFlight.decrementAndGet();
+                    });
+                }
+                intended += nextGapNanos();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(60, TimeUnit.SECONDS);
+        }
+        return stats;
+    }
+
+    // Jarak antar kedatangan: eksponensial (Poisson) atau tetap
+    private long nextGapNanos() {
+        double meanNanos = 1_000_000_000.0 / ratePerSecond;
+        if (!poisson) return (long) meanNanos;
+        return (long) (-Math.log(1 - random.nextDouble()) * meanNanos);
+    }
+}
@@ -0,0 +1,192 @@
+package org.delcom.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.delcom.app.controllers.UploadController;
+import org.delcom.app.utils.LatencyHistogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput GET /uploads (UploadController) dengan banyak fetch gambar serentak, seperti satu halaman
+ * dashboard penuh gambar dibuka banyak browser sekaligus. Tiap putaran mengirim loadtest.uploads.concurrency
+ * request sekaligus (default 1000) lalu menunggu semuanya selesai. Skenario:
+ *   full-sendfile (body lewat sendfile connector), full-copy (FileChannel.transferTo ke stream response),
+ *   range (206 satu rentang), not-modified (If-None-Match -> 304, isi file tidak dibaca).
+ * Jalankan dengan: mvn test -Ploadtest -Dtest=UploadServingLoadTest
+ * Opsi (-D...): loadtest.uploads.concurrency=1000 loadtest.uploads.rounds=3 loadtest.uploads.files=20
+ *   loadtest.uploads.file-kb=128 loadtest.max-error-rate=0.01
+ * Hasil per skenario juga ditulis ke target/loadtest-results/UploadServingLoadTest.json.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class UploadServingLoadTest {
+
+    private static Path uploadDir;
+
+    @LocalServerPort private int port;
+    @Autowired private UploadController uploadController;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) throws IOException {
+        uploadDir = Files.createTempDirectory("loadtest-serve-uploads");
+        registry.add("app.upload.dir", () -> uploadDir.toString());
+    }
+
+    @Test
+    void serveConcurrentImageFetches() throws Exception {
+        int concurrency = Integer.getInteger("loadtest.uploads.concurrency", 1000);
+        int rounds = Integer.getInteger("loadtest.uploads.rounds", 3);
+        int fileCount = Integer.getInteger("loadtest.uploads.files", 20);
+        int fileBytes = Integer.getInteger("loadtest.uploads.file-kb", 128) * 1024;
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+        List<String> names = seed(fileCount, fileBytes);
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(8);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(clientExecutor)
+                .build();
+        try {
+            String base = "http://localhost:" + port + "/uploads/";
+            IntFunction<HttpRequest.Builder> fetch = i -> HttpRequest.newBuilder(URI.create(base + names.get(i % names.size())))
+                    .timeout(Duration.ofSeconds(60));
+
+            // Pemanasan (JIT + buka koneksi keep-alive), tidak dicatat
+            run(client, "warmup", concurrency, 1, i -> fetch.apply(i).build(), 200, fileBytes);
+
+            List<Map<String, Object>> rows = new ArrayList<>();
+            long sendfileBefore = uploadController.getSendfileBytes();
+            rows.add(run(client, "full-sendfile", concurrency, rounds, i -> fetch.apply(i).build(), 200, fileBytes));
+            long sendfileBytes = uploadController.getSendfileBytes() - sendfileBefore;
+
+            Object threshold = ReflectionTestUtils.getField(uploadController, "sendfileThreshold");
+            ReflectionTestUtils.setField(uploadController, "sendfileThreshold", Long.MAX_VALUE);
+            try {
+                rows.add(run(client, "full-copy", concurrency, rounds, i -> fetch.apply(i).build(), 200, fileBytes));
+            } finally {
+                ReflectionTestUtils.setField(uploadController, "sendfileThreshold", threshold);
+            }
+
+            rows.add(run(client, "range", concurrency, rounds,
+                    i -> fetch.apply(i).header("Range", "bytes=0-" + (fileBytes / 4 - 1)).build(), 206, fileBytes / 4));
+            rows.add(run(client, "not-modified", concurrency, rounds, i -> {
+                String name = names.get(i % names.size());
+                return fetch.apply(i).header("If-None-Match", "\"" + name.substring(0, name.indexOf('.')) + "\"").build();
+            }, 304, 0));
+
+            report(rows, concurrency, fileBytes, sendfileBytes);
+            for (Map<String, Object> row : rows) {
+                double errorRate = (double) (long) row.get("errors") / (long) row.get("requests");
+                assertTrue(errorRate <= maxErrorRate, row.get("scenario") + " error rate " + errorRate + " > " + maxErrorRate);
+            }
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    // File acak (tidak bisa dikompres) dengan nama content-addressed seperti hasil FileStorageService
+    private static List<String> seed(int count, int bytes) throws Exception {
+        Random random = new Random(42);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] content = new byte[bytes];
+            random.nextBytes(content);
+            String name = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)) + ".jpg";
+            Files.write(uploadDir.resolve(name), content);
+            names.add(name);
+        }
+        return names;
+    }
+
+    private static Map<String, Object> run(HttpClient client, String scenario, int concurrency, int rounds,
+                                           IntFunction<HttpRequest> request, int expectedStatus, long expectedBytes) {
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+
+        long started = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            CompletableFuture<?>[] inFlight = new CompletableFuture<?>[concurrency];
+            for (int i = 0; i < concurrency; i++) {
+                AtomicLong received = new AtomicLong();
+                HttpResponse.BodyHandler<Void> counting = info -> HttpResponse.BodySubscribers.ofByteArrayConsumer(
+                        chunk -> chunk.ifPresent(b -> received.addAndGet(b.length)));
+                long sent = System.nanoTime();
+                inFlight[i] = client.sendAsync(request.apply(i), counting).handle((response, error) -> {
+                    latency.record(System.nanoTime() - sent);
+                    if (error != null || response.statusCode() != expectedStatus || received.get() != expectedBytes) {
+                        errors.incrementAndGet();
+                    } else {
+                        bytes.addAndGet(received.get());
+                    }
+                    return null;
+                });
+            }
+            CompletableFuture.allOf(inFlight).join();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("scenario", scenario);
+        row.put("requests", latency.getCount());
+        row.put("errors", errors.get());
+        row.put("requestsPerSecond", latency.getCount() / seconds);
+        row.put("megabytesPerSecond", bytes.get() / seconds / (1024 * 1024));
+        row.put("p50Millis", latency.valueAtPercentile(50) / 1e6);
+        row.put("p99Millis", latency.valueAtPercentile(99) / 1e6);
+        row.put("maxMillis", latency.getMax() / 1e6);
+        return row;
+    }
+
+    // --- LAPORAN ---
+
+    private void report(List<Map<String, Object>> rows, int concurrency, int fileBytes, long sendfileBytes) throws IOException {
+        System.out.println();
+        System.out.printf("%d fetch serentak, file %d KB, sendfile connector: %s%n", concurrency, fileBytes / 1024,
+                sendfileBytes > 0 ? sendfileBytes + " byte" : "tidak dipakai");
+        System.out.printf("%-14s %9s %7s %9s %9s %9s %9s %9s%n",
+                "skenario", "requests", "errors", "req/s", "MB/s", "p50 ms", "p99 ms", "max ms");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("%-14s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", row.values().toArray());
+        }
+
+        Path output = Paths.get("target", "loadtest-results", getClass().getSimpleName() + ".json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(),
+                Map.of("concurrency", concurrency, "fileBytes", fileBytes, "sendfileBytes", sendfileBytes, "scenarios", rows));
+        System.out.println("Hasil: " + output.toAbsolutePath());
+        System.out.println();
+    }
+}
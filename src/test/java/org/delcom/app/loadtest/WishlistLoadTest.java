@@ -0,0 +1,301 @@
+package org.delcom.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.delcom.app.configs.RequestLoggingFilter;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.services.WishlistStatsService;
+import org.delcom.app.utils.LatencyHistogram;
+import org.delcom.app.utils.UuidV7;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test end-to-end: aplikasi penuh (Tomcat + H2 in-memory) di port acak, N user dengan M item,
+ * lalu login / dashboard / stats / tambah item + upload gambar / toggle / hapus dikirim lewat HTTP
+ * dengan kedatangan model terbuka (lihat OpenLoadGenerator) pada rate target.
+ * Jalankan dengan: mvn test -Ploadtest
+ * Opsi (-D...): loadtest.users=20 loadtest.items=50 loadtest.rate=20 (request/detik) loadtest.duration-s=30
+ *   loadtest.mix=login:5,dashboard:40,stats:20,add:15,toggle:15,delete:5 loadtest.arrival=poisson|uniform
+ *   loadtest.max-concurrency=200 loadtest.bcrypt-cost=10 loadtest.max-error-rate=0.01
+ * Batas login per IP/email dilonggarkan karena semua beban datang dari 127.0.0.1.
+ * Hasil per endpoint juga ditulis ke target/loadtest-results/WishlistLoadTest.json.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.password-hash.cost=${loadtest.bcrypt-cost:10}",
+        "app.login-limit.ip.capacity=1000000",
+        "app.login-limit.ip.refill-per-minute=1000000",
+        "app.login-limit.email.capacity=1000000",
+        "app.login-limit.email.refill-per-minute=1000000"
+})
+class WishlistLoadTest {
+
+    private static final String PASSWORD = "loadtest123";
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Fashion", "Gaming", "Home"};
+
+    @LocalServerPort private int port;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WishlistStatsService statsService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private RequestLoggingFilter requestLoggingFilter;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final List<VirtualUser> users = new ArrayList<>();
+    private byte[] image;
+
+    // Satu user hasil seed: session login + id item miliknya
+    private static final class VirtualUser {
+        private final String email;
+        private final List<UUID> itemIds = Collections.synchronizedList(new ArrayList<>());
+        private volatile String sessionCookie;
+
+        private VirtualUser(String email) {
+            this.email = email;
+        }
+    }
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("loadtest-uploads");
+        registry.add("app.upload.dir", dir::toString);
+    }
+
+    @Test
+    void run() throws Exception {
+        int userCount = Integer.getInteger("loadtest.users", 20);
+        int itemCount = Integer.getInteger("loadtest.items", 50);
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "20"));
+        long duration = Long.getLong("loadtest.duration-s", 30);
+        int maxConcurrency = Integer.getInteger("loadtest.max-concurrency", 200);
+        boolean poisson = !"uniform".equalsIgnoreCase(System.getProperty("loadtest.arrival", "poisson"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+        seed(userCount, itemCount);
+        image = png();
+        for (VirtualUser user : users) {
+            user.sessionCookie = login(user);
+            if (user.sessionCookie == null) throw new IllegalStateException("Login awal gagal: " + user.email);
+        }
+
+        Map<String, OpenLoadGenerator.Operation> operations = new LinkedHashMap<>();
+        operations.put("login", r -> login(pick(r)) != null);
+        operations.put("dashboard", r -> get(pick(r), "/wishlist") == 200);
+        operations.put("stats", r -> get(pick(r), "/wishlist/stats") == 200);
+        operations.put("add", r -> addItem(pick(r), r));
+        operations.put("toggle", r -> itemAction(pick(r), r, false));
+        operations.put("delete", r -> itemAction(pick(r), r, true));
+
+        List<OpenLoadGenerator.Step> steps = new ArrayList<>();
+        for (String entry : System.getProperty("loadtest.mix", "login:5,dashboard:40,stats:20,add:15,toggle:15,delete:5").split(",")) {
+            String[] parts = entry.trim().split(":");
+            OpenLoadGenerator.Operation operation = operations.get(parts[0]);
+            if (operation == null) throw new IllegalArgumentException("Endpoint tidak dikenal di loadtest.mix: " + parts[0]);
+            steps.add(new OpenLoadGenerator.Step(parts[0], Integer.parseInt(parts[1]), operation));
+        }
+
+        System.out.printf("%nLoad test: %d user x %d item, %.1f req/s (%s) selama %d detik%n",
+                userCount, itemCount, rate, poisson ? "poisson" : "uniform", duration);
+        Map<String, OpenLoadGenerator.EndpointStats> stats =
+                new OpenLoadGenerator(rate, duration, maxConcurrency, poisson, 42).run(steps);
+
+        long total = 0;
+        long failed = 0;
+        for (OpenLoadGenerator.EndpointStats s : stats.values()) {
+            total += s.latency.getCount() + s.dropped.get();
+            failed += s.errors.get() + s.dropped.get();
+        }
+        requestLoggingFilter.flush(); // supaya log request tidak menyelip di tengah tabel
+        report(stats, duration);
+        assertTrue(total > 0);
+        assertTrue((double) failed / total <= maxErrorRate,
+                "Error rate " + failed + "/" + total + " melebihi loadtest.max-error-rate=" + maxErrorRate);
+    }
+
+    // --- SKENARIO ---
+
+    private VirtualUser pick(Random random) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    // JSESSIONID baru kalau login sukses, null kalau gagal
+    private String login(VirtualUser user) throws Exception {
+        String form = "email=" + URLEncoder.encode(user.email, StandardCharsets.UTF_8) + "&password=" + PASSWORD;
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri("/auth/login/post"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        boolean ok = response.statusCode() == 302
+                && response.headers().firstValue("Location").orElse("").endsWith("/wishlist");
+        if (!ok) return null;
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';') < 0 ? c.length() : c.indexOf(';')))
+                .findFirst().orElse(null);
+    }
+
+    private int get(VirtualUser user, String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).header("Cookie", user.sessionCookie).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private boolean addItem(VirtualUser user, Random random) throws Exception {
+        String boundary = "----loadtest" + random.nextLong();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        field(body, boundary, "name", "Load item " + random.nextInt(1_000_000));
+        field(body, boundary, "category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        field(body, boundary, "price", String.valueOf(10_000 + random.nextInt(1_000_000)));
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"imageFile\"; filename=\"item.png\"\r\n"
+                + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(image);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri("/wishlist/add"))
+                .header("Cookie", user.sessionCookie)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        return isRedirectToDashboard(response);
+    }
+
+    // Toggle / hapus item acak milik user; kalau itemnya sudah habis, buka dashboard saja
+    private boolean itemAction(VirtualUser user, Random random, boolean delete) throws Exception {
+        UUID id;
+        synchronized (user.itemIds) {
+            if (user.itemIds.isEmpty()) return get(user, "/wishlist") == 200;
+            int index = random.nextInt(user.itemIds.size());
+            id = delete ? user.itemIds.remove(index) : user.itemIds.get(index);
+        }
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri("/wishlist/" + id + (delete ? "/delete" : "/toggle")))
+                .header("Cookie", user.sessionCookie).GET().build(), HttpResponse.BodyHandlers.discarding());
+        return isRedirectToDashboard(response);
+    }
+
+    private static boolean isRedirectToDashboard(HttpResponse<Void> response) {
+        return response.statusCode() == 302 && response.headers().firstValue("Location").orElse("").endsWith("/wishlist");
+    }
+
+    private static void field(ByteArrayOutputStream body, String boundary, String name, String value) throws IOException {
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // --- DATA ---
+
+    // User + item lewat JDBC batch (satu hash password untuk semua user), statistik dihitung ulang per user
+    private void seed(int userCount, int itemCount) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int u = 0; u < userCount; u++) {
+            User user = new User();
+            user.setName("Load " + u + " " + UUID.randomUUID());
+            user.setEmail("load-" + u + "-" + UUID.randomUUID() + "@loadtest.local");
+            user.setPassword(hash);
+            user.setRole("USER");
+            User saved = userRepository.save(user);
+            VirtualUser virtualUser = new VirtualUser(saved.getEmail());
+
+            List<Object[]> batch = new ArrayList<>();
+            for (int i = 0; i < itemCount; i++) {
+                UUID id = UuidV7.generate();
+                virtualUser.itemIds.add(id);
+                batch.add(new Object[] {id, saved.getId(), "Item " + i, i % 3 == 0 ? "BOUGHT" : "PENDING",
+                        CATEGORIES[i % CATEGORIES.length], BigDecimal.valueOf(10_000 + i), BigDecimal.ZERO, now});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO wishlist_items (id, user_id, name, status, category, price, saved_amount, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+            statsService.rebuild(saved);
+            users.add(virtualUser);
+        }
+    }
+
+    private static byte[] png() throws IOException {
+        BufferedImage img = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(new Color(0x2E7D32));
+        g.fillRect(0, 0, 640, 480);
+        g.setColor(Color.WHITE);
+        g.fillOval(160, 80, 320, 320);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    // --- LAPORAN ---
+
+    private void report(Map<String, OpenLoadGenerator.EndpointStats> stats, long durationSeconds) throws IOException {
+        System.out.println();
+        System.out.printf("%-10s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map.Entry<String, OpenLoadGenerator.EndpointStats> e : stats.entrySet()) {
+            LatencyHistogram h = e.getValue().latency;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", e.getKey());
+            row.put("requests", h.getCount());
+            row.put("errors", e.getValue().errors.get());
+            row.put("dropped", e.getValue().dropped.get());
+            row.put("requestsPerSecond", (double) h.getCount() / durationSeconds);
+            row.put("p50Millis", h.valueAtPercentile(50) / 1e6);
+            row.put("p90Millis", h.valueAtPercentile(90) / 1e6);
+            row.put("p99Millis", h.valueAtPercentile(99) / 1e6);
+            row.put("p999Millis", h.valueAtPercentile(99.9) / 1e6);
+            row.put("maxMillis", h.getMax() / 1e6);
+            rows.add(row);
+            System.out.printf("%-10s %9d %7d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n", row.values().toArray());
+        }
+
+        Path output = Paths.get("target", "loadtest-results", getClass().getSimpleName() + ".json");
+        Files.createDirectories(output.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(),
+                Map.of("durationSeconds", durationSeconds, "endpoints", rows));
+        System.out.println("Hasil: " + output.toAbsolutePath());
+        System.out.println();
+    }
+}
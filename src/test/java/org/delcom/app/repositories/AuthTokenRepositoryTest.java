@@ -0,0 +1,64 @@
+package org.delcom.app.repositories;
+
+import org.delcom.app.entities.AuthToken;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AuthTokenRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AuthTokenRepository repository;
+
+    private AuthToken token(String value, LocalDateTime expiresAt) {
+        AuthToken token = new AuthToken();
+        token.setToken(value);
+        token.setUserId(UUID.randomUUID());
+        token.setCreatedAt(expiresAt.minusDays(1));
+        token.setExpiresAt(expiresAt);
+        return entityManager.persist(token);
+    }
+
+    @Test
+    void testFindExpiredIdsReturnsOldestFirstWithinLimit() {
+        LocalDateTime now = LocalDateTime.now();
+        AuthToken oldest = token("t-oldest", now.minusDays(3));
+        AuthToken older = token("t-older", now.minusDays(2));
+        token("t-old", now.minusDays(1));
+        token("t-active", now.plusDays(1));
+        entityManager.flush();
+
+        List<UUID> ids = repository.findExpiredIds(now, PageRequest.of(0, 2));
+
+        assertEquals(List.of(oldest.getId(), older.getId()), ids);
+    }
+
+    @Test
+    void testDeleteByIdInKeepsActiveTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        token("t-expired-1", now.minusHours(2));
+        token("t-expired-2", now.minusHours(1));
+        token("t-active", now.plusHours(1));
+        entityManager.flush();
+
+        int deleted = repository.deleteByIdIn(repository.findExpiredIds(now, PageRequest.of(0, 100)));
+        entityManager.clear();
+
+        assertEquals(2, deleted);
+        assertEquals(1, repository.count());
+        assertNotNull(repository.findByToken("t-active"));
+        assertNull(repository.findByToken("t-expired-1"));
+    }
+}
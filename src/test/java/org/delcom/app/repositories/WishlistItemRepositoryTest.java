@@ -1,5 +1,6 @@
 package org.delcom.app.repositories;
 
+import org.delcom.app.dto.WishlistStatsRow;
 import org.delcom.app.entities.Status;
 import org.delcom.app.entities.User;
 import org.delcom.app.entities.WishlistItem;
@@ -7,11 +8,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest // Ini anotasi khusus buat ngetes Repository
 class WishlistItemRepositoryTest {
@@ -45,4 +53,167 @@ class WishlistItemRepositoryTest {
         assertEquals(1, items.size());
         assertEquals("Laptop", items.get(0).getName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAggregateStatsByUser() {
+        User user = new User();
+        user.setName("Stats User");
+        user.setEmail("stats@email.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        // User lain, datanya tidak boleh ikut terhitung
+        User other = new User();
+        other.setName("Other User");
+        other.setEmail("other@email.com");
+        other.setPassword("password");
+        entityManager.persist(other);
+
+        persistItem(user, "Laptop", new BigDecimal("100.00"), "Electronics", Status.PENDING);
+        persistItem(user, "Mouse", null, "Electronics", Status.PENDING);
+        persistItem(user, "Novel", new BigDecimal("50.00"), "Books", Status.BOUGHT);
+        persistItem(other, "Phone", new BigDecimal("999.00"), "Electronics", Status.PENDING);
+        entityManager.flush();
+
+        List<WishlistStatsRow> rows = repository.aggregateStatsByUser(user);
+
+        assertEquals(2, rows.size());
+        WishlistStatsRow electronics = rows.stream()
+                .filter(r -> "Electronics".equals(r.getCategory())).findFirst().orElseThrow();
+        assertEquals(Status.PENDING, electronics.getStatus());
+        assertEquals(2L, electronics.getItemCount());
+        assertEquals(1L, electronics.getPricedCount());
+        assertEquals(0, new BigDecimal("100.00").compareTo(electronics.getTotalPrice()));
+
+        WishlistStatsRow books = rows.stream()
+                .filter(r -> "Books".equals(r.getCategory())).findFirst().orElseThrow();
+        assertEquals(Status.BOUGHT, books.getStatus());
+        assertEquals(1L, books.getItemCount());
+        assertEquals(0, new BigDecimal("50.00").compareTo(books.getTotalPrice()));
+    }
+
+    @Test
+    void testAggregateStatsByUserAllPricesNull() {
+        User user = new User();
+        user.setName("Null Price User");
+        user.setEmail("nullprice@email.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        persistItem(user, "Gift", null, "Misc", Status.PENDING);
+        entityManager.flush();
+
+        List<WishlistStatsRow> rows = repository.aggregateStatsByUser(user);
+
+        assertEquals(1, rows.size());
+        assertEquals(1L, rows.get(0).getItemCount());
+        assertEquals(0L, rows.get(0).getPricedCount());
+        assertNull(rows.get(0).getTotalPrice());
+    }
+
+    @Test
+    void testKeysetPagingWalksAllItemsOnce() {
+        User user = new User();
+        user.setName("Paging User");
+        user.setEmail("paging@email.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        for (int i = 0; i < 5; i++) {
+            persistItem(user, "Item " + i, null, "Misc", Status.PENDING);
+        }
+        entityManager.flush();
+        // Samakan createdAt supaya urutan ditentukan id (tie-breaker)
+        entityManager.getEntityManager()
+                .createQuery("UPDATE WishlistItem w SET w.createdAt = :ts WHERE w.user = :user")
+                .setParameter("ts", LocalDateTime.of(2024, 1, 1, 12, 0))
+                .setParameter("user", user)
+                .executeUpdate();
+        entityManager.clear();
+
+        List<WishlistItem> all = repository.findPageByUser(user, PageRequest.of(0, 10));
+        assertEquals(5, all.size());
+
+        List<UUID> walked = new ArrayList<>();
+        List<WishlistItem> page = repository.findPageByUser(user, PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            page.forEach(item -> walked.add(item.getId()));
+            WishlistItem last = page.get(page.size() - 1);
+            page = repository.findPageByUserAfter(user, last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        assertEquals(all.stream().map(WishlistItem::getId).toList(), walked);
+    }
+
+    @Test
+    void testGeneratedIdsAreUuidV7AndCoexistWithRandomIds() {
+        User user = new User();
+        user.setName("Uuid User");
+        user.setEmail("uuid@email.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        // Baris lama dari generator sebelumnya (UUID v4 acak)
+        UUID legacyId = UUID.randomUUID();
+        entityManager.getEntityManager().createNativeQuery(
+                "INSERT INTO wishlist_items (id, user_id, name, status, created_at) VALUES (?1, ?2, 'Lama', 'PENDING', ?3)")
+                .setParameter(1, legacyId)
+                .setParameter(2, user.getId())
+                .setParameter(3, LocalDateTime.of(2020, 1, 1, 0, 0))
+                .executeUpdate();
+
+        persistItem(user, "Baru 1", null, "Misc", Status.PENDING);
+        persistItem(user, "Baru 2", null, "Misc", Status.PENDING);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(7, user.getId().version());
+        List<WishlistItem> items = repository.findByUserOrderByCreatedAtDesc(user);
+        assertEquals(3, items.size());
+        assertEquals(7, items.get(0).getId().version());
+        assertEquals(7, items.get(1).getId().version());
+        assertEquals(legacyId, items.get(2).getId());
+        assertEquals("Lama", repository.findById(legacyId).orElseThrow().getName());
+    }
+
+    @Test
+    void testImageReferenceLookupsForOrphanCollector() {
+        User user = new User();
+        user.setName("Gc User");
+        user.setEmail("gc@email.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+
+        WishlistItem first = new WishlistItem();
+        first.setUser(user);
+        first.setName("Satu");
+        first.setStatus(Status.PENDING);
+        first.setImageUrl("shared.png");
+        entityManager.persist(first);
+        WishlistItem second = new WishlistItem();
+        second.setUser(user);
+        second.setName("Dua");
+        second.setStatus(Status.PENDING);
+        second.setImageUrl("shared.png");
+        second.setPendingImage("spool.jpg");
+        entityManager.persist(second);
+        entityManager.flush();
+
+        assertEquals(List.of("shared.png"), repository.findImageUrlsIn(List.of("shared.png", "orphan.png")));
+        assertEquals(List.of("spool.jpg"), repository.findPendingImagesIn(List.of("spool.jpg", "gone.jpg")));
+        assertTrue(repository.existsByImageUrl("shared.png"));
+        assertFalse(repository.existsByImageUrl("orphan.png"));
+        assertTrue(repository.existsByPendingImage("spool.jpg"));
+        assertTrue(repository.existsByPendingImageIsNotNull());
+    }
+
+    private void persistItem(User user, String name, BigDecimal price, String category, Status status) {
+        WishlistItem item = new WishlistItem();
+        item.setUser(user);
+        item.setName(name);
+        item.setPrice(price);
+        item.setCategory(category);
+        item.setStatus(status);
+        entityManager.persist(item);
+    }
+}
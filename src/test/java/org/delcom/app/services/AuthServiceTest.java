@@ -8,16 +8,19 @@ import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.ArrayList;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -47,6 +50,9 @@ class AuthServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private CurrentUserCache currentUserCache;
+
     @InjectMocks
     private AuthService authService;
 
@@ -83,6 +89,65 @@ class AuthServiceTest {
         verify(authTokenRepository, times(1)).save(any(AuthToken.class));
     }
 
+    // --- REHASH SAAT LOGIN (cost BCrypt berubah) ---
+    @Test
+    void testAuthenticateUserRehashesOutdatedHash() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", "encodedPassword123")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword123")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("rehashed");
+        when(jwtUtil.generateToken("test@example.com")).thenReturn("jwt");
+
+        authService.authenticateUser("test@example.com", "password123");
+
+        assertEquals("rehashed", testUser.getPassword());
+        verify(userRepository).save(testUser);
+        verify(currentUserCache).invalidate("test@example.com");
+    }
+
+    @Test
+    void testAuthenticateUserKeepsCurrentHash() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", "encodedPassword123")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword123")).thenReturn(false);
+        when(jwtUtil.generateToken("test@example.com")).thenReturn("jwt");
+
+        authService.authenticateUser("test@example.com", "password123");
+
+        assertEquals("encodedPassword123", testUser.getPassword());
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdatePasswordStoresNewHash() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        UserDetails details = org.springframework.security.core.userdetails.User
+                .withUsername("test@example.com").password("old").authorities(new ArrayList<GrantedAuthority>()).build();
+
+        UserDetails updated = authService.updatePassword(details, "new-hash");
+
+        assertEquals("new-hash", updated.getPassword());
+        assertEquals("new-hash", testUser.getPassword());
+        verify(userRepository).save(testUser);
+        verify(currentUserCache).invalidate("test@example.com");
+    }
+
+    @Test
+    void testIssuedTokenRowExpiresWithJwt() {
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", testUser.getPassword())).thenReturn(true);
+        when(jwtUtil.generateToken("test@example.com")).thenReturn("jwt");
+        when(jwtUtil.getExpirationMillis()).thenReturn(3_600_000L);
+
+        authService.authenticateUser("test@example.com", "password123");
+
+        ArgumentCaptor<AuthToken> captor = ArgumentCaptor.forClass(AuthToken.class);
+        verify(authTokenRepository).save(captor.capture());
+        AuthToken saved = captor.getValue();
+        assertEquals(saved.getCreatedAt().plusHours(1), saved.getExpiresAt());
+    }
+
     @Test
     void testAuthenticateUserUserNotFound() {
         // Arrange
@@ -340,4 +405,52 @@ class AuthServiceTest {
         assertNotNull(userDetails.getAuthorities());
         assertTrue(userDetails.getAuthorities().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoadUserByUsernameDoesNotTouchCache() {
+        // Arrange
+        String email = "test@example.com";
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
+
+        // Act
+        authService.loadUserByUsername(email);
+
+        // Assert - password belum dicek di sini, cache baru diisi getCurrentUser setelah login sukses
+        verifyNoInteractions(currentUserCache);
+    }
+
+    @Test
+    void testGetCurrentUserCacheHitSkipsRepository() {
+        // Arrange
+        String email = "test@example.com";
+        when(authentication.getPrincipal()).thenReturn(email);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(currentUserCache.get(email)).thenReturn(testUser);
+
+        // Act
+        User result = authService.getCurrentUser();
+
+        // Assert
+        assertEquals(testUser, result);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testGetCurrentUserCacheMissLoadsAndStores() {
+        // Arrange
+        String email = "test@example.com";
+        when(authentication.getPrincipal()).thenReturn(email);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(currentUserCache.get(email)).thenReturn(null);
+        when(userRepository.findByEmail(email)).thenReturn(Optional.of(testUser));
+
+        // Act
+        User result = authService.getCurrentUser();
+
+        // Assert
+        assertEquals(testUser, result);
+        verify(currentUserCache).put(email, testUser);
+    }
+}
@@ -1,7 +1,9 @@
 package org.delcom.app.services;
 
+import io.jsonwebtoken.Jwts;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,10 +11,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -22,6 +31,15 @@ class AuthTokenServiceTest {
     @Mock
     private AuthTokenRepository authTokenRepository;
 
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
     @InjectMocks
     private AuthTokenService authTokenService;
 
@@ -83,6 +101,8 @@ class AuthTokenServiceTest {
 
         // Assert
         verify(authTokenRepository, times(1)).deleteByToken(tokenString);
+        verify(revokedTokenFilter).revoke(tokenString);
+        verify(verifiedTokenCache).evict(tokenString);
     }
 
     @Test
@@ -115,56 +135,60 @@ class AuthTokenServiceTest {
     void testIsTokenValidWhenTokenExists() {
         // Arrange
         String tokenString = "test-token-12345";
-        when(authTokenRepository.findByToken(tokenString)).thenReturn(testToken);
+        when(jwtUtil.validateAndExtract(tokenString)).thenReturn(Optional.of(Jwts.claims()));
+        when(revokedTokenFilter.isRevoked(tokenString)).thenReturn(false);
 
         // Act
         boolean result = authTokenService.isTokenValid(tokenString);
 
         // Assert
         assertTrue(result);
-        verify(authTokenRepository, times(1)).findByToken(tokenString);
+        verifyNoInteractions(authTokenRepository); // kasus umum tidak query DB
     }
 
     @Test
     void testIsTokenValidWhenTokenDoesNotExist() {
-        // Arrange
+        // Arrange: token palsu gagal verifikasi tanda tangan
         String tokenString = "non-existent-token";
-        when(authTokenRepository.findByToken(tokenString)).thenReturn(null);
+        when(jwtUtil.validateAndExtract(tokenString)).thenReturn(Optional.empty());
 
         // Act
         boolean result = authTokenService.isTokenValid(tokenString);
 
         // Assert
         assertFalse(result);
-        verify(authTokenRepository, times(1)).findByToken(tokenString);
+        verifyNoInteractions(authTokenRepository, revokedTokenFilter);
     }
 
     @Test
-    void testIsTokenValidWithEmptyString() {
+    void testIsTokenValidWhenTokenRevoked() {
         // Arrange
-        String emptyToken = "";
-        when(authTokenRepository.findByToken(emptyToken)).thenReturn(null);
+        String tokenString = "logged-out-token";
+        when(jwtUtil.validateAndExtract(tokenString)).thenReturn(Optional.of(Jwts.claims()));
+        when(revokedTokenFilter.isRevoked(tokenString)).thenReturn(true);
+
+        // Act & Assert
+        assertFalse(authTokenService.isTokenValid(tokenString));
+    }
 
+    @Test
+    void testIsTokenValidWithEmptyString() {
         // Act
-        boolean result = authTokenService.isTokenValid(emptyToken);
+        boolean result = authTokenService.isTokenValid("");
 
         // Assert
         assertFalse(result);
-        verify(authTokenRepository, times(1)).findByToken(emptyToken);
+        verifyNoInteractions(authTokenRepository, jwtUtil, revokedTokenFilter);
     }
 
     @Test
     void testIsTokenValidWithNullString() {
-        // Arrange
-        String nullToken = null;
-        when(authTokenRepository.findByToken(nullToken)).thenReturn(null);
-
         // Act
-        boolean result = authTokenService.isTokenValid(nullToken);
+        boolean result = authTokenService.isTokenValid(null);
 
         // Assert
         assertFalse(result);
-        verify(authTokenRepository, times(1)).findByToken(nullToken);
+        verifyNoInteractions(authTokenRepository, jwtUtil, revokedTokenFilter);
     }
 
     @Test
@@ -202,8 +226,9 @@ class AuthTokenServiceTest {
     @Test
     void testIsTokenValidMultipleCalls() {
         // Arrange
-        when(authTokenRepository.findByToken("valid-token")).thenReturn(testToken);
-        when(authTokenRepository.findByToken("invalid-token")).thenReturn(null);
+        when(jwtUtil.validateAndExtract("valid-token")).thenReturn(Optional.of(Jwts.claims()));
+        when(jwtUtil.validateAndExtract("invalid-token")).thenReturn(Optional.empty());
+        when(revokedTokenFilter.isRevoked("valid-token")).thenReturn(false);
 
         // Act
         boolean result1 = authTokenService.isTokenValid("valid-token");
@@ -214,8 +239,9 @@ class AuthTokenServiceTest {
         assertTrue(result1);
         assertFalse(result2);
         assertTrue(result3);
-        verify(authTokenRepository, times(2)).findByToken("valid-token");
-        verify(authTokenRepository, times(1)).findByToken("invalid-token");
+        verify(revokedTokenFilter, times(2)).isRevoked("valid-token");
+        verify(revokedTokenFilter, never()).isRevoked("invalid-token");
+        verifyNoInteractions(authTokenRepository);
     }
 
     @Test
@@ -250,14 +276,13 @@ class AuthTokenServiceTest {
     void testIsTokenValidWithSpecialCharacters() {
         // Arrange
         String specialToken = "token!@#$%^&*()";
-        when(authTokenRepository.findByToken(specialToken)).thenReturn(testToken);
+        when(jwtUtil.validateAndExtract(specialToken)).thenReturn(Optional.empty());
 
         // Act
         boolean result = authTokenService.isTokenValid(specialToken);
 
         // Assert
-        assertTrue(result);
-        verify(authTokenRepository, times(1)).findByToken(specialToken);
+        assertFalse(result);
     }
 
     @Test
@@ -291,14 +316,14 @@ class AuthTokenServiceTest {
     void testIsTokenValidVerifyRepositoryInteraction() {
         // Arrange
         String tokenString = "test-token";
-        when(authTokenRepository.findByToken(tokenString)).thenReturn(testToken);
+        when(jwtUtil.validateAndExtract(tokenString)).thenReturn(Optional.of(Jwts.claims()));
 
         // Act
         authTokenService.isTokenValid(tokenString);
 
-        // Assert
-        verify(authTokenRepository).findByToken(tokenString);
-        verifyNoMoreInteractions(authTokenRepository);
+        // Assert: cek revoked lewat filter, tabel auth_tokens tidak disentuh
+        verify(revokedTokenFilter).isRevoked(tokenString);
+        verifyNoInteractions(authTokenRepository);
     }
 
     @Test
@@ -319,7 +344,8 @@ class AuthTokenServiceTest {
     void testIsTokenValidReturnsTrueForValidToken() {
         // Arrange
         String validToken = "valid-token-123";
-        when(authTokenRepository.findByToken(validToken)).thenReturn(testToken);
+        when(jwtUtil.validateAndExtract(validToken)).thenReturn(Optional.of(Jwts.claims()));
+        when(revokedTokenFilter.isRevoked(validToken)).thenReturn(false);
 
         // Act
         boolean result = authTokenService.isTokenValid(validToken);
@@ -332,7 +358,7 @@ class AuthTokenServiceTest {
     void testIsTokenValidReturnsFalseForInvalidToken() {
         // Arrange
         String invalidToken = "invalid-token-456";
-        when(authTokenRepository.findByToken(invalidToken)).thenReturn(null);
+        when(jwtUtil.validateAndExtract(invalidToken)).thenReturn(Optional.empty());
 
         // Act
         boolean result = authTokenService.isTokenValid(invalidToken);
@@ -340,4 +366,51 @@ class AuthTokenServiceTest {
         // Assert
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    // --- PURGE TOKEN KEDALUWARSA ---
+    @Test
+    void testPurgeExpiredDeletesInBatchesUntilEmpty() {
+        ReflectionTestUtils.setField(authTokenService, "purgeBatchSize", 2);
+        List<UUID> first = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> second = List.of(UUID.randomUUID());
+        when(authTokenRepository.findExpiredIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(first)
+                .thenReturn(second);
+        when(authTokenRepository.deleteByIdIn(first)).thenReturn(2);
+        when(authTokenRepository.deleteByIdIn(second)).thenReturn(1);
+        when(authTokenRepository.count()).thenReturn(10L);
+
+        assertEquals(3, authTokenService.purgeExpired());
+
+        // Batch kedua tidak penuh, jadi tidak perlu query lagi
+        verify(authTokenRepository, times(2)).findExpiredIds(any(LocalDateTime.class), any(Pageable.class));
+        assertEquals(3, authTokenService.getLastPurged());
+        assertEquals(3, authTokenService.getPurgedTotal());
+        assertEquals(10, authTokenService.getTokenCount());
+    }
+
+    @Test
+    void testPurgeExpiredStopsAtMaxBatches() {
+        ReflectionTestUtils.setField(authTokenService, "purgeBatchSize", 1);
+        ReflectionTestUtils.setField(authTokenService, "purgeMaxBatches", 3);
+        when(authTokenRepository.findExpiredIds(any(LocalDateTime.class), any(Pageable.class)))
+                .thenAnswer(inv -> List.of(UUID.randomUUID()));
+        when(authTokenRepository.deleteByIdIn(anyList())).thenReturn(1);
+
+        assertEquals(3, authTokenService.purgeExpired());
+        assertEquals(3, authTokenService.purgeExpired());
+
+        verify(authTokenRepository, times(6)).deleteByIdIn(anyList());
+        assertEquals(6, authTokenService.getPurgedTotal());
+        assertEquals(3, authTokenService.getLastPurged());
+    }
+
+    @Test
+    void testPurgeExpiredWithNothingToDelete() {
+        when(authTokenRepository.findExpiredIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        assertEquals(0, authTokenService.purgeExpired());
+        verify(authTokenRepository, never()).deleteByIdIn(anyList());
+        assertEquals(-1, new AuthTokenService().getTokenCount()); // belum pernah purge
+    }
+}
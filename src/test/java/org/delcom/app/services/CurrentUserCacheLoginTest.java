@@ -0,0 +1,45 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+// Login gagal untuk email yang ada tidak boleh mengisi CurrentUserCache (cache hanya untuk user yang sudah ter-autentikasi)
+@SpringBootTest(properties = "app.password-hash.cost=4")
+@AutoConfigureMockMvc
+class CurrentUserCacheLoginTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PasswordEncoder passwordEncoder;
+    @Autowired private CurrentUserCache currentUserCache;
+
+    @Test
+    void testWrongPasswordLoginLeavesCacheUntouched() throws Exception {
+        String email = "cache-" + UUID.randomUUID() + "@example.com";
+        User user = new User();
+        user.setName("Cache " + UUID.randomUUID());
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user.setRole("USER");
+        userRepository.save(user);
+        int size = currentUserCache.size();
+
+        mockMvc.perform(post("/auth/login/post").param("email", email).param("password", "wrong"))
+                .andExpect(redirectedUrl("/auth/login?error"));
+
+        assertEquals(size, currentUserCache.size());
+        assertNull(currentUserCache.get(email));
+    }
+}
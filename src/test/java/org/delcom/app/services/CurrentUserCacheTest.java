@@ -0,0 +1,127 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrentUserCacheTest {
+
+    private CurrentUserCache cache;
+    private AtomicLong now;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000);
+        cache = new CurrentUserCache();
+        cache.setClock(now::get);
+        cache.setTtlSeconds(60);
+        cache.setMaxSize(3);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmail("cache@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testHitAndMissCounters() {
+        assertNull(cache.get("cache@example.com"));
+
+        cache.put("cache@example.com", user);
+        assertSame(user, cache.get("cache@example.com"));
+        assertSame(user, cache.get("cache@example.com"));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2.0 / 3, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testHitRateWithoutLookups() {
+        assertEquals(0.0, cache.getHitRate());
+    }
+
+    @Test
+    void testEntryExpiresAfterTtl() {
+        cache.put("cache@example.com", user);
+
+        now.addAndGet(59_999);
+        assertSame(user, cache.get("cache@example.com"));
+
+        now.addAndGet(1);
+        assertNull(cache.get("cache@example.com"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testInvalidate() {
+        cache.put("cache@example.com", user);
+        cache.invalidate("cache@example.com");
+        cache.invalidate(null);
+
+        assertNull(cache.get("cache@example.com"));
+    }
+
+    @Test
+    void testNullValuesAreNotStored() {
+        cache.put("ghost@example.com", null);
+        cache.put(null, user);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testSizeIsBoundedEvictingOldest() {
+        for (int i = 0; i < 3; i++) {
+            cache.put("user" + i, user);
+            now.addAndGet(10);
+        }
+        cache.put("user3", user);
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get("user0"));
+        assertSame(user, cache.get("user3"));
+    }
+
+    @Test
+    void testExpiredEntriesEvictedFirstWhenFull() {
+        cache.put("old", user);
+        now.addAndGet(30_000);
+        cache.put("a", user);
+        cache.put("b", user);
+        now.addAndGet(30_000); // "old" kedaluwarsa
+
+        cache.put("c", user);
+
+        assertEquals(3, cache.size());
+        assertSame(user, cache.get("a"));
+    }
+
+    @Test
+    void testRequestScopeSurvivesTtlMapEviction() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        cache.put("cache@example.com", user);
+
+        // Map dikosongkan, tapi request yang sama tetap dapat user dari atribut request
+        cache.clear();
+        assertSame(user, cache.get("cache@example.com"));
+
+        // Invalidate juga membuang atribut request
+        cache.invalidate("cache@example.com");
+        assertNull(cache.get("cache@example.com"));
+    }
+}
@@ -31,10 +31,11 @@ class ExceptionCoverageTest {
         WishlistForm form = new WishlistForm();
         form.setId(id);
 
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        User user = new User();
+        when(repository.findByIdAndUser(id, user)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> {
-            wishlistService.updateItem(new User(), form);
+            wishlistService.updateItem(user, form);
         });
     }
 
@@ -42,10 +43,11 @@ class ExceptionCoverageTest {
     void testChangeStatus_NotFound() {
         // Simulasi barang tidak ditemukan saat ganti status
         UUID id = UUID.randomUUID();
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        User user = new User();
+        when(repository.findByIdAndUser(id, user)).thenReturn(Optional.empty());
 
         assertThrows(RuntimeException.class, () -> {
-            wishlistService.changeStatus(id); // Harus error/exception
+            wishlistService.changeStatus(user, id); // Harus error/exception
         });
     }
 }
\ No newline at end of file
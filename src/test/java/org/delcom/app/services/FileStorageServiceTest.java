@@ -2,9 +2,16 @@ package org.delcom.app.services;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.delcom.app.repositories.ImageBlobRepository;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
@@ -13,14 +20,23 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+@ExtendWith(MockitoExtension.class)
 class FileStorageServiceTest {
 
     private FileStorageService fileStorageService;
+
+    @Mock
+    private ImageBlobRepository imageBlobRepository;
+
+    @Mock
+    private ImageVariantService imageVariantService;
     
     @TempDir
     Path tempDir;
@@ -29,6 +45,13 @@ class FileStorageServiceTest {
     void setUp() {
         fileStorageService = new FileStorageService();
         ReflectionTestUtils.setField(fileStorageService, "uploadDir", tempDir.toString() + "/");
+        ReflectionTestUtils.setField(fileStorageService, "imageBlobRepository", imageBlobRepository);
+        ReflectionTestUtils.setField(fileStorageService, "imageVariantService", imageVariantService);
+    }
+
+    // Penamaan lama item_<uuid><ext> (app.upload.content-addressed=false)
+    private void legacyMode() {
+        ReflectionTestUtils.setField(fileStorageService, "contentAddressed", false);
     }
 
     @AfterEach
@@ -50,6 +73,7 @@ class FileStorageServiceTest {
     @Test
     void testStoreFile_Success() throws IOException {
         // Arrange
+        legacyMode();
         MultipartFile mockFile = mock(MultipartFile.class);
         UUID entityId = UUID.randomUUID();
         String originalFilename = "test.jpg";
@@ -74,6 +98,7 @@ class FileStorageServiceTest {
     @Test
     void testStoreFile_WithoutExtension() throws IOException {
         // Arrange
+        legacyMode();
         MultipartFile mockFile = mock(MultipartFile.class);
         UUID entityId = UUID.randomUUID();
         String originalFilename = "testfile";
@@ -94,6 +119,7 @@ class FileStorageServiceTest {
     @Test
     void testStoreFile_NullOriginalFilename() throws IOException {
         // Arrange
+        legacyMode();
         MultipartFile mockFile = mock(MultipartFile.class);
         UUID entityId = UUID.randomUUID();
         byte[] content = "test content".getBytes();
@@ -131,6 +157,7 @@ class FileStorageServiceTest {
     @Test
     void testStoreFile_ReplaceExisting() throws IOException {
         // Arrange
+        legacyMode();
         MultipartFile mockFile1 = mock(MultipartFile.class);
         MultipartFile mockFile2 = mock(MultipartFile.class);
         UUID entityId = UUID.randomUUID();
@@ -158,6 +185,8 @@ class FileStorageServiceTest {
         FileStorageService newService = new FileStorageService();
         Path newDir = tempDir.resolve("newsubdir");
         ReflectionTestUtils.setField(newService, "uploadDir", newDir.toString() + "/");
+        ReflectionTestUtils.setField(newService, "imageBlobRepository", imageBlobRepository);
+        ReflectionTestUtils.setField(newService, "imageVariantService", imageVariantService);
         
         MultipartFile mockFile = mock(MultipartFile.class);
         UUID entityId = UUID.randomUUID();
@@ -255,4 +284,106 @@ class FileStorageServiceTest {
         Files.deleteIfExists(subPath);
         Files.deleteIfExists(filePath);
     }
-}
\ No newline at end of file
+
+    // --- CONTENT-ADDRESSED ---
+    private static MultipartFile upload(String name, String content) {
+        return new MockMultipartFile("imageFile", name, "image/jpeg", content.getBytes());
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes()));
+    }
+
+    @Test
+    void testStoreFile_NamedByContentDigest() throws Exception {
+        String filename = fileStorageService.storeFile(upload("Photo.JPG", "photo"), UUID.randomUUID());
+
+        assertEquals(sha256("photo") + ".jpg", filename);
+        assertEquals("photo", Files.readString(tempDir.resolve(filename)));
+        verify(imageBlobRepository).incrementRefCount(filename);
+        verify(imageBlobRepository).insertFirstReference(eq(filename), eq(5L), any());
+    }
+
+    @Test
+    void testStoreFile_DuplicateContentWrittenOnce() throws Exception {
+        String first = fileStorageService.storeFile(upload("a.png", "same bytes"), UUID.randomUUID());
+        when(imageBlobRepository.incrementRefCount(first)).thenReturn(1);
+
+        String second = fileStorageService.storeFile(upload("b.png", "same bytes"), UUID.randomUUID());
+
+        assertEquals(first, second);
+        assertEquals(1, fileStorageService.getBlobsWritten());
+        assertEquals(1, fileStorageService.getDeduplicated());
+        assertEquals(10, fileStorageService.getBytesDeduplicated());
+        verify(imageBlobRepository, times(1)).insertFirstReference(any(), anyLong(), any());
+        verify(imageVariantService, times(1)).generate(first); // varian hanya dibuat untuk file baru
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count()); // file sementara juga sudah tidak ada
+        }
+    }
+
+    @Test
+    void testStoreFile_DifferentContentDifferentBlob() throws Exception {
+        String first = fileStorageService.storeFile(upload("a.png", "one"), UUID.randomUUID());
+        String second = fileStorageService.storeFile(upload("a.png", "two"), UUID.randomUUID());
+
+        assertNotEquals(first, second);
+        assertEquals(2, fileStorageService.getBlobsWritten());
+    }
+
+    @Test
+    void testStoreFile_UnsafeExtensionDropped() throws Exception {
+        String filename = fileStorageService.storeFile(upload("x.jpg/../../evil", "data"), UUID.randomUUID());
+
+        assertEquals(sha256("data"), filename);
+        assertEquals("", FileStorageService.extensionOf("a.p/g"));
+        assertEquals(".webp", FileStorageService.extensionOf("A.WEBP"));
+    }
+
+    @Test
+    void testDeleteFile_KeptWhileStillReferenced() throws Exception {
+        String filename = fileStorageService.storeFile(upload("a.png", "shared"), UUID.randomUUID());
+        when(imageBlobRepository.decrementRefCount(filename)).thenReturn(1);
+        when(imageBlobRepository.deleteIfUnreferenced(filename)).thenReturn(0);
+
+        assertFalse(fileStorageService.deleteFile(filename));
+        assertTrue(Files.exists(tempDir.resolve(filename)));
+    }
+
+    @Test
+    void testDeleteFile_RemovedWithLastReference() throws Exception {
+        String filename = fileStorageService.storeFile(upload("a.png", "shared"), UUID.randomUUID());
+        when(imageBlobRepository.decrementRefCount(filename)).thenReturn(1);
+        when(imageBlobRepository.deleteIfUnreferenced(filename)).thenReturn(1);
+
+        assertTrue(fileStorageService.deleteFile(filename));
+        assertFalse(Files.exists(tempDir.resolve(filename)));
+        assertEquals(1, fileStorageService.getBlobsDeleted());
+        verify(imageVariantService).deleteVariants(filename);
+    }
+
+    @Test
+    void testDeleteFile_DeferredUntilCommit() throws IOException {
+        Path filePath = Files.createFile(tempDir.resolve("item_test.jpg"));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertFalse(fileStorageService.deleteFile("item_test.jpg"));
+            assertTrue(Files.exists(filePath));
+            verifyNoInteractions(imageBlobRepository);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertFalse(Files.exists(filePath));
+    }
+
+    @Test
+    void testDeleteFile_OutsideUploadDirIgnored() throws IOException {
+        Path outside = Files.createFile(tempDir.resolve("outside.txt"));
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", tempDir.resolve("uploads").toString());
+
+        assertFalse(fileStorageService.deleteFile("../outside.txt"));
+        assertTrue(Files.exists(outside));
+    }
+}
@@ -0,0 +1,104 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.WishlistItem;
+import org.delcom.app.repositories.ImageBlobRepository;
+import org.delcom.app.repositories.UserRepository;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Gambar yang sama dari beberapa item disimpan sekali; file baru hilang saat item terakhir yang memakainya dihapus.
+// Tanpa @Transactional di test: pelepasan referensi jalan setelah commit transaksi WishlistService.
+// workers.threads=0: upload diselesaikan langsung setelah commit, jadi hasilnya bisa dicek tanpa menunggu.
+@SpringBootTest(properties = {"app.password-hash.cost=4", "app.upload.workers.threads=0"})
+class ImageDedupIntegrationTest {
+
+    private static Path uploadDir;
+
+    @Autowired private WishlistService wishlistService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private WishlistItemRepository itemRepository;
+    @Autowired private ImageBlobRepository imageBlobRepository;
+
+    private User user;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) throws IOException {
+        uploadDir = Files.createTempDirectory("dedup-uploads");
+        registry.add("app.upload.dir", uploadDir::toString);
+        registry.add("app.upload.spool-dir", () -> uploadDir.resolve("spool").toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        String suffix = UUID.randomUUID().toString();
+        user.setName("Dedup Owner " + suffix);
+        user.setEmail("dedup-" + suffix + "@example.com");
+        user.setPassword("password");
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void testSharedImageStoredOnceAndRemovedWithLastReference() throws IOException {
+        byte[] photo = "same product photo".getBytes();
+        wishlistService.addItem(user, form("Mug A", new MockMultipartFile("imageFile", "mug.png", "image/png", photo)));
+        wishlistService.addItem(user, form("Mug B", new MockMultipartFile("imageFile", "copy.png", "image/png", photo)));
+
+        List<WishlistItem> items = itemRepository.findByUserOrderByCreatedAtDesc(user);
+        String filename = items.get(0).getImageUrl();
+        assertEquals(filename, items.get(1).getImageUrl());
+        assertEquals(2, imageBlobRepository.findById(filename).orElseThrow().getRefCount());
+        Path blob = uploadDir.resolve(filename);
+        assertArrayEquals(photo, Files.readAllBytes(blob));
+
+        wishlistService.deleteItem(user, items.get(0).getId());
+        assertTrue(Files.exists(blob));
+        assertEquals(1, imageBlobRepository.findById(filename).orElseThrow().getRefCount());
+
+        wishlistService.deleteItem(user, items.get(1).getId());
+        assertFalse(Files.exists(blob));
+        assertFalse(imageBlobRepository.existsById(filename));
+    }
+
+    @Test
+    void testReplacingImageReleasesPreviousBlob() throws IOException {
+        wishlistService.addItem(user, form("Lamp", new MockMultipartFile("imageFile", "a.jpg", "image/jpeg", "old lamp".getBytes())));
+        WishlistItem item = itemRepository.findByUserOrderByCreatedAtDesc(user).get(0);
+        Path oldBlob = uploadDir.resolve(item.getImageUrl());
+
+        WishlistForm update = form("Lamp", new MockMultipartFile("imageFile", "b.jpg", "image/jpeg", "new lamp".getBytes()));
+        update.setId(item.getId());
+        wishlistService.updateItem(user, update);
+
+        String current = itemRepository.findByUserOrderByCreatedAtDesc(user).get(0).getImageUrl();
+        assertFalse(Files.exists(oldBlob));
+        assertTrue(Files.exists(uploadDir.resolve(current)));
+        assertEquals(1, imageBlobRepository.findById(current).orElseThrow().getRefCount());
+    }
+
+    private static WishlistForm form(String name, MockMultipartFile image) {
+        WishlistForm form = new WishlistForm();
+        form.setName(name);
+        form.setPrice(new BigDecimal("10.00"));
+        form.setCategory("Home");
+        form.setImageFile(image);
+        return form;
+    }
+}
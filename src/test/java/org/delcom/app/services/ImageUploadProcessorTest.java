@@ -0,0 +1,209 @@
+package org.delcom.app.services;
+
+import org.delcom.app.entities.WishlistItem;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageUploadProcessorTest {
+
+    @Mock
+    private WishlistItemRepository repository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @InjectMocks
+    private ImageUploadProcessor processor;
+
+    @TempDir
+    Path spoolDir;
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final UUID itemId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        processor.setSpoolDir(spoolDir.toString());
+        processor.setExecutor(queued::add);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        processor.destroy();
+    }
+
+    private String spool(String content) throws IOException {
+        return processor.spool(new MockMultipartFile("imageFile", "photo.JPG", "image/jpeg", content.getBytes()));
+    }
+
+    private WishlistItem pendingItem(String imageUrl, String token) {
+        WishlistItem item = new WishlistItem();
+        item.setId(itemId);
+        item.setImageUrl(imageUrl);
+        item.setPendingImage(token);
+        return item;
+    }
+
+    @Test
+    void testSpoolKeepsContentAndExtension() throws IOException {
+        String token = spool("photo");
+
+        assertTrue(token.endsWith(".jpg"));
+        assertEquals("photo", Files.readString(spoolDir.resolve(token)));
+    }
+
+    // --- SETELAH COMMIT ---
+    @Test
+    void testScheduleWaitsForCommit() throws IOException {
+        String token = spool("photo");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            processor.schedule(itemId, token);
+            assertTrue(queued.isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    void testRollbackDiscardsSpooledFile() throws IOException {
+        String token = spool("photo");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            processor.schedule(itemId, token);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(queued.isEmpty());
+        assertFalse(Files.exists(spoolDir.resolve(token)));
+    }
+
+    // --- FINALISASI ---
+    @Test
+    void testFinishStoresFileAndReplacesPreviousImage() throws IOException {
+        String token = spool("photo");
+        when(repository.findByIdAndPendingImage(itemId, token)).thenReturn(Optional.of(pendingItem("old.jpg", token)));
+        when(fileStorageService.storeFile(spoolDir.resolve(token), itemId)).thenReturn("new.jpg");
+        when(repository.finishPendingImage(itemId, token, "new.jpg")).thenReturn(1);
+
+        processor.schedule(itemId, token);
+        queued.forEach(Runnable::run);
+
+        verify(fileStorageService).replaceFile("old.jpg", "new.jpg");
+        assertEquals(1, processor.getProcessed());
+        assertFalse(Files.exists(spoolDir.resolve(token)));
+    }
+
+    @Test
+    void testFinishSkipsDeletedOrReplacedItem() throws IOException {
+        String token = spool("photo");
+        when(repository.findByIdAndPendingImage(itemId, token)).thenReturn(Optional.empty());
+
+        processor.finish(itemId, token);
+
+        verifyNoInteractions(fileStorageService);
+        assertEquals(1, processor.getStale());
+        assertFalse(Files.exists(spoolDir.resolve(token)));
+    }
+
+    @Test
+    void testFinishReleasesBlobWhenNewerUploadWon() throws IOException {
+        String token = spool("photo");
+        when(repository.findByIdAndPendingImage(itemId, token)).thenReturn(Optional.of(pendingItem("old.jpg", token)));
+        when(fileStorageService.storeFile(any(Path.class), eq(itemId))).thenReturn("new.jpg");
+        when(repository.finishPendingImage(itemId, token, "new.jpg")).thenReturn(0);
+
+        processor.finish(itemId, token);
+
+        verify(fileStorageService).replaceFile("new.jpg", "old.jpg");
+        assertEquals(1, processor.getStale());
+    }
+
+    @Test
+    void testFailureClearsProcessingState() throws IOException {
+        String token = spool("photo");
+        when(repository.findByIdAndPendingImage(itemId, token)).thenReturn(Optional.of(pendingItem(null, token)));
+        when(fileStorageService.storeFile(any(Path.class), eq(itemId))).thenThrow(new IOException("disk full"));
+
+        processor.finish(itemId, token);
+
+        verify(repository).clearPendingImage(itemId, token);
+        assertEquals(1, processor.getFailed());
+        assertFalse(Files.exists(spoolDir.resolve(token)));
+    }
+
+    @Test
+    void testResumePendingAfterRestart() throws IOException {
+        String spooled = spool("photo");
+        WishlistItem lost = pendingItem(null, "missing.jpg");
+        lost.setId(UUID.randomUUID());
+        when(repository.findByPendingImageIsNotNull()).thenReturn(List.of(pendingItem(null, spooled), lost));
+
+        processor.resumePending();
+
+        assertEquals(1, queued.size());
+        verify(repository).clearPendingImage(lost.getId(), "missing.jpg");
+    }
+
+    // --- ANTREAN PENUH ---
+    @Test
+    void testFullQueueRunsInCallerThread() throws Exception {
+        processor.setExecutor(null);
+        ReflectionTestUtils.setField(processor, "threads", 1);
+        ReflectionTestUtils.setField(processor, "queueCapacity", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> callerThreads = new ArrayList<>();
+        when(repository.findByIdAndPendingImage(eq(itemId), any())).thenAnswer(inv -> {
+            if ("first".equals(inv.getArgument(1))) {
+                started.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            } else if ("third".equals(inv.getArgument(1))) {
+                callerThreads.add(Thread.currentThread().getName());
+            }
+            return Optional.empty();
+        });
+
+        processor.schedule(itemId, "first");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        processor.schedule(itemId, "second"); // masuk antrean
+        processor.schedule(itemId, "third");  // antrean penuh -> thread ini
+        release.countDown();
+
+        assertEquals(1, processor.getCallerRuns());
+        assertEquals(List.of(Thread.currentThread().getName()), callerThreads);
+    }
+}
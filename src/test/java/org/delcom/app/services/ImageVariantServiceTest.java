@@ -0,0 +1,167 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ImageVariantService service;
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageVariantService();
+        service.setUploadDir(tempDir.toString());
+        service.setWidths(400, 960);
+        service.setExecutor(queued::add); // job dijalankan manual lewat runQueued()
+    }
+
+    private void runQueued() {
+        List<Runnable> jobs = new ArrayList<>(queued);
+        queued.clear();
+        jobs.forEach(Runnable::run);
+    }
+
+    // Noise supaya ukuran file mendekati foto (tidak terkompresi habis seperti warna polos)
+    private String writeImage(String name, int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) image.setRGB(x, y, random.nextInt(0xFFFFFF));
+        }
+        assertTrue(ImageIO.write(image, format, tempDir.resolve(name).toFile()));
+        return name;
+    }
+
+    @Test
+    void testVariantsGeneratedInBackgroundAndListedInSrcset() throws IOException {
+        String filename = writeImage("photo.png", 1600, 1200, "png");
+
+        service.generate(filename);
+        assertEquals(1, queued.size());
+        assertFalse(Files.exists(tempDir.resolve("photo-400w.png"))); // belum ada sebelum job jalan
+        runQueued();
+
+        BufferedImage card = ImageIO.read(tempDir.resolve("photo-400w.png").toFile());
+        BufferedImage detail = ImageIO.read(tempDir.resolve("photo-960w.png").toFile());
+        assertEquals(400, card.getWidth());
+        assertEquals(300, card.getHeight());
+        assertEquals(960, detail.getWidth());
+        assertEquals(720, detail.getHeight());
+        assertEquals(2, service.getGenerated());
+        assertTrue(Files.size(tempDir.resolve("photo-400w.png")) * 10 < Files.size(tempDir.resolve(filename)));
+
+        assertEquals("/uploads/photo-400w.png 400w, /uploads/photo-960w.png 960w, /uploads/photo.png 1600w",
+                service.srcset(filename));
+        assertEquals(0, service.getPending());
+    }
+
+    @Test
+    void testJpegVariantKeepsFormat() throws IOException {
+        String filename = writeImage("shot.jpg", 800, 600, "jpg");
+        service.generate(filename);
+        runQueued();
+
+        assertEquals("/uploads/shot-400w.jpg 400w, /uploads/shot.jpg 800w", service.srcset(filename));
+        assertNotNull(ImageIO.read(tempDir.resolve("shot-400w.jpg").toFile()));
+    }
+
+    @Test
+    void testUnknownImageScheduledOnFirstRender() throws IOException {
+        String filename = writeImage("old.png", 1000, 500, "png");
+
+        assertNull(service.srcset(filename)); // belum dicek: file asli dulu, varian dijadwalkan
+        assertNull(service.srcset(filename));
+        assertEquals(1, queued.size());
+        runQueued();
+
+        assertTrue(service.srcset(filename).startsWith("/uploads/old-400w.png 400w"));
+    }
+
+    @Test
+    void testSmallImageHasNoVariants() throws IOException {
+        String filename = writeImage("icon.png", 300, 300, "png");
+        service.generate(filename);
+        runQueued();
+
+        assertNull(service.srcset(filename));
+        assertTrue(queued.isEmpty()); // hasil "tidak ada varian" ikut di-cache
+        assertEquals(0, service.getGenerated());
+    }
+
+    @Test
+    void testUnreadableOrOversizedImageSkipped() throws IOException {
+        Files.writeString(tempDir.resolve("broken.png"), "not an image");
+        service.setMaxPixels(1000);
+        String big = writeImage("big.png", 500, 500, "png");
+
+        service.generate("broken.png");
+        service.generate(big);
+        runQueued();
+
+        assertNull(service.srcset("broken.png"));
+        assertNull(service.srcset(big));
+        assertFalse(Files.exists(tempDir.resolve("big-400w.png")));
+    }
+
+    @Test
+    void testFullQueueDropsJobWithoutBlocking() throws IOException {
+        String filename = writeImage("photo.png", 1600, 1200, "png");
+        service.setExecutor(job -> { throw new RejectedExecutionException("full"); });
+
+        service.generate(filename);
+
+        assertEquals(1, service.getDropped());
+        assertEquals(0, service.getPending()); // dicoba lagi saat dirender berikutnya
+        service.setExecutor(queued::add);
+        assertNull(service.srcset(filename));
+        assertEquals(1, queued.size());
+    }
+
+    @Test
+    void testDeleteVariantsRemovesFilesAndCache() throws IOException {
+        String filename = writeImage("photo.png", 1600, 1200, "png");
+        service.generate(filename);
+        runQueued();
+
+        service.deleteVariants(filename);
+
+        assertFalse(Files.exists(tempDir.resolve("photo-400w.png")));
+        assertFalse(Files.exists(tempDir.resolve("photo-960w.png")));
+        assertTrue(Files.exists(tempDir.resolve(filename)));
+        assertNull(service.srcset(filename)); // dijadwalkan ulang
+    }
+
+    @Test
+    void testMissingOriginalHasNoVariants() throws IOException {
+        String filename = writeImage("photo.png", 1600, 1200, "png");
+        service.generate(filename);
+        Files.delete(tempDir.resolve(filename));
+        runQueued();
+
+        assertFalse(Files.exists(tempDir.resolve("photo-400w.png")));
+        assertNull(service.srcset(filename));
+    }
+
+    @Test
+    void testVariantName() {
+        assertEquals("abc-400w.jpg", ImageVariantService.variantName("abc.jpg", 400));
+        assertEquals("abc-960w", ImageVariantService.variantName("abc", 960));
+    }
+}
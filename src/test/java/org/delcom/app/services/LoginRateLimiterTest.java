@@ -0,0 +1,107 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private LoginRateLimiter limiter;
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(0);
+        limiter = new LoginRateLimiter();
+        limiter.setClock(now::get);
+        limiter.setIpLimit(5, 60);     // 5 burst, 1 token / detik
+        limiter.setEmailLimit(3, 6);   // 3 burst, 1 token / 10 detik
+    }
+
+    @Test
+    void testEmailBucketSharedAcrossIps() {
+        assertTrue(limiter.tryAcquire("10.0.0.1", "a@example.com").isAllowed());
+        assertTrue(limiter.tryAcquire("10.0.0.2", "a@example.com").isAllowed());
+        assertTrue(limiter.tryAcquire("10.0.0.3", "A@Example.com ").isAllowed());
+
+        LoginRateLimiter.Decision decision = limiter.tryAcquire("10.0.0.4", "a@example.com");
+        assertFalse(decision.isAllowed());
+        assertEquals(10, decision.getRetryAfterSeconds());
+
+        assertTrue(limiter.tryAcquire("10.0.0.4", "b@example.com").isAllowed());
+    }
+
+    @Test
+    void testIpBucketSharedAcrossEmails() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("10.0.0.1", "user" + i + "@example.com").isAllowed());
+        }
+        assertFalse(limiter.tryAcquire("10.0.0.1", "other@example.com").isAllowed());
+        assertTrue(limiter.tryAcquire("10.0.0.2", "other@example.com").isAllowed());
+    }
+
+    @Test
+    void testBucketRefillsOverTime() {
+        for (int i = 0; i < 5; i++) limiter.tryAcquire("10.0.0.1", null);
+        assertFalse(limiter.tryAcquire("10.0.0.1", null).isAllowed());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(limiter.tryAcquire("10.0.0.1", null).isAllowed());
+        assertFalse(limiter.tryAcquire("10.0.0.1", null).isAllowed());
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(10)); // tidak melebihi kapasitas
+        for (int i = 0; i < 5; i++) assertTrue(limiter.tryAcquire("10.0.0.1", null).isAllowed());
+        assertFalse(limiter.tryAcquire("10.0.0.1", null).isAllowed());
+    }
+
+    @Test
+    void testCounters() {
+        for (int i = 0; i < 4; i++) limiter.tryAcquire("10.0.0.1", "a@example.com");
+
+        assertEquals(3, limiter.getAllowed());
+        assertEquals(1, limiter.getRejected());
+        assertEquals(0.25, limiter.getRejectRate(), 1e-9);
+    }
+
+    @Test
+    void testMemoryIsBounded() {
+        limiter.setMaxKeys(128); // 2 key per stripe
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("10.0." + (i / 256) + "." + (i % 256), "user" + i + "@example.com");
+        }
+        assertTrue(limiter.size() <= 128, "size=" + limiter.size());
+    }
+
+    @Test
+    void testConcurrentAttemptsNeverExceedCapacity() throws Exception {
+        limiter.setIpLimit(1000, 0.000001);
+        limiter.setEmailLimit(100, 0.000001);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    int ok = 0;
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire("10.0.0.1", "a@example.com").isAllowed()) ok++;
+                    }
+                    return ok;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> f : results) total += f.get();
+            assertEquals(100, total);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
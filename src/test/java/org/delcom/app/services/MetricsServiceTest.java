@@ -0,0 +1,113 @@
+package org.delcom.app.services;
+
+import org.delcom.app.configs.AsyncRequestLogger;
+import org.delcom.app.configs.BoundedPasswordEncoder;
+import org.delcom.app.configs.RequestLoggingFilter;
+import org.delcom.app.controllers.UploadController;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsServiceTest {
+
+    @Mock private CurrentUserCache currentUserCache;
+    @Mock private VerifiedTokenCache verifiedTokenCache;
+    @Mock private AuthTokenService authTokenService;
+    @Mock private RevokedTokenFilter revokedTokenFilter;
+    @Mock private LoginRateLimiter loginRateLimiter;
+    @Mock private QueryMonitor queryMonitor;
+    @Mock private FileStorageService fileStorageService;
+    @Mock private ImageVariantService imageVariantService;
+    @Mock private ImageUploadProcessor imageUploadProcessor;
+    @Mock private UploadController uploadController;
+    @Mock private OrphanUploadCollector orphanUploadCollector;
+    @Mock private BoundedPasswordEncoder passwordEncoder;
+    @Mock private RequestLoggingFilter requestLoggingFilter;
+
+    @InjectMocks
+    private MetricsService metricsService;
+
+    // Instance asli, bukan @Spy: inline mock Mockito mengubah bytecode kelasnya untuk seluruh JVM
+    // (RouteLatencyMetricsTest mengukur alokasi di kelas yang sama)
+    private final RouteLatencyMetrics routeLatencyMetrics = new RouteLatencyMetrics();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(metricsService, "routeLatencyMetrics", routeLatencyMetrics);
+    }
+
+    @Test
+    void testLatencySummaryInSeconds() {
+        when(authTokenService.getTokenCount()).thenReturn(-1L);
+        when(requestLoggingFilter.logger()).thenReturn(mock(AsyncRequestLogger.class));
+        routeLatencyMetrics.record("/wishlist/{id}", "GET", 200, 2_000_000);
+        routeLatencyMetrics.record("/wishlist/{id}", "GET", 200, 4_000_000);
+
+        String text = metricsService.scrape();
+
+        assertTrue(text.contains("# TYPE http_server_requests_seconds summary\n"));
+        String labels = "method=\"GET\",uri=\"/wishlist/{id}\",status=\"2xx\"";
+        assertTrue(text.contains("http_server_requests_seconds_count{" + labels + "} 2\n"), text);
+        assertTrue(text.contains("http_server_requests_seconds_sum{" + labels + "} 0.006\n"), text);
+        assertTrue(text.contains("http_server_requests_seconds{" + labels + ",quantile=\"0.999\"} 0.004\n"), text);
+        assertTrue(text.contains("http_server_requests_seconds_max{" + labels + "} 0.004\n"), text);
+    }
+
+    @Test
+    void testExistingCountersExported() {
+        when(currentUserCache.getHits()).thenReturn(7L);
+        when(verifiedTokenCache.getMisses()).thenReturn(3L);
+        when(authTokenService.getTokenCount()).thenReturn(42L);
+        when(revokedTokenFilter.getExpectedFalsePositiveRate()).thenReturn(0.01);
+        when(loginRateLimiter.getRejected()).thenReturn(5L);
+        when(passwordEncoder.getRejectedCount()).thenReturn(2L);
+        when(queryMonitor.getQueries()).thenReturn(120L);
+        when(queryMonitor.getRepeated()).thenReturn(1L);
+        when(fileStorageService.getDeduplicated()).thenReturn(4L);
+        when(imageVariantService.getDropped()).thenReturn(6L);
+        when(imageUploadProcessor.getCallerRuns()).thenReturn(3L);
+        when(uploadController.getNotModified()).thenReturn(8L);
+        when(orphanUploadCollector.getQuarantined()).thenReturn(11L);
+        AsyncRequestLogger logger = mock(AsyncRequestLogger.class);
+        when(logger.getDropped()).thenReturn(9L);
+        when(requestLoggingFilter.logger()).thenReturn(logger);
+
+        String text = metricsService.scrape();
+
+        assertTrue(text.contains("# TYPE app_user_cache_hits_total counter\napp_user_cache_hits_total 7\n"));
+        assertTrue(text.contains("app_token_cache_misses_total 3\n"));
+        assertTrue(text.contains("# TYPE app_auth_tokens gauge\napp_auth_tokens 42\n"));
+        assertTrue(text.contains("app_revoked_filter_expected_fpp 0.01\n"));
+        assertTrue(text.contains("app_login_limit_rejected_total 5\n"));
+        assertTrue(text.contains("app_password_hash_rejected_total 2\n"));
+        assertTrue(text.contains("app_db_queries_total 120\n"));
+        assertTrue(text.contains("app_db_repeated_statements_total 1\n"));
+        assertTrue(text.contains("app_upload_deduplicated_total 4\n"));
+        assertTrue(text.contains("app_image_variants_dropped_total 6\n"));
+        assertTrue(text.contains("app_image_uploads_caller_runs_total 3\n"));
+        assertTrue(text.contains("app_uploads_not_modified_total 8\n"));
+        assertTrue(text.contains("app_upload_gc_quarantined_total 11\n"));
+        assertTrue(text.contains("app_request_log_dropped_total 9\n"));
+    }
+
+    @Test
+    void testTokenCountOmittedBeforeFirstPurge() {
+        when(authTokenService.getTokenCount()).thenReturn(-1L);
+        when(requestLoggingFilter.logger()).thenReturn(mock(AsyncRequestLogger.class));
+
+        assertFalse(metricsService.scrape().contains("app_auth_tokens "));
+    }
+
+    @Test
+    void testEscapeLabelValue() {
+        assertEquals("a\\\"b\\\\c\\n", MetricsService.escape("a\"b\\c\n"));
+    }
+}
@@ -0,0 +1,241 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.UploadGcReport;
+import org.delcom.app.repositories.ImageBlobRepository;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanUploadCollectorTest {
+
+    private static final long NOW = 1_800_000_000_000L;
+    private static final long OLD = NOW - TimeUnit.HOURS.toMillis(48);
+
+    private static final String BLOB = "ab".repeat(32) + ".png";
+    private static final String USED = "item_11111111-1111-4111-8111-111111111111.jpg";
+
+    @Mock private WishlistItemRepository itemRepository;
+    @Mock private ImageBlobRepository imageBlobRepository;
+    @Mock private ImageVariantService imageVariantService;
+
+    @InjectMocks
+    private OrphanUploadCollector collector;
+
+    @TempDir Path uploads;
+    @TempDir Path spool;
+
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        // Instance asli: hanya lock per nama file yang dipakai
+        ReflectionTestUtils.setField(collector, "fileStorageService", new FileStorageService());
+        now = new AtomicLong(NOW);
+        collector.setClock(now::get);
+        collector.setSleeper(millis -> now.addAndGet(millis));
+        collector.setUploadDir(uploads.toString());
+        collector.setSpoolDir(spool.toString());
+        collector.setFilesPerSecond(0);
+        lenient().when(itemRepository.findImageUrlsIn(anyCollection())).thenAnswer(inv -> referenced(inv.getArgument(0), Set.of(USED)));
+        lenient().when(itemRepository.findPendingImagesIn(anyCollection())).thenReturn(List.of());
+    }
+
+    private static List<String> referenced(Collection<String> names, Set<String> used) {
+        return names.stream().filter(used::contains).toList();
+    }
+
+    private Path file(Path dir, String name, long modified) throws IOException {
+        Path file = Files.writeString(dir.resolve(name), name);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+        return file;
+    }
+
+    @Test
+    void testOrphansAreQuarantinedAndReferencedFilesKept() throws IOException {
+        file(uploads, USED, OLD);
+        file(uploads, "item_11111111-1111-4111-8111-111111111111-400w.jpg", OLD); // varian file yang dipakai
+        file(uploads, "item_11111111-1111-4111-8111-111111111111.png", OLD);      // ekstensi lama sisa edit
+        file(uploads, BLOB, OLD);
+        file(uploads, ".upload-123.tmp", OLD);
+        file(uploads, "item_22222222-2222-4222-8222-222222222222.jpg", NOW - 1000); // masih dalam masa tenggang
+
+        UploadGcReport report = collector.collect(false, false);
+
+        assertEquals(6, report.getScanned());
+        assertEquals(1, report.getTooNew());
+        assertEquals(2, report.getReferenced());
+        assertEquals(3, report.getOrphans());
+        assertEquals(3, report.getRemoved());
+        assertTrue(report.isComplete());
+
+        Path quarantine = uploads.resolve(".quarantine");
+        assertTrue(Files.exists(uploads.resolve(USED)));
+        assertTrue(Files.exists(uploads.resolve("item_11111111-1111-4111-8111-111111111111-400w.jpg")));
+        assertTrue(Files.exists(uploads.resolve("item_22222222-2222-4222-8222-222222222222.jpg")));
+        assertTrue(Files.exists(quarantine.resolve("item_11111111-1111-4111-8111-111111111111.png")));
+        assertTrue(Files.exists(quarantine.resolve(BLOB)));
+        assertTrue(Files.exists(quarantine.resolve(".upload-123.tmp")));
+        assertFalse(Files.exists(uploads.resolve(BLOB)));
+        verify(imageBlobRepository).forget(BLOB);
+        verify(imageVariantService).deleteVariants(BLOB);
+        assertEquals(3, collector.getQuarantined());
+    }
+
+    @Test
+    void testDryRunOnlyReports() throws IOException {
+        file(uploads, BLOB, OLD);
+        file(uploads, USED, OLD);
+
+        UploadGcReport report = collector.collect(true, true);
+
+        assertTrue(report.isDryRun());
+        assertEquals(List.of(BLOB), report.getOrphanFiles());
+        assertEquals(BLOB.length(), report.getOrphanBytes());
+        assertEquals(0, report.getRemoved());
+        assertTrue(Files.exists(uploads.resolve(BLOB)));
+        verify(imageBlobRepository, never()).forget(anyString());
+        verifyNoInteractions(imageVariantService);
+    }
+
+    @Test
+    void testDeleteModeRemovesFiles() throws IOException {
+        collector.setQuarantine(false);
+        file(uploads, BLOB, OLD);
+
+        UploadGcReport report = collector.collect(false, false);
+
+        assertEquals(1, report.getRemoved());
+        assertFalse(Files.exists(uploads.resolve(BLOB)));
+        assertFalse(Files.exists(uploads.resolve(".quarantine")));
+        assertEquals(1, collector.getDeleted());
+        assertEquals(BLOB.length(), collector.getBytesCollected());
+    }
+
+    @Test
+    void testVariantOfUnusedImageIsOrphan() throws IOException {
+        String variant = "ab".repeat(32) + "-960w.png";
+        file(uploads, variant, OLD);
+
+        UploadGcReport report = collector.collect(false, false);
+
+        assertEquals(List.of(variant), report.getOrphanFiles());
+        verify(itemRepository).findImageUrlsIn(Set.of(BLOB));
+        verify(imageBlobRepository, never()).forget(anyString()); // baris blob milik file aslinya
+    }
+
+    @Test
+    void testRecordedBlobWaitsForRunningUploads() throws IOException {
+        file(uploads, BLOB, OLD);
+        when(imageBlobRepository.existsById(BLOB)).thenReturn(true);
+        when(itemRepository.existsByPendingImageIsNotNull()).thenReturn(true, false);
+
+        UploadGcReport first = collector.collect(false, false);
+        assertEquals(0, first.getOrphans());
+        assertEquals(1, first.getReferenced());
+        assertTrue(Files.exists(uploads.resolve(BLOB)));
+
+        UploadGcReport second = collector.collect(false, false);
+        assertEquals(1, second.getRemoved()); // ref_count bocor ikut dibersihkan
+        verify(imageBlobRepository).forget(BLOB);
+    }
+
+    @Test
+    void testReferenceAddedAfterBatchQueryIsRespected() throws IOException {
+        file(uploads, BLOB, OLD);
+        when(itemRepository.existsByImageUrl(BLOB)).thenReturn(true);
+
+        UploadGcReport report = collector.collect(false, false);
+
+        assertEquals(0, report.getOrphans());
+        assertTrue(Files.exists(uploads.resolve(BLOB)));
+    }
+
+    @Test
+    void testSpoolFilesWithoutPendingItemAreDeleted() throws IOException {
+        file(spool, "pending.jpg", OLD);
+        file(spool, "abandoned.jpg", OLD);
+        when(itemRepository.findPendingImagesIn(anyCollection())).thenReturn(List.of("pending.jpg"));
+
+        UploadGcReport report = collector.collect(false, false);
+
+        assertEquals(List.of("spool/abandoned.jpg"), report.getOrphanFiles());
+        assertFalse(Files.exists(spool.resolve("abandoned.jpg")));
+        assertTrue(Files.exists(spool.resolve("pending.jpg")));
+        assertFalse(Files.exists(uploads.resolve(".quarantine"))); // spool tidak pernah dikarantina
+    }
+
+    @Test
+    void testWalksFolderIncrementallyInNameOrder() throws IOException {
+        collector.setMaxFilesPerRun(2);
+        collector.setBatchSize(1);
+        for (int i = 0; i < 5; i++) file(uploads, "legacy_" + i + ".jpg", OLD);
+
+        List<List<String>> runs = new ArrayList<>();
+        UploadGcReport report;
+        do {
+            report = collector.collect(true, false);
+            runs.add(report.getOrphanFiles());
+        } while (!report.isComplete());
+
+        assertEquals(List.of(List.of("legacy_0.jpg", "legacy_1.jpg"), List.of("legacy_2.jpg", "legacy_3.jpg"),
+                List.of("legacy_4.jpg")), runs);
+        verify(itemRepository, times(5)).findImageUrlsIn(anyCollection());
+
+        // Cursor kembali ke awal setelah folder habis
+        assertEquals(List.of("legacy_0.jpg", "legacy_1.jpg"), collector.collect(true, false).getOrphanFiles());
+    }
+
+    @Test
+    void testFilesPerSecondThrottlesStat() throws IOException {
+        collector.setFilesPerSecond(10);
+        for (int i = 0; i < 5; i++) file(uploads, "legacy_" + i + ".jpg", NOW - 1000);
+
+        collector.collect(true, false);
+
+        assertEquals(NOW + 400, now.get()); // 5 file @ 10/s: jadwal 0, 100, ..., 400 ms
+        verify(itemRepository, never()).findImageUrlsIn(any());
+    }
+
+    @Test
+    void testMissingFoldersAreIgnored() {
+        collector.setUploadDir(uploads.resolve("missing").toString());
+        collector.setSpoolDir(spool.resolve("missing").toString());
+
+        UploadGcReport report = collector.collect(false, false);
+
+        assertEquals(0, report.getScanned());
+        assertTrue(report.isComplete());
+    }
+
+    @Test
+    void testOwnerOf() {
+        assertEquals(BLOB, OrphanUploadCollector.ownerOf("ab".repeat(32) + "-400w.png"));
+        assertEquals("abc", OrphanUploadCollector.ownerOf("abc-960w"));
+        assertEquals(USED, OrphanUploadCollector.ownerOf(USED));
+        assertNull(OrphanUploadCollector.ownerOf(".variant-1.tmp"));
+    }
+}
@@ -0,0 +1,48 @@
+package org.delcom.app.services;
+
+import org.delcom.app.configs.QueryBudget;
+import org.delcom.app.configs.QueryContext;
+import org.delcom.app.configs.QueryCountingInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryMonitorTest {
+
+    private final QueryMonitor monitor = new QueryMonitor();
+    private final QueryCountingInspector inspector = new QueryCountingInspector();
+
+    @BeforeEach
+    void setUp() {
+        monitor.setMaxQueries(3);
+        monitor.setRepeatThreshold(3);
+    }
+
+    @Test
+    void testWithinBudget() throws Exception {
+        QueryContext context = QueryBudget.measure(() -> {
+            inspector.inspect("select a");
+            inspector.inspect("select b");
+        });
+
+        monitor.report("GET", "/wishlist", context);
+
+        assertEquals(2, monitor.getQueries());
+        assertEquals(0, monitor.getOverBudget());
+        assertEquals(0, monitor.getRepeated());
+    }
+
+    @Test
+    void testOverBudgetAndRepeatedFlagged() throws Exception {
+        QueryContext context = QueryBudget.measure(() -> {
+            for (int i = 0; i < 4; i++) inspector.inspect("select * from wishlist_items where id=?");
+        });
+
+        monitor.report("GET", "/wishlist/stats", context);
+
+        assertEquals(4, monitor.getQueries());
+        assertEquals(1, monitor.getOverBudget());
+        assertEquals(1, monitor.getRepeated());
+    }
+}
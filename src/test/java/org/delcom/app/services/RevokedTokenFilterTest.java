@@ -0,0 +1,158 @@
+package org.delcom.app.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.delcom.app.entities.RevokedToken;
+import org.delcom.app.repositories.RevokedTokenRepository;
+import org.delcom.app.utils.JwtUtil;
+import org.delcom.app.utils.TokenHashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevokedTokenFilterTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private RevokedTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter.setExpectedTokens(1000);
+        filter.setFpp(0.01);
+    }
+
+    private void stubValid(String token) {
+        Claims claims = Jwts.claims().setSubject("a@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000));
+        when(jwtUtil.validateAndExtract(token)).thenReturn(Optional.of(claims));
+    }
+
+    @Test
+    void testUnrevokedTokenAnsweredWithoutDatabase() {
+        when(revokedTokenRepository.findActiveHashes(any(LocalDateTime.class))).thenReturn(List.of());
+        filter.rebuild();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(filter.isRevoked("active-" + i));
+        }
+
+        verify(revokedTokenRepository, never()).existsById(anyString());
+        assertEquals(100, filter.getChecks());
+    }
+
+    @Test
+    void testRevokedTokenConfirmedByDatabase() {
+        when(revokedTokenRepository.findActiveHashes(any(LocalDateTime.class))).thenReturn(List.of());
+        filter.rebuild();
+        stubValid("t1");
+
+        filter.revoke("t1");
+        when(revokedTokenRepository.existsById(TokenHashUtil.digest("t1"))).thenReturn(true);
+
+        assertTrue(filter.isRevoked("t1"));
+        assertEquals(1, filter.getPositives());
+        assertEquals(0, filter.getFalsePositives());
+    }
+
+    @Test
+    void testRevokeStoresHashUntilTokenExpiry() {
+        stubValid("t1");
+
+        filter.revoke("t1");
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        assertEquals(TokenHashUtil.digest("t1"), captor.getValue().getTokenHash());
+        assertTrue(captor.getValue().getExpiresAt().isAfter(LocalDateTime.now().plusMinutes(59)));
+        assertNotNull(captor.getValue().getRevokedAt());
+    }
+
+    @Test
+    void testInvalidOrBlankTokenIsNotStored() {
+        when(jwtUtil.validateAndExtract("expired")).thenReturn(Optional.empty());
+
+        filter.revoke("expired");
+        filter.revoke(" ");
+        filter.revoke(null);
+
+        verify(revokedTokenRepository, never()).save(any());
+        assertFalse(filter.isRevoked(null));
+    }
+
+    @Test
+    void testRebuildLoadsRevokedTokensFromTable() {
+        List<String> hashes = new ArrayList<>();
+        for (int i = 0; i < 50; i++) hashes.add(TokenHashUtil.digest("revoked-" + i));
+        when(revokedTokenRepository.findActiveHashes(any(LocalDateTime.class))).thenReturn(hashes);
+        when(revokedTokenRepository.existsById(anyString())).thenReturn(true);
+
+        filter.rebuild();
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(filter.isRevoked("revoked-" + i));
+        }
+        assertEquals(50, filter.size());
+        assertTrue(filter.getMemoryBytes() > 0);
+        assertTrue(filter.getExpectedFalsePositiveRate() < 0.01);
+    }
+
+    @Test
+    void testBeforeFirstRebuildEveryCheckGoesToDatabase() {
+        when(revokedTokenRepository.existsById(TokenHashUtil.digest("t1"))).thenReturn(true);
+
+        assertTrue(filter.isRevoked("t1"));
+        assertEquals(0, filter.getChecks());
+        assertEquals(0, filter.getMemoryBytes());
+    }
+
+    @Test
+    void testFalsePositiveRateMeasured() {
+        when(revokedTokenRepository.findActiveHashes(any(LocalDateTime.class))).thenReturn(List.of());
+        filter.setExpectedTokens(1); // filter sangat kecil supaya banyak false positive
+        filter.rebuild();
+        filter.setExpectedTokens(1000);
+        for (int i = 0; i < 20; i++) {
+            stubValid("revoked-" + i);
+            filter.revoke("revoked-" + i);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            filter.isRevoked("active-" + i);
+        }
+
+        assertTrue(filter.getFalsePositives() > 0);
+        assertEquals((double) filter.getFalsePositives() / 200, filter.getFalsePositiveRate(), 1e-9);
+    }
+
+    @Test
+    void testPurgeExpiredRebuilds() {
+        when(revokedTokenRepository.deleteExpired(any(LocalDateTime.class))).thenReturn(3);
+        when(revokedTokenRepository.findActiveHashes(any(LocalDateTime.class))).thenReturn(List.of());
+
+        assertEquals(3, filter.purgeExpired());
+        verify(revokedTokenRepository).findActiveHashes(any(LocalDateTime.class));
+        assertEquals(0, filter.size());
+    }
+}
@@ -0,0 +1,71 @@
+package org.delcom.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteLatencyMetricsTest {
+
+    private final RouteLatencyMetrics metrics = new RouteLatencyMetrics();
+
+    @Test
+    void testSeriesPerRouteMethodAndStatusClass() {
+        metrics.record("/wishlist/{id}", "GET", 200, 1_000);
+        metrics.record("/wishlist/{id}", "GET", 204, 3_000);
+        metrics.record("/wishlist/{id}", "GET", 404, 2_000);
+        metrics.record("/wishlist/{id}", "POST", 302, 5_000);
+        metrics.record(null, "GET", 302, 7_000);
+
+        List<RouteLatencyMetrics.Series> series = metrics.snapshot();
+
+        assertEquals(4, series.size());
+        RouteLatencyMetrics.Series ok = series.stream()
+                .filter(s -> s.route().equals("/wishlist/{id}") && s.method().equals("GET") && s.statusClass().equals("2xx"))
+                .findFirst().orElseThrow();
+        assertEquals(2, ok.histogram().getCount());
+        assertEquals(4_000, ok.histogram().getSum());
+        assertTrue(series.stream().anyMatch(s -> s.route().equals(RouteLatencyMetrics.UNMATCHED)
+                && s.method().equals("GET") && s.statusClass().equals("3xx")));
+        assertEquals(2, metrics.routeCount());
+    }
+
+    @Test
+    void testUnknownMethodAndStatusAreClamped() {
+        assertEquals(RouteLatencyMetrics.METHODS.length - 1, RouteLatencyMetrics.methodIndex("PROPFIND"));
+        assertEquals(RouteLatencyMetrics.METHODS.length - 1, RouteLatencyMetrics.methodIndex(null));
+        assertEquals(0, RouteLatencyMetrics.statusIndex(0));
+        assertEquals(4, RouteLatencyMetrics.statusIndex(599));
+        assertEquals(4, RouteLatencyMetrics.statusIndex(999));
+    }
+
+    @Test
+    void testRouteCountIsBounded() {
+        metrics.setMaxRoutes(3);
+        for (int i = 0; i < 10; i++) {
+            metrics.record("/route-" + i, "GET", 200, 1_000);
+        }
+
+        assertEquals(4, metrics.routeCount()); // 3 route + UNMATCHED
+        long unmatched = metrics.snapshot().stream()
+                .filter(s -> s.route().equals(RouteLatencyMetrics.UNMATCHED))
+                .mapToLong(s -> s.histogram().getCount()).sum();
+        assertEquals(7, unmatched);
+    }
+
+    @Test
+    void testRecordingDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int i = 0; i < 500_000; i++) metrics.record("/wishlist", "GET", 200, i);
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < 100_000; i++) metrics.record("/wishlist", "GET", 200, i);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // < 1 byte per record (sebelum di-JIT, VarHandle atomic di interpreter masih mengalokasikan)
+        assertTrue(allocated < 100_000, "allocated=" + allocated);
+    }
+}
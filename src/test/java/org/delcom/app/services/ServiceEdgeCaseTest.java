@@ -20,6 +20,7 @@ class UserServiceBoostTest {
 
     @Mock private UserRepository userRepository;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private CurrentUserCache currentUserCache;
     @InjectMocks private UserService userService;
 
     @Test
@@ -27,6 +27,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CurrentUserCache currentUserCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -154,6 +157,22 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(testUser);
     }
 
+    @Test
+    void testUpdateUserInvalidatesCurrentUserCache() {
+        // Arrange - email berubah: entry lama & baru harus dibuang
+        User updatedData = new User();
+        updatedData.setName("Updated Name");
+        updatedData.setEmail("updated@example.com");
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        userService.updateUser(testUser, updatedData);
+
+        // Assert
+        verify(currentUserCache).invalidate("test@example.com");
+        verify(currentUserCache).invalidate("updated@example.com");
+    }
+
     @Test
     void testUpdateUser_WithoutPassword() {
         // Arrange - Branch: password == null
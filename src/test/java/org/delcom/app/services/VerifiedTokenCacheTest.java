@@ -0,0 +1,177 @@
+package org.delcom.app.services;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private RevokedTokenFilter revokedTokenFilter;
+
+    @InjectMocks
+    private VerifiedTokenCache cache;
+
+    private AtomicLong now;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000);
+        cache.setClock(now::get);
+        cache.setMaxSize(2);
+        cache.setRevokedTtlSeconds(60);
+    }
+
+    private Claims stub(String token, String subject, long expiresAt) {
+        Claims claims = Jwts.claims().setSubject(subject).setExpiration(new Date(expiresAt));
+        lenient().when(jwtUtil.validateAndExtract(token)).thenReturn(Optional.of(claims));
+        lenient().when(revokedTokenFilter.isRevoked(token)).thenReturn(false);
+        return claims;
+    }
+
+    @Test
+    void testRepeatedTokenSkipsVerification() {
+        Claims claims = stub("t1", "a@example.com", 2_000_000);
+
+        assertSame(claims, cache.verify("t1").orElseThrow());
+        assertSame(claims, cache.verify("t1").orElseThrow());
+        assertSame(claims, cache.verify("t1").orElseThrow());
+
+        verify(jwtUtil, times(1)).validateAndExtract("t1");
+        verify(revokedTokenFilter, times(3)).isRevoked("t1"); // cek logout tetap jalan, tanpa query kalau negatif
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testEntryExpiresAtTokenExp() {
+        stub("t1", "a@example.com", 2_000_000);
+        cache.verify("t1");
+
+        now.set(2_000_000);
+        cache.verify("t1");
+
+        verify(jwtUtil, times(2)).validateAndExtract("t1");
+    }
+
+    @Test
+    void testInvalidTokenIsNotCached() {
+        when(jwtUtil.validateAndExtract("bad")).thenReturn(Optional.empty());
+
+        assertTrue(cache.verify("bad").isEmpty());
+        assertTrue(cache.verify("bad").isEmpty());
+
+        verify(jwtUtil, times(2)).validateAndExtract("bad");
+        verifyNoInteractions(revokedTokenFilter);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testRevokedTokenIsRejected() {
+        stub("t1", "a@example.com", 2_000_000);
+        when(revokedTokenFilter.isRevoked("t1")).thenReturn(true);
+
+        assertTrue(cache.verify("t1").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testBlankTokenIgnored() {
+        assertTrue(cache.verify(null).isEmpty());
+        assertTrue(cache.verify(" ").isEmpty());
+        verifyNoInteractions(jwtUtil, revokedTokenFilter);
+    }
+
+    // --- LOGOUT ---
+    @Test
+    void testEvictRejectsCachedToken() {
+        stub("t1", "a@example.com", 2_000_000);
+        assertTrue(cache.verify("t1").isPresent());
+
+        cache.evict("t1");
+
+        assertTrue(cache.verify("t1").isEmpty());
+        verify(jwtUtil, times(1)).validateAndExtract("t1");
+    }
+
+    @Test
+    void testLogoutOnAnotherNodeRejectsCachedToken() {
+        stub("t1", "a@example.com", 2_000_000);
+        assertTrue(cache.verify("t1").isPresent());
+
+        // Logout di node lain: tidak ada evict() di node ini, hanya terbaca lewat RevokedTokenFilter
+        when(revokedTokenFilter.isRevoked("t1")).thenReturn(true);
+
+        assertTrue(cache.verify("t1").isEmpty());
+        assertTrue(cache.verify("t1").isEmpty());
+        verify(jwtUtil, times(1)).validateAndExtract("t1");
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testVerificationAfterRevokedMarkerExpiresChecksRevocation() {
+        stub("t1", "a@example.com", 5_000_000);
+        cache.evict("t1");
+        when(revokedTokenFilter.isRevoked("t1")).thenReturn(true); // tercatat saat logout
+
+        now.addAndGet(61_000);
+
+        assertTrue(cache.verify("t1").isEmpty());
+        verify(revokedTokenFilter).isRevoked("t1");
+    }
+
+    @Test
+    void testConcurrentVerificationCannotResurrectRevokedToken() {
+        Claims claims = Jwts.claims().setSubject("a@example.com").setExpiration(new Date(2_000_000));
+        when(jwtUtil.validateAndExtract("t1")).thenReturn(Optional.of(claims));
+        // Logout terjadi setelah cek revoked tapi sebelum hasil verifikasi disimpan
+        when(revokedTokenFilter.isRevoked("t1")).thenAnswer(inv -> {
+            cache.evict("t1");
+            return false;
+        });
+
+        cache.verify("t1");
+
+        assertTrue(cache.verify("t1").isEmpty());
+    }
+
+    @Test
+    void testEvictNullIsIgnored() {
+        cache.evict(null);
+        assertEquals(0, cache.size());
+    }
+
+    // --- UKURAN TERBATAS ---
+    @Test
+    void testSizeIsBounded() {
+        stub("t1", "a@example.com", 2_000_000);
+        stub("t2", "b@example.com", 3_000_000);
+        stub("t3", "c@example.com", 4_000_000);
+
+        cache.verify("t1");
+        cache.verify("t2");
+        cache.verify("t3");
+
+        assertEquals(2, cache.size());
+        cache.verify("t1"); // t1 paling cepat kedaluwarsa, sudah dibuang
+        verify(jwtUtil, times(2)).validateAndExtract("t1");
+        verify(jwtUtil, times(1)).validateAndExtract("t3");
+    }
+}
@@ -1,26 +1,35 @@
 package org.delcom.app.services;
 
 import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.dto.WishlistPage;
 import org.delcom.app.dto.WishlistStats;
 import org.delcom.app.entities.Status;
 import org.delcom.app.entities.User;
 import org.delcom.app.entities.WishlistItem;
 import org.delcom.app.repositories.WishlistItemRepository;
+import org.delcom.app.utils.ConstUtil;
+import org.delcom.app.utils.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +41,12 @@ class WishlistServiceTest {
     @Mock
     private FileStorageService fileStorageService;
 
+    @Mock
+    private ImageUploadProcessor imageUploadProcessor;
+
+    @Mock
+    private WishlistStatsService statsService;
+
     @InjectMocks
     private WishlistService wishlistService;
 
@@ -80,32 +95,66 @@ class WishlistServiceTest {
     }
 
     @Test
-    void testFindById() {
+    void testGetItemsPageFirstPageWithMore() {
+        // Arrange - ambil limit+1 baris untuk tahu masih ada halaman berikutnya
+        List<WishlistItem> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            WishlistItem item = new WishlistItem();
+            item.setId(UUID.randomUUID());
+            item.setCreatedAt(LocalDateTime.of(2024, 1, 10 - i, 8, 0));
+            rows.add(item);
+        }
+        when(repository.findPageByUser(testUser, PageRequest.of(0, 3))).thenReturn(rows);
+
+        // Act
+        WishlistPage page = wishlistService.getItemsPage(testUser, null, 2);
+
+        // Assert
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        CursorUtil.Position next = CursorUtil.decode(page.getNextCursor());
+        assertEquals(rows.get(1).getId(), next.getId());
+        assertEquals(rows.get(1).getCreatedAt(), next.getCreatedAt());
+    }
+
+    @Test
+    void testGetItemsPageAfterCursorLastPage() {
         // Arrange
-        UUID id = testItem.getId();
-        when(repository.findById(id)).thenReturn(Optional.of(testItem));
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 5, 8, 0);
+        UUID lastId = UUID.randomUUID();
+        String cursor = CursorUtil.encode(createdAt, lastId);
+        when(repository.findPageByUserAfter(testUser, createdAt, lastId, PageRequest.of(0, 13)))
+                .thenReturn(List.of(testItem));
 
         // Act
-        WishlistItem result = wishlistService.findById(id);
+        WishlistPage page = wishlistService.getItemsPage(testUser, cursor, 12);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(testItem, result);
-        verify(repository, times(1)).findById(id);
+        assertEquals(List.of(testItem), page.getItems());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(repository, never()).findPageByUser(any(), any());
     }
 
     @Test
-    void testFindByIdNotFound() {
+    void testGetItemsPageClampsSize() {
         // Arrange
-        UUID id = UUID.randomUUID();
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.findPageByUser(eq(testUser), any(Pageable.class))).thenReturn(List.of());
 
         // Act
-        WishlistItem result = wishlistService.findById(id);
+        wishlistService.getItemsPage(testUser, null, 10_000);
+        wishlistService.getItemsPage(testUser, "", 0);
 
         // Assert
-        assertNull(result);
-        verify(repository, times(1)).findById(id);
+        verify(repository).findPageByUser(testUser, PageRequest.of(0, ConstUtil.WISHLIST_MAX_PAGE_SIZE + 1));
+        verify(repository).findPageByUser(testUser, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void testGetItemsPageInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> wishlistService.getItemsPage(testUser, "bukan-cursor", 12));
+        verifyNoInteractions(repository);
     }
 
     @Test
@@ -118,7 +167,8 @@ class WishlistServiceTest {
 
         // Assert
         verify(repository, times(1)).save(any(WishlistItem.class));
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).storeFile(any(MultipartFile.class), any());
+        verify(statsService, times(1)).applyChange(eq(testUser), isNull(), any(WishlistStatsService.ItemSnapshot.class));
     }
 
     @Test
@@ -130,14 +180,18 @@ class WishlistServiceTest {
         testForm.setImageFile(imageFile);
         
         when(repository.save(any(WishlistItem.class))).thenReturn(testItem);
-        when(fileStorageService.storeFile(any(), any())).thenReturn("test-image.jpg");
+        when(imageUploadProcessor.spool(imageFile)).thenReturn("spooled.jpg");
 
         // Act
         wishlistService.addItem(testUser, testForm);
 
-        // Assert
-        verify(repository, times(2)).save(any(WishlistItem.class));
-        verify(fileStorageService, times(1)).storeFile(imageFile, testItem.getId());
+        // Assert: disimpan sekali dengan status "memproses", file disimpan di background
+        ArgumentCaptor<WishlistItem> saved = ArgumentCaptor.forClass(WishlistItem.class);
+        verify(repository, times(1)).save(saved.capture());
+        assertEquals("spooled.jpg", saved.getValue().getPendingImage());
+        assertNull(saved.getValue().getImageUrl());
+        verify(imageUploadProcessor, times(1)).schedule(testItem.getId(), "spooled.jpg");
+        verify(fileStorageService, never()).storeFile(any(MultipartFile.class), any());
     }
 
     @Test
@@ -213,16 +267,18 @@ class WishlistServiceTest {
     void testUpdateItemWithoutImage() throws IOException {
         // Arrange
         testForm.setId(testItem.getId());
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenReturn(testItem);
 
         // Act
         wishlistService.updateItem(testUser, testForm);
 
         // Assert
-        verify(repository, times(1)).findById(testItem.getId());
+        verify(repository, times(1)).findByIdAndUser(testItem.getId(), testUser);
         verify(repository, times(1)).save(any(WishlistItem.class));
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).storeFile(any(MultipartFile.class), any());
+        verify(statsService, times(1)).applyChange(eq(testUser),
+                any(WishlistStatsService.ItemSnapshot.class), any(WishlistStatsService.ItemSnapshot.class));
     }
 
     @Test
@@ -234,31 +290,55 @@ class WishlistServiceTest {
         );
         testForm.setImageFile(imageFile);
         
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenReturn(testItem);
-        when(fileStorageService.storeFile(any(), any())).thenReturn("updated-image.jpg");
+        when(imageUploadProcessor.spool(imageFile)).thenReturn("spooled.jpg");
 
         // Act
         wishlistService.updateItem(testUser, testForm);
 
         // Assert
-        verify(repository, times(1)).findById(testItem.getId());
+        verify(repository, times(1)).findByIdAndUser(testItem.getId(), testUser);
         verify(repository, times(1)).save(any(WishlistItem.class));
-        verify(fileStorageService, times(1)).storeFile(imageFile, testItem.getId());
+        verify(imageUploadProcessor, times(1)).schedule(testItem.getId(), "spooled.jpg");
+        verify(fileStorageService, never()).storeFile(any(MultipartFile.class), any());
+    }
+
+    @Test
+    void testUpdateItemWithImageKeepsPreviousImageUntilProcessed() throws IOException {
+        // Arrange
+        testItem.setImageUrl("old-image.jpg");
+        testForm.setId(testItem.getId());
+        MockMultipartFile imageFile = new MockMultipartFile(
+            "image", "updated.jpg", "image/jpeg", "updated image".getBytes()
+        );
+        testForm.setImageFile(imageFile);
+
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
+        when(imageUploadProcessor.spool(imageFile)).thenReturn("spooled.jpg");
+
+        // Act
+        wishlistService.updateItem(testUser, testForm);
+
+        // Assert: gambar lama dilepas oleh ImageUploadProcessor setelah gambar baru siap
+        assertEquals("old-image.jpg", testItem.getImageUrl());
+        assertEquals("spooled.jpg", testItem.getPendingImage());
+        verify(fileStorageService, never()).deleteFile(any());
     }
 
     @Test
     void testUpdateItemNotFound() {
         // Arrange
         testForm.setId(UUID.randomUUID());
-        when(repository.findById(testForm.getId())).thenReturn(Optional.empty());
+        when(repository.findByIdAndUser(testForm.getId(), testUser)).thenReturn(Optional.empty());
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> {
             wishlistService.updateItem(testUser, testForm);
         });
-        verify(repository, times(1)).findById(testForm.getId());
+        verify(repository, times(1)).findByIdAndUser(testForm.getId(), testUser);
         verify(repository, never()).save(any(WishlistItem.class));
+        verifyNoInteractions(statsService);
     }
 
     @Test
@@ -267,7 +347,7 @@ class WishlistServiceTest {
         testForm.setId(testItem.getId());
         testForm.setPrice(null);
         testForm.setSavedAmount(new BigDecimal("50.00"));
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenReturn(testItem);
 
         // Act
@@ -285,7 +365,7 @@ class WishlistServiceTest {
         testForm.setPrice(new BigDecimal("100.00"));
         testItem.setStatus(Status.PENDING); // Status awal PENDING
         
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenReturn(testItem);
 
         // Act
@@ -303,7 +383,7 @@ class WishlistServiceTest {
         testForm.setPrice(new BigDecimal("100.00"));
         testItem.setStatus(Status.BOUGHT); // Status sudah BOUGHT
         
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenReturn(testItem);
 
         // Act
@@ -317,365 +397,169 @@ class WishlistServiceTest {
     void testChangeStatusPendingToBought() {
         // Arrange
         testItem.setStatus(Status.PENDING);
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenAnswer(invocation -> {
             WishlistItem item = invocation.getArgument(0);
             return item;
         });
 
         // Act
-        wishlistService.changeStatus(testItem.getId());
+        wishlistService.changeStatus(testUser, testItem.getId());
 
         // Assert
-        verify(repository, times(1)).findById(testItem.getId());
+        verify(repository, times(1)).findByIdAndUser(testItem.getId(), testUser);
         verify(repository, times(1)).save(any(WishlistItem.class));
+        verify(statsService, times(1)).applyChange(eq(testUser),
+                argThat(before -> before.getStatus() == Status.PENDING),
+                argThat(after -> after.getStatus() == Status.BOUGHT));
     }
 
     @Test
     void testChangeStatusBoughtToPending() {
         // Arrange
         testItem.setStatus(Status.BOUGHT);
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenAnswer(invocation -> {
             WishlistItem item = invocation.getArgument(0);
             return item;
         });
 
         // Act
-        wishlistService.changeStatus(testItem.getId());
+        wishlistService.changeStatus(testUser, testItem.getId());
 
         // Assert
-        verify(repository, times(1)).findById(testItem.getId());
+        verify(repository, times(1)).findByIdAndUser(testItem.getId(), testUser);
         verify(repository, times(1)).save(any(WishlistItem.class));
     }
 
     @Test
-    void testDeleteItemWithImage() {
-        // Arrange
-        testItem.setImageUrl("test-image.jpg");
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
-        doNothing().when(repository).deleteById(any(UUID.class));
+    void testChangeStatusItemOfOtherUser() {
+        // Arrange - item milik user lain tidak ketemu lewat (id, user)
+        User otherUser = new User();
+        otherUser.setId(UUID.randomUUID());
+        when(repository.findByIdAndUser(testItem.getId(), otherUser)).thenReturn(Optional.empty());
 
-        // Act
-        wishlistService.deleteItem(testItem.getId());
-
-        // Assert
-        verify(repository, times(1)).findById(testItem.getId());
-        verify(fileStorageService, times(1)).deleteFile("test-image.jpg");
-        verify(repository, times(1)).deleteById(testItem.getId());
+        // Act & Assert
+        assertThrows(NoSuchElementException.class,
+                () -> wishlistService.changeStatus(otherUser, testItem.getId()));
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any(WishlistItem.class));
+        verifyNoInteractions(statsService);
     }
 
     @Test
-    void testDeleteItemWithoutImage() {
+    void testFindByIdForUser() {
         // Arrange
-        testItem.setImageUrl(null);
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
-        doNothing().when(repository).deleteById(any(UUID.class));
-
-        // Act
-        wishlistService.deleteItem(testItem.getId());
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
 
-        // Assert
-        verify(repository, times(1)).findById(testItem.getId());
-        verify(fileStorageService, never()).deleteFile(any());
-        verify(repository, times(1)).deleteById(testItem.getId());
+        // Act & Assert
+        assertEquals(testItem, wishlistService.findByIdForUser(testItem.getId(), testUser));
+        verify(repository, never()).findById(any());
     }
 
     @Test
-    void testDeleteItemNotFound() {
+    void testFindByIdForUserNotOwned() {
         // Arrange
         UUID id = UUID.randomUUID();
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.findByIdAndUser(id, testUser)).thenReturn(Optional.empty());
 
-        // Act
-        wishlistService.deleteItem(id);
-
-        // Assert
-        verify(repository, times(1)).findById(id);
-        verify(fileStorageService, never()).deleteFile(any());
-        verify(repository, never()).deleteById(any());
+        // Act & Assert
+        assertNull(wishlistService.findByIdForUser(id, testUser));
     }
 
     @Test
-    void testCountPending() {
+    void testDeleteItemWithImage() {
         // Arrange
-        when(repository.countByUserAndStatus(testUser, Status.PENDING)).thenReturn(5L);
+        testItem.setImageUrl("test-image.jpg");
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
+        doNothing().when(repository).delete(any(WishlistItem.class));
 
         // Act
-        long result = wishlistService.countPending(testUser);
+        wishlistService.deleteItem(testUser, testItem.getId());
 
         // Assert
-        assertEquals(5L, result);
-        verify(repository, times(1)).countByUserAndStatus(testUser, Status.PENDING);
+        verify(repository, times(1)).findByIdAndUser(testItem.getId(), testUser);
+        verify(fileStorageService, times(1)).deleteFile("test-image.jpg");
+        verify(repository, times(1)).delete(testItem);
+        verify(repository, never()).deleteById(any());
+        verify(statsService, times(1)).applyChange(eq(testUser),
+                argThat(before -> "Electronics".equals(before.getCategory())), isNull());
     }
 
     @Test
-    void testCountBought() {
+    void testDeleteItemWithoutImage() {
         // Arrange
-        when(repository.countByUserAndStatus(testUser, Status.BOUGHT)).thenReturn(3L);
+        testItem.setImageUrl(null);
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
+        doNothing().when(repository).delete(any(WishlistItem.class));
 
         // Act
-        long result = wishlistService.countBought(testUser);
+        wishlistService.deleteItem(testUser, testItem.getId());
 
         // Assert
-        assertEquals(3L, result);
-        verify(repository, times(1)).countByUserAndStatus(testUser, Status.BOUGHT);
+        verify(repository, times(1)).findByIdAndUser(testItem.getId(), testUser);
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(repository, times(1)).delete(testItem);
+        verify(repository, never()).deleteById(any());
     }
 
     @Test
-    void testGetStats() {
+    void testDeleteItemNotFound() {
         // Arrange
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.PENDING);
-        item1.setPrice(new BigDecimal("100.00"));
-        item1.setCategory("Electronics");
-
-        WishlistItem item2 = new WishlistItem();
-        item2.setStatus(Status.BOUGHT);
-        item2.setPrice(new BigDecimal("200.00"));
-        item2.setCategory("Books");
-
-        WishlistItem item3 = new WishlistItem();
-        item3.setStatus(Status.PENDING);
-        item3.setPrice(new BigDecimal("150.00"));
-        item3.setCategory("Electronics");
-
-        List<WishlistItem> items = Arrays.asList(item1, item2, item3);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
+        UUID id = UUID.randomUUID();
+        when(repository.findByIdAndUser(id, testUser)).thenReturn(Optional.empty());
 
         // Act
-        WishlistStats result = wishlistService.getStats(testUser);
+        wishlistService.deleteItem(testUser, id);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2L, result.getTotalWishlist());
-        assertEquals(1L, result.getTotalPurchased());
-        assertEquals(new BigDecimal("250.00"), result.getTotalPriceWishlist());
-        assertEquals(new BigDecimal("200.00"), result.getTotalPricePurchased());
-        assertEquals(2L, result.getCountByCategory().get("Electronics"));
-        assertEquals(1L, result.getCountByCategory().get("Books"));
-        assertEquals(new BigDecimal("250.00"), result.getPriceByCategory().get("Electronics"));
-        assertEquals(new BigDecimal("200.00"), result.getPriceByCategory().get("Books"));
+        verify(repository, times(1)).findByIdAndUser(id, testUser);
+        verify(fileStorageService, never()).deleteFile(any());
+        verify(repository, never()).delete(any(WishlistItem.class));
+        verifyNoInteractions(statsService);
     }
 
     @Test
-    void testGetStatsWithNullPrice() {
+    void testCountPending() {
         // Arrange
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.PENDING);
-        item1.setPrice(null);
-        item1.setCategory("Electronics");
-
-        List<WishlistItem> items = Arrays.asList(item1);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
+        when(statsService.countByStatus(testUser, Status.PENDING)).thenReturn(5L);
 
         // Act
-        WishlistStats result = wishlistService.getStats(testUser);
+        long result = wishlistService.countPending(testUser);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(1L, result.getTotalWishlist());
-        assertEquals(BigDecimal.ZERO, result.getTotalPriceWishlist());
+        assertEquals(5L, result);
+        verify(statsService, times(1)).countByStatus(testUser, Status.PENDING);
+        verifyNoInteractions(repository);
     }
 
     @Test
-    void testGetStatsWithNullCategory() {
+    void testCountBought() {
         // Arrange
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.PENDING);
-        item1.setPrice(new BigDecimal("100.00"));
-        item1.setCategory(null);
-
-        List<WishlistItem> items = Arrays.asList(item1);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
+        when(statsService.countByStatus(testUser, Status.BOUGHT)).thenReturn(3L);
 
         // Act
-        WishlistStats result = wishlistService.getStats(testUser);
+        long result = wishlistService.countBought(testUser);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(1L, result.getTotalWishlist());
-        assertTrue(result.getCountByCategory().isEmpty());
-        assertTrue(result.getPriceByCategory().isEmpty());
+        assertEquals(3L, result);
+        verify(statsService, times(1)).countByStatus(testUser, Status.BOUGHT);
     }
 
     @Test
-    void testGetStatsEmptyList() {
+    void testGetStatsDelegatesToStatsService() {
         // Arrange
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(new ArrayList<>());
+        WishlistStats stats = new WishlistStats();
+        stats.setTotalWishlist(2L);
+        when(statsService.getStats(testUser)).thenReturn(stats);
 
         // Act
         WishlistStats result = wishlistService.getStats(testUser);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(0L, result.getTotalWishlist());
-        assertEquals(0L, result.getTotalPurchased());
-        assertEquals(BigDecimal.ZERO, result.getTotalPriceWishlist());
-        assertEquals(BigDecimal.ZERO, result.getTotalPricePurchased());
-        assertTrue(result.getCountByCategory().isEmpty());
-        assertTrue(result.getPriceByCategory().isEmpty());
-    }
-
-    @Test
-    void testGetStatsWithMixedNullValues() {
-        // Arrange - Test untuk coverage lambdaGetStats$3 (75% -> 100%)
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.PENDING);
-        item1.setPrice(new BigDecimal("100.00"));
-        item1.setCategory("Electronics");
-
-        WishlistItem item2 = new WishlistItem();
-        item2.setStatus(Status.PENDING);
-        item2.setPrice(null); // price null tapi category ada
-        item2.setCategory("Electronics");
-
-        WishlistItem item3 = new WishlistItem();
-        item3.setStatus(Status.BOUGHT);
-        item3.setPrice(new BigDecimal("200.00"));
-        item3.setCategory(null); // category null
-
-        WishlistItem item4 = new WishlistItem();
-        item4.setStatus(Status.PENDING);
-        item4.setPrice(new BigDecimal("50.00"));
-        item4.setCategory("Books");
-
-        List<WishlistItem> items = Arrays.asList(item1, item2, item3, item4);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
-
-        // Act
-        WishlistStats result = wishlistService.getStats(testUser);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(3L, result.getTotalWishlist());
-        assertEquals(1L, result.getTotalPurchased());
-        
-        // Check category counts - item2 has null price but counted
-        assertEquals(2L, result.getCountByCategory().get("Electronics"));
-        assertEquals(1L, result.getCountByCategory().get("Books"));
-        
-        // Check category prices - item2 excluded (null price)
-        assertEquals(new BigDecimal("100.00"), result.getPriceByCategory().get("Electronics"));
-        assertEquals(new BigDecimal("50.00"), result.getPriceByCategory().get("Books"));
-    }
-
-    @Test
-    void testGetStatsWithCategoryNullAndPriceNotNull() {
-        // Arrange - Branch: category != null tapi price == null di priceByCategory
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.PENDING);
-        item1.setPrice(null);
-        item1.setCategory("Electronics");
-
-        WishlistItem item2 = new WishlistItem();
-        item2.setStatus(Status.PENDING);
-        item2.setPrice(new BigDecimal("100.00"));
-        item2.setCategory("Books");
-
-        List<WishlistItem> items = Arrays.asList(item1, item2);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
-
-        // Act
-        WishlistStats result = wishlistService.getStats(testUser);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(2L, result.getTotalWishlist());
-        assertEquals(1L, result.getCountByCategory().get("Electronics"));
-        assertEquals(1L, result.getCountByCategory().get("Books"));
-        // Electronics tidak masuk di priceByCategory karena price null
-        assertNull(result.getPriceByCategory().get("Electronics"));
-        assertEquals(new BigDecimal("100.00"), result.getPriceByCategory().get("Books"));
-    }
-
-    @Test
-    void testGetStatsWithOnlyCategoryNull() {
-        // Arrange - Test untuk menutup branch: category == null (skip filter pertama)
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.PENDING);
-        item1.setPrice(new BigDecimal("100.00"));
-        item1.setCategory(null); // category null, tidak masuk grouping
-
-        WishlistItem item2 = new WishlistItem();
-        item2.setStatus(Status.PENDING);
-        item2.setPrice(new BigDecimal("50.00"));
-        item2.setCategory(null); // category null, tidak masuk grouping
-
-        List<WishlistItem> items = Arrays.asList(item1, item2);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
-
-        // Act
-        WishlistStats result = wishlistService.getStats(testUser);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(2L, result.getTotalWishlist());
-        assertEquals(new BigDecimal("150.00"), result.getTotalPriceWishlist());
-        assertTrue(result.getCountByCategory().isEmpty());
-        assertTrue(result.getPriceByCategory().isEmpty());
-    }
-
-    @Test
-    void testGetStatsWithOnlyPriceNull() {
-        // Arrange - Test untuk branch: price == null di filter kedua
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.PENDING);
-        item1.setPrice(null); // price null
-        item1.setCategory("Electronics");
-
-        WishlistItem item2 = new WishlistItem();
-        item2.setStatus(Status.PENDING);
-        item2.setPrice(null); // price null
-        item2.setCategory("Books");
-
-        List<WishlistItem> items = Arrays.asList(item1, item2);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
-
-        // Act
-        WishlistStats result = wishlistService.getStats(testUser);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(2L, result.getTotalWishlist());
-        assertEquals(BigDecimal.ZERO, result.getTotalPriceWishlist());
-        // countByCategory masih ada karena hanya check category != null
-        assertEquals(1L, result.getCountByCategory().get("Electronics"));
-        assertEquals(1L, result.getCountByCategory().get("Books"));
-        // priceByCategory kosong karena semua price null
-        assertTrue(result.getPriceByCategory().isEmpty());
-    }
-
-    @Test
-    void testGetStatsWithBoughtItemButNullPrice() {
-        // Arrange - Test untuk branch: status == BOUGHT && price == null (line 119)
-        WishlistItem item1 = new WishlistItem();
-        item1.setStatus(Status.BOUGHT);
-        item1.setPrice(null); // BOUGHT tapi price null
-        item1.setCategory("Electronics");
-
-        WishlistItem item2 = new WishlistItem();
-        item2.setStatus(Status.BOUGHT);
-        item2.setPrice(new BigDecimal("200.00"));
-        item2.setCategory("Books");
-
-        WishlistItem item3 = new WishlistItem();
-        item3.setStatus(Status.PENDING);
-        item3.setPrice(new BigDecimal("100.00"));
-        item3.setCategory("Electronics");
-
-        List<WishlistItem> items = Arrays.asList(item1, item2, item3);
-        when(repository.findByUserOrderByCreatedAtDesc(testUser)).thenReturn(items);
-
-        // Act
-        WishlistStats result = wishlistService.getStats(testUser);
-
-        // Assert
-        assertNotNull(result);
-        assertEquals(1L, result.getTotalWishlist()); // item3
-        assertEquals(2L, result.getTotalPurchased()); // item1 dan item2
-        assertEquals(new BigDecimal("100.00"), result.getTotalPriceWishlist()); // item3
-        assertEquals(new BigDecimal("200.00"), result.getTotalPricePurchased()); // hanya item2 (item1 price null)
+        assertSame(stats, result);
+        verify(statsService, times(1)).getStats(testUser);
+        verify(repository, never()).findByUserOrderByCreatedAtDesc(any());
     }
 
     @Test
@@ -692,7 +576,7 @@ class WishlistServiceTest {
 
         // Assert
         verify(repository, times(1)).save(any(WishlistItem.class));
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).storeFile(any(MultipartFile.class), any());
     }
 
     @Test
@@ -703,7 +587,7 @@ class WishlistServiceTest {
             "image", "", "image/jpeg", new byte[0]
         );
         testForm.setImageFile(emptyFile);
-        when(repository.findById(testItem.getId())).thenReturn(Optional.of(testItem));
+        when(repository.findByIdAndUser(testItem.getId(), testUser)).thenReturn(Optional.of(testItem));
         when(repository.save(any(WishlistItem.class))).thenReturn(testItem);
 
         // Act
@@ -711,6 +595,6 @@ class WishlistServiceTest {
 
         // Assert
         verify(repository, times(1)).save(any(WishlistItem.class));
-        verify(fileStorageService, never()).storeFile(any(), any());
+        verify(fileStorageService, never()).storeFile(any(MultipartFile.class), any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.dto.WishlistStats;
+import org.delcom.app.entities.User;
+import org.delcom.app.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tambah item serentak (transaksi sungguhan, tanpa rollback test) untuk user yang belum punya baris statistik
+// atau di kategori yang belum punya baris: tidak boleh ada duplicate key, hasil tetap sama dengan hitung ulang
+@SpringBootTest(properties = "app.password-hash.cost=4")
+class WishlistStatsConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private WishlistService wishlistService;
+    @Autowired private WishlistStatsService statsService;
+
+    private ExecutorService executor;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        user = new User();
+        String id = UUID.randomUUID().toString();
+        user.setName("Concurrent " + id);
+        user.setEmail("concurrent-" + id + "@stats.com");
+        user.setPassword("password");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testFirstItemsOfNewUserAddedConcurrently() throws Exception {
+        addConcurrently("Games");
+
+        WishlistStats stats = statsService.getStats(user);
+        assertEquals(THREADS, stats.getTotalWishlist());
+        assertEquals(THREADS, stats.getCountByCategory().get("Games"));
+        assertTrue(statsService.matches(user));
+    }
+
+    @Test
+    void testNewCategoryAddedConcurrently() throws Exception {
+        wishlistService.addItem(user, form("Novel", "Books"));
+
+        addConcurrently("Games");
+
+        WishlistStats stats = statsService.getStats(user);
+        assertEquals(THREADS + 1, stats.getTotalWishlist());
+        assertEquals(THREADS, stats.getCountByCategory().get("Games"));
+        assertTrue(statsService.matches(user));
+    }
+
+    // Semua thread mulai bersamaan; gagal kalau satu saja addItem melempar exception
+    private void addConcurrently(String category) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            String name = "Item " + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                wishlistService.addItem(user, form(name, category));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static WishlistForm form(String name, String category) {
+        WishlistForm form = new WishlistForm();
+        form.setName(name);
+        form.setPrice(new BigDecimal("10.00"));
+        form.setCategory(category);
+        return form;
+    }
+}
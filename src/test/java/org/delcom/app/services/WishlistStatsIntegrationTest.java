@@ -0,0 +1,165 @@
+package org.delcom.app.services;
+
+import org.delcom.app.dto.StatsDriftReport;
+import org.delcom.app.dto.WishlistForm;
+import org.delcom.app.dto.WishlistStats;
+import org.delcom.app.entities.Status;
+import org.delcom.app.entities.User;
+import org.delcom.app.entities.WishlistItem;
+import org.delcom.app.entities.WishlistUserStats;
+import org.delcom.app.repositories.WishlistItemRepository;
+import org.delcom.app.repositories.WishlistUserStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Cek bahwa tabel statistik (delta) selalu sama dengan hitung ulang dari wishlist_items
+@DataJpaTest
+@Import({WishlistService.class, WishlistStatsService.class})
+class WishlistStatsIntegrationTest {
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private WishlistService wishlistService;
+    @Autowired private WishlistStatsService statsService;
+    @Autowired private WishlistItemRepository itemRepository;
+    @Autowired private WishlistUserStatsRepository userStatsRepository;
+    @MockBean private FileStorageService fileStorageService;
+    @MockBean private ImageUploadProcessor imageUploadProcessor;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setName("Stats Owner");
+        user.setEmail("owner@stats.com");
+        user.setPassword("password");
+        entityManager.persist(user);
+        entityManager.flush();
+    }
+
+    @Test
+    void testDeltasFollowAddUpdateToggleDelete() throws IOException {
+        wishlistService.addItem(user, form("Laptop", "1000.00", "Electronics"));
+        wishlistService.addItem(user, form("Novel", "50.00", "Books"));
+        wishlistService.addItem(user, form("Sticker", null, "Books"));
+        assertMatchesRecount();
+
+        WishlistStats stats = wishlistService.getStats(user);
+        assertEquals(3L, stats.getTotalWishlist());
+        assertEquals(2L, stats.getCountByCategory().get("Books"));
+        assertEquals(0, new BigDecimal("50.00").compareTo(stats.getPriceByCategory().get("Books")));
+
+        List<WishlistItem> items = itemRepository.findByUserOrderByCreatedAtDesc(user);
+        WishlistItem laptop = items.stream().filter(i -> i.getName().equals("Laptop")).findFirst().orElseThrow();
+        WishlistItem sticker = items.stream().filter(i -> i.getName().equals("Sticker")).findFirst().orElseThrow();
+
+        // Ganti kategori & harga
+        WishlistForm update = form("Laptop", "1200.00", "Office");
+        update.setId(laptop.getId());
+        wishlistService.updateItem(user, update);
+        assertMatchesRecount();
+
+        wishlistService.changeStatus(user, laptop.getId());
+        assertMatchesRecount();
+        assertEquals(1L, wishlistService.countBought(user));
+        assertEquals(2L, wishlistService.countPending(user));
+
+        wishlistService.deleteItem(user, sticker.getId());
+        wishlistService.deleteItem(user, laptop.getId());
+        assertMatchesRecount();
+
+        stats = wishlistService.getStats(user);
+        assertEquals(1L, stats.getTotalWishlist());
+        assertEquals(0L, stats.getTotalPurchased());
+        assertFalse(stats.getCountByCategory().containsKey("Office"));
+    }
+
+    @Test
+    void testExistingItemsWithoutStatsRowAreRebuiltOnRead() {
+        // Item yang sudah ada sebelum tabel statistik dibuat
+        WishlistItem item = new WishlistItem();
+        item.setUser(user);
+        item.setName("Legacy");
+        item.setPrice(new BigDecimal("10.00"));
+        item.setCategory("Old");
+        entityManager.persist(item);
+        entityManager.flush();
+
+        assertFalse(userStatsRepository.existsById(user.getId()));
+        assertEquals(1L, wishlistService.countPending(user));
+        assertTrue(userStatsRepository.existsById(user.getId()));
+        assertMatchesRecount();
+    }
+
+    @Test
+    void testVerifyDetectsAndRepairsDrift() throws IOException {
+        wishlistService.addItem(user, form("Camera", "300.00", "Electronics"));
+        entityManager.flush();
+
+        // Rusak baris statistik secara manual
+        WishlistUserStats row = userStatsRepository.findById(user.getId()).orElseThrow();
+        row.setPendingCount(99);
+        userStatsRepository.saveAndFlush(row);
+
+        StatsDriftReport report = statsService.verifyAll(false);
+        assertEquals(1L, report.getUsersWithDrift());
+        assertFalse(statsService.matches(user));
+
+        report = statsService.verifyAll(true);
+        assertTrue(report.isRepaired());
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(statsService.matches(user));
+        assertFalse(statsService.verifyAll(false).hasDrift());
+    }
+
+    @Test
+    void testOtherUserCannotReadToggleOrDeleteItem() throws IOException {
+        wishlistService.addItem(user, form("Camera", "300.00", "Electronics"));
+        WishlistItem camera = itemRepository.findByUserOrderByCreatedAtDesc(user).get(0);
+
+        User intruder = new User();
+        intruder.setName("Intruder");
+        intruder.setEmail("intruder@stats.com");
+        intruder.setPassword("password");
+        entityManager.persist(intruder);
+        entityManager.flush();
+
+        assertNull(wishlistService.findByIdForUser(camera.getId(), intruder));
+        assertThrows(NoSuchElementException.class,
+                () -> wishlistService.changeStatus(intruder, camera.getId()));
+        wishlistService.deleteItem(intruder, camera.getId());
+        assertMatchesRecount();
+
+        WishlistItem reloaded = wishlistService.findByIdForUser(camera.getId(), user);
+        assertNotNull(reloaded);
+        assertEquals(Status.PENDING, reloaded.getStatus());
+        assertEquals(1L, wishlistService.countPending(user));
+    }
+
+    private void assertMatchesRecount() {
+        entityManager.flush();
+        entityManager.clear();
+        assertTrue(statsService.matches(user), "tabel statistik tidak sama dengan hitung ulang");
+    }
+
+    private WishlistForm form(String name, String price, String category) {
+        WishlistForm form = new WishlistForm();
+        form.setName(name);
+        form.setPrice(price == null ? null : new BigDecimal(price));
+        form.setCategory(category);
+        return form;
+    }
+}
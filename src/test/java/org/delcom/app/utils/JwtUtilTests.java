@@ -416,4 +416,48 @@ class JwtUtilTest {
         Boolean isValid3 = jwtUtil.validateToken(token, wrongUsername, true);
         assertFalse(isValid3);
     }
-}
\ No newline at end of file
+
+    // --- VALIDATE AND EXTRACT ---
+    @Test
+    void testValidateAndExtractReturnsClaims() {
+        UUID userId = UUID.randomUUID();
+        String token = jwtUtil.generateToken(userId, "testuser");
+
+        Claims claims = jwtUtil.validateAndExtract(token).orElseThrow();
+        assertEquals("testuser", claims.getSubject());
+        assertEquals(userId.toString(), claims.get("userId", String.class));
+    }
+
+    @Test
+    void testValidateAndExtractRejectsInvalidTokens() {
+        String token = jwtUtil.generateToken("testuser");
+        String[] parts = token.split("\\.");
+
+        assertTrue(jwtUtil.validateAndExtract(parts[0] + "." + parts[1] + ".tampered").isEmpty());
+        assertTrue(jwtUtil.validateAndExtract("garbage").isEmpty());
+        assertTrue(jwtUtil.validateAndExtract("").isEmpty());
+        assertTrue(jwtUtil.validateAndExtract(null).isEmpty());
+    }
+
+    @Test
+    void testValidateAndExtractRejectsExpiredToken() {
+        JwtUtil expiredJwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(expiredJwtUtil, "secret", testSecret);
+        ReflectionTestUtils.setField(expiredJwtUtil, "expiration", -1000L);
+
+        assertTrue(jwtUtil.validateAndExtract(expiredJwtUtil.generateToken("testuser")).isEmpty());
+    }
+
+    @Test
+    void testSigningKeyAndParserAreReused() {
+        jwtUtil.validateToken(jwtUtil.generateToken("a"), "a");
+        Object key = ReflectionTestUtils.getField(jwtUtil, "signingKey");
+        Object parser = ReflectionTestUtils.getField(jwtUtil, "parser");
+        assertNotNull(key);
+        assertNotNull(parser);
+
+        jwtUtil.validateToken(jwtUtil.generateToken("b"), "b");
+        assertTrue(key == ReflectionTestUtils.getField(jwtUtil, "signingKey"));
+        assertTrue(parser == ReflectionTestUtils.getField(jwtUtil, "parser"));
+    }
+}
@@ -1,7 +1,16 @@
 package org.delcom.app.utils;
 
 import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class UtilsTest {
     @Test
@@ -10,4 +19,112 @@ class UtilsTest {
         ConstUtil util = new ConstUtil();
         assertNotNull(util);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCursorRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123456000);
+        UUID id = UUID.randomUUID();
+
+        String cursor = CursorUtil.encode(createdAt, id);
+        CursorUtil.Position position = CursorUtil.decode(cursor);
+
+        // Aman dipakai di query string tanpa escape
+        assertFalse(cursor.contains("=") || cursor.contains("+") || cursor.contains("/"));
+        assertEquals(createdAt, position.getCreatedAt());
+        assertEquals(id, position.getId());
+    }
+
+    @Test
+    void testCursorDecodeInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode("dGFucGEtcGVtaXNhaA"));
+        String badUuid = CursorUtil.encode(LocalDateTime.now(), UUID.randomUUID()).substring(0, 20);
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode(badUuid));
+    }
+
+    @Test
+    void testTokenHashIsStableAndHidesToken() {
+        assertEquals(TokenHashUtil.digest("abc"), TokenHashUtil.digest("abc"));
+        assertNotEquals(TokenHashUtil.digest("abc"), TokenHashUtil.digest("abd"));
+        assertFalse(TokenHashUtil.digest("secret-token").contains("secret"));
+        assertEquals(43, TokenHashUtil.digest("abc").length());
+    }
+
+    // --- BLOOM FILTER ---
+    @Test
+    void testBloomFilterHasNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(TokenHashUtil.sha256("revoked-" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain(TokenHashUtil.sha256("revoked-" + i)));
+        }
+        assertEquals(1000, filter.getInsertions());
+    }
+
+    @Test
+    void testBloomFilterFalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(TokenHashUtil.sha256("revoked-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(TokenHashUtil.sha256("active-" + i))) falsePositives++;
+        }
+        double rate = falsePositives / 100_000.0;
+        assertTrue(rate < 0.02, "fpp " + rate);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        // ~9.6 bit per elemen untuk fpp 1%
+        assertTrue(filter.getMemoryBytes() < 10_000 * 10 / 8 + 64, "bytes " + filter.getMemoryBytes());
+    }
+
+    @Test
+    void testBloomFilterRejectsInvalidFpp() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+        assertFalse(new BloomFilter(0, 0.01).mightContain(TokenHashUtil.sha256("x")));
+    }
+
+    @Test
+    void testLatencyHistogramPercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long ms = 1; ms <= 1000; ms++) {
+            histogram.record(ms * 1_000_000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000_000L, histogram.getMax());
+        assertEquals(500_500L * 1_000_000, histogram.getSum());
+        assertWithin(500_000_000L, histogram.valueAtPercentile(50));
+        assertWithin(990_000_000L, histogram.valueAtPercentile(99));
+        assertWithin(999_000_000L, histogram.valueAtPercentile(99.9));
+        assertEquals(1_000_000_000L, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    void testLatencyHistogramBucketBoundaries() {
+        for (long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1000, 123_456_789L, 1L << 40}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value, "value=" + value);
+            if (index > 0) assertTrue(LatencyHistogram.highestValueOf(index - 1) < value, "value=" + value);
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void testLatencyHistogramEmptyAndNegative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.valueAtPercentile(99));
+
+        histogram.record(-5);
+        assertEquals(0, histogram.valueAtPercentile(50));
+        assertEquals(1, histogram.getCount());
+    }
+
+    // Nilai persentil paling jauh ~3% (lebar bucket) di atas nilai sebenarnya
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.04, "expected ~" + expected + " but was " + actual);
+    }
+}
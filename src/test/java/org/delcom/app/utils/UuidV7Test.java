@@ -0,0 +1,62 @@
+package org.delcom.app.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void testVersionAndVariant() {
+        UUID uuid = UuidV7.generate();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant()); // RFC 4122 / 9562
+    }
+
+    @Test
+    void testTimestampIsCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        // Boleh lebih dari "after" sedikit kalau counter sempat meminjam ms berikutnya
+        long ts = UuidV7.timestamp(uuid);
+        assertTrue(ts >= before && ts <= after + 5, "timestamp " + ts);
+    }
+
+    @Test
+    void testMonotonicWithinJvm() {
+        // Jauh lebih banyak dari kapasitas counter per ms, jadi jalur "pinjam ms" ikut teruji
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            ids.add(UuidV7.generate());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            String prev = ids.get(i - 1).toString();
+            String next = ids.get(i).toString();
+            assertTrue(prev.compareTo(next) < 0, prev + " >= " + next);
+        }
+    }
+
+    @Test
+    void testUniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 40_000).parallel().forEach(i -> ids.add(UuidV7.generate()));
+
+        assertEquals(40_000, ids.size());
+    }
+
+    @Test
+    void testTimestampRejectsOtherVersions() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+}